@@ -26,8 +26,10 @@ public final class PhantomVoting extends JavaPlugin {
     private VoteStorage voteStorage;
     private MessageManager<PhantomVoting> messageManager;
     private VotePartyManager votePartyManager;
+    private VoteIngestionManager<PhantomVoting> voteIngestionManager;
     private BossbarManager<PhantomVoting> bossbarManager;
     private PlayerManager<PhantomVoting> playerManager;
+    private PlaceholderManager placeholderManager;
     private LeaderboardInventory<PhantomVoting> leaderboardInventory;
     private VoteReminderManager<PhantomVoting> voteReminderManager;
     private MilestonesInventory milestonesInventory;
@@ -62,20 +64,17 @@ public final class PhantomVoting extends JavaPlugin {
         messageManager = new MessageManager<>(this, configurationManager);
         voteStorage = new VoteStorage("PhantomVoting", configurationManager.getConfig("storage"));
 
-        try {
-            voteStorage.loadMilestones();
-            voteStorage.loadStreaks();
-            voteStorage.loadCurrentGlobalVoteCount();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        voteStorage.loadCurrentGlobalVoteCount();
 
         votePartyManager = new VotePartyManager(this);
+        voteIngestionManager = new VoteIngestionManager<>(this);
         leaderboardInventory = new LeaderboardInventory<>(this);
         playerManager = new PlayerManager<>(this);
 
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            new PlaceholderManager(voteStorage, votePartyManager).register();
+            placeholderManager = new PlaceholderManager(voteStorage, votePartyManager,
+                    configurationManager.getConfig("config").getLong("Placeholders.Cache-Duration", 1000L));
+            placeholderManager.register();
         }
 
         commandManager = new CommandManager(this);
@@ -101,6 +100,12 @@ public final class PhantomVoting extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (voteIngestionManager != null) {
+            voteIngestionManager.shutdown();
+        }
+        if (votePartyManager != null) {
+            votePartyManager.getRewardDispatcher().shutdown();
+        }
         try {
             voteStorage.saveMilestones();
             voteStorage.saveStreaks();
@@ -159,6 +164,15 @@ public final class PhantomVoting extends JavaPlugin {
         return votePartyManager;
     }
 
+    /**
+     * Gets the vote ingestion manager.
+     *
+     * @return the vote ingestion manager
+     */
+    public VoteIngestionManager<PhantomVoting> getVoteIngestionManager() {
+        return voteIngestionManager;
+    }
+
     /**
      * Gets the listener manager.
      *
@@ -176,6 +190,14 @@ public final class PhantomVoting extends JavaPlugin {
     public PlayerManager<PhantomVoting> getPlayerManager() {
         return playerManager;
     }
+    /**
+     * Gets the placeholder manager.
+     *
+     * @return the placeholder manager, or null if PlaceholderAPI is not installed
+     */
+    public PlaceholderManager getPlaceholderManager() {
+        return placeholderManager;
+    }
 
     /**
      * Gets the bossbar manager.
@@ -6,6 +6,12 @@ import me.fergs.phantomvoting.PhantomVoting;
 import me.fergs.phantomvoting.commands.impl.CommandArguments;
 import me.fergs.phantomvoting.commands.impl.CommandManager;
 import me.fergs.phantomvoting.commands.impl.CustomCommand;
+import me.fergs.phantomvoting.database.checkpoint.CheckpointMetrics;
+import me.fergs.phantomvoting.database.checkpoint.StateCheckpointer;
+import me.fergs.phantomvoting.database.claim.ClaimStore;
+import me.fergs.phantomvoting.database.interfaces.ConnectionProvider;
+import me.fergs.phantomvoting.database.journal.WriteBehindVoteWriter;
+import me.fergs.phantomvoting.managers.VotePartyRewardDispatcher;
 import me.fergs.phantomvoting.utils.Color;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
@@ -41,6 +47,7 @@ public class AdminCommands {
                         .withSubcommand(createVotePartyCommand(plugin, baseCommand))
                         .withSubcommand(createStreaksCommand(plugin, baseCommand))
                         .withSubcommand(createOpenGuiCommand(plugin, baseCommand))
+                        .withSubcommand(createStatsCommand(plugin))
         );
     }
 
@@ -51,7 +58,9 @@ public class AdminCommands {
         return new CustomCommand("reload")
                 .executes((sender, args) -> {
                     plugin.getConfigurationManager().reloadAllConfigs();
+                    plugin.getMessageManager().reload();
                     plugin.getVotePartyManager().reloadSettings();
+                    plugin.getVoteIngestionManager().reloadRewards();
                     plugin.getLeaderboardInventory().reloadInventory();
 
                     if (plugin.getConfigurationManager().isModuleEnabled("Milestones")) {
@@ -294,7 +303,7 @@ public class AdminCommands {
                     }
 
                     LocalDate today = LocalDate.now();
-                    plugin.getVoteStorage().resetStreak(target.getUniqueId(), today.toString());
+                    plugin.getVoteStorage().resetStreak(target.getUniqueId(), today);
                     plugin.getMessageManager().sendMessage(sender, "STREAK_RESET", "%player%", target.getName());
                 });
     }
@@ -379,6 +388,49 @@ public class AdminCommands {
                 });
     }
 
+    /**
+     * Creates the stats subcommand.
+     */
+    private CustomCommand createStatsCommand(PhantomVoting plugin) {
+        return new CustomCommand("stats")
+                .executes((sender, args) -> {
+                    ConnectionProvider provider = plugin.getVoteStorage().getConnectionProvider();
+                    sender.sendMessage(Color.hex("&6&lStorage Statistics"));
+                    sender.sendMessage(Color.hex("&7Active connections: &f" + provider.getActiveConnections()));
+                    sender.sendMessage(Color.hex("&7Idle connections: &f" + provider.getIdleConnections()));
+                    sender.sendMessage(Color.hex(String.format("&7Connection wait: &f%.2fms avg&7, &f%.2fms max",
+                            provider.getAverageWaitMillis(), provider.getMaxWaitMillis())));
+                    sender.sendMessage(Color.hex(String.format("&7Statement cache: &f%.1f%% &7reused", provider.getStatementHitRatio() * 100)));
+                    sender.sendMessage(Color.hex("&7Queued votes: &f" + plugin.getVoteIngestionManager().getQueuedVotes()
+                            + " &7stored, &f" + plugin.getVoteIngestionManager().getQueuedDispatches() + " &7awaiting rewards"));
+                    sender.sendMessage(Color.hex("&7Queue overflow: &f" + plugin.getVoteIngestionManager().getSpilledVotes()
+                            + " &7spilled to offline votes, &f" + plugin.getVoteIngestionManager().getDroppedTasks() + " &7dropped, &f"
+                            + plugin.getVoteIngestionManager().getLostOfflineVotes() + " &7offline votes lost"));
+                    sender.sendMessage(Color.hex("&7Cached profiles: &f" + plugin.getVoteStorage().getProfileCache().size()));
+                    ClaimStore milestoneClaims = plugin.getVoteStorage().getMilestoneClaims();
+                    ClaimStore streakClaims = plugin.getVoteStorage().getStreakClaims();
+                    sender.sendMessage(Color.hex("&7Cached claims: &f" + milestoneClaims.getOnlineCount() + " &7online, &f" + milestoneClaims.getOfflineCount()
+                            + " &7offline players"));
+                    sender.sendMessage(Color.hex("&7Unsaved claims: &f" + milestoneClaims.getUnsavedCount()
+                            + " &7milestones, &f" + streakClaims.getUnsavedCount() + " &7streaks"));
+                    VotePartyRewardDispatcher rewardDispatcher = plugin.getVotePartyManager().getRewardDispatcher();
+                    sender.sendMessage(Color.hex("&7Vote party rewards: &f" + rewardDispatcher.getCompletedJobs() + "&7/&f" + rewardDispatcher.getTotalJobs()
+                            + " &7given, &f" + rewardDispatcher.getQueuedJobs() + " &7queued, &f" + rewardDispatcher.getWaitingPlayers() + " &7awaiting rejoin"));
+                    StateCheckpointer checkpointer = plugin.getVoteStorage().getCheckpointer();
+                    if (checkpointer != null) {
+                        CheckpointMetrics metrics = checkpointer.getMetrics();
+                        sender.sendMessage(Color.hex(String.format("&7Checkpoints: &f%d &7written, &f%d &7unchanged, &f%d &7failed, &f%.2fms avg&7, &f%.2fms max",
+                                metrics.getWriteCount(), metrics.getSkipCount(), metrics.getFailureCount(),
+                                metrics.getAverageWriteMillis(), metrics.getMaxWriteMillis())));
+                    }
+                    WriteBehindVoteWriter writeBehindWriter = plugin.getVoteStorage().getWriteBehindWriter();
+                    if (writeBehindWriter != null) {
+                        sender.sendMessage(Color.hex("&7Unwritten journal votes: &f" + writeBehindWriter.getPendingVotes()
+                                + " &7(last flush &f" + writeBehindWriter.getLastFlushMillis() + "ms&7)"));
+                    }
+                });
+    }
+
     /**
      * Creates the opengui subcommand.
      */
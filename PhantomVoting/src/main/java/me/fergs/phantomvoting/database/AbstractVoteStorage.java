@@ -1,35 +1,906 @@
 package me.fergs.phantomvoting.database;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
+import me.fergs.phantomvoting.database.claim.ClaimType;
+import me.fergs.phantomvoting.database.interfaces.ConnectionProvider;
+import me.fergs.phantomvoting.database.interfaces.SqlDialect;
 import me.fergs.phantomvoting.database.interfaces.VoteStorage;
+import me.fergs.phantomvoting.database.journal.JournalEntry;
+import me.fergs.phantomvoting.database.migration.EpochTimestampMigration;
+import me.fergs.phantomvoting.database.migration.QueryPlanCheck;
+import me.fergs.phantomvoting.database.migration.SchemaMigrator;
+import me.fergs.phantomvoting.database.migration.TableIndex;
+import me.fergs.phantomvoting.database.statement.SqlStatement;
+import me.fergs.phantomvoting.database.statement.StatementRegistry;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+import org.bukkit.configuration.ConfigurationSection;
 
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.time.format.DateTimeFormatter;
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/*
- * TODO: Complete the implementation of the AbstractVoteStorage class.
+/**
+ * The JDBC half of a storage backend that every database shares: the statements that are written the same way
+ * everywhere, how parameters are bound and how records are read. Each backend adds its tables, its upserts,
+ * its dialect and the threads its operations run on, tuned for how its database handles concurrency.
+ * <p>
+ * Writes run on the write executor with the provider's write connection, and reads on the read executor with
+ * a read connection, so a backend can give writes a single thread where its database only allows one writer.
  */
 public abstract class AbstractVoteStorage implements VoteStorage {
-    protected Connection connection;
-    protected final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] PERIODS = {"daily", "weekly", "monthly", "yearly"};
+    protected final ConnectionProvider connectionProvider;
+    protected final SqlDialect dialect;
+    protected final StatementRegistry statements;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService readExecutor;
+    private final boolean leaderboardIndexes;
+    private final boolean checkQueryPlans;
+    /**
+     * Creates a new storage backend.
+     *
+     * @param connectionProvider The provider to borrow connections from.
+     * @param dialect The database's dialect.
+     * @param statements The statements, with the backend's own already registered.
+     * @param writeExecutor The threads writes run on.
+     * @param readExecutor The threads reads run on, may be the write executor.
+     * @param indexSection The index settings, may be null for defaults.
+     */
+    protected AbstractVoteStorage(ConnectionProvider connectionProvider, SqlDialect dialect, StatementRegistry statements,
+                                  ExecutorService writeExecutor, ExecutorService readExecutor, ConfigurationSection indexSection) {
+        this.connectionProvider = connectionProvider;
+        this.dialect = dialect;
+        this.statements = statements;
+        this.writeExecutor = writeExecutor;
+        this.readExecutor = readExecutor;
+        this.leaderboardIndexes = indexSection == null || indexSection.getBoolean("leaderboard", true);
+        this.checkQueryPlans = indexSection == null || indexSection.getBoolean("check-query-plans", true);
+    }
+    /**
+     * Creates a pool of named daemon threads for a backend to run its operations on.
+     *
+     * @param name The name of the threads, numbered from 1.
+     * @param threads The number of threads.
+     * @return The executor.
+     */
+    protected static ExecutorService newExecutor(String name, int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "PhantomVoting-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    /**
+     * Creates the tables the plugin uses if they do not exist yet.
+     *
+     * @param stmt The statement to create the tables with.
+     * @throws SQLException If a table could not be created.
+     */
+    protected abstract void createTables(Statement stmt) throws SQLException;
+    /**
+     * Gets the statement that makes the vote_party id column its key, for tables created before it had one.
+     *
+     * @return The SQL.
+     */
+    protected abstract String votePartyKeySql();
+    /**
+     * Applies a vote with the vote upsert and reads back the player's record, so the record returned is the one
+     * this vote wrote and not one changed by a later vote.
+     *
+     * @param connection The write connection.
+     * @param playerUUID UUID of the player.
+     * @param time The time of the vote.
+     * @return The player's record after the vote, or null if it could not be read back.
+     * @throws SQLException If the vote could not be written.
+     */
+    protected abstract PlayerVoteProfile applyVote(Connection connection, UUID playerUUID, LocalDateTime time) throws SQLException;
 
-    public AbstractVoteStorage() {
-        try {
-            connectDatabase();
-            initializeDatabase();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    @Override
+    public CompletableFuture<Void> initialize() {
+        CompletableFuture<Void> migrated = write(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                createTables(stmt);
+            }
+            checkAndAddColumns(connection);
+            new SchemaMigrator(dialect)
+                    .register(new EpochTimestampMigration())
+                    .indexes("player_votes", leaderboardIndexes ? playerVoteIndexes() : Collections.emptyList())
+                    .migrate(connection);
+            return null;
+        });
+        if (!checkQueryPlans) {
+            return migrated;
+        }
+        return migrated.thenCompose(ignored -> read(connection -> {
+            checkQueryPlans(connection);
+            return null;
+        }));
+    }
+    /**
+     * Adds the columns that were introduced after the tables were first created, if they are missing.
+     *
+     * @param connection The connection to change the tables on.
+     * @throws SQLException If a column could not be added.
+     */
+    private void checkAndAddColumns(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            if (!columnExists(connection, "player_votes", "streak_count")) {
+                stmt.executeUpdate("ALTER TABLE player_votes ADD COLUMN streak_count " + dialect.integerType() + " DEFAULT 0");
+            }
+            if (!columnExists(connection, "player_votes", "last_vote_date")) {
+                stmt.executeUpdate("ALTER TABLE player_votes ADD COLUMN last_vote_date " + dialect.integerType());
+            }
+        }
+        if (!keyExists(connection, "vote_party", "id")) {
+            addVotePartyKey(connection);
         }
     }
+    /**
+     * Gives the vote_party table a key, so the count can be saved with a single upsert.
+     * Older tables only had the count column, so the id column is added first, defaulting to 1, then the rows
+     * are replaced by one keyed row holding the highest count, and then the key is added.
+     * <p>
+     * On SQLite the steps run in one transaction. MySQL commits each ALTER TABLE on its own, but the rows are
+     * only replaced inside the transaction, so a failure leaves either the old rows or the single row, never
+     * neither. The migration runs again on the next start until the key exists, and skips the column once added.
+     *
+     * @param connection The connection to migrate the table with.
+     * @throws SQLException If the table could not be migrated.
+     */
+    private void addVotePartyKey(Connection connection) throws SQLException {
+        inTransaction(connection, () -> {
+            try (Statement stmt = connection.createStatement()) {
+                if (!columnExists(connection, "vote_party", "id")) {
+                    stmt.executeUpdate("ALTER TABLE vote_party ADD COLUMN id " + dialect.integerType() + " NOT NULL DEFAULT 1");
+                }
+                int count = 0;
+                try (ResultSet rs = stmt.executeQuery("SELECT MAX(current_vote_count) FROM vote_party")) {
+                    if (rs.next()) {
+                        count = rs.getInt(1);
+                    }
+                }
+                stmt.executeUpdate("DELETE FROM vote_party");
+                try (PreparedStatement pstmt = connection.prepareStatement("INSERT INTO vote_party (id, current_vote_count) VALUES (1, ?)")) {
+                    pstmt.setInt(1, count);
+                    pstmt.executeUpdate();
+                }
+                stmt.executeUpdate(votePartyKeySql());
+            }
+            return null;
+        });
+    }
+    /**
+     * Gets the indexes for reading leaderboards straight from player_votes. The plugin ranks players in memory,
+     * so these serve other readers, such as a website listing the top voters.
+     * Each index leads with a count in descending order, so the top N rows are the first N index entries,
+     * and also holds the period timestamp and uuid, so the query never has to read the table.
+     *
+     * @return The indexes.
+     */
+    private static List<TableIndex> playerVoteIndexes() {
+        List<TableIndex> indexes = new ArrayList<>();
+        indexes.add(new TableIndex("idx_player_votes_all_time", "player_votes", "all_time_count DESC, uuid"));
+        for (String period : PERIODS) {
+            indexes.add(new TableIndex("idx_player_votes_" + period, "player_votes", period + "_count DESC, " + period + "_timestamp, uuid"));
+        }
+        return indexes;
+    }
+    /**
+     * Checks that the plugin's lookups, and the leaderboard queries when their indexes are enabled, are answered
+     * from an index, warning about any that read a whole table.
+     *
+     * @param connection The connection to explain the queries on.
+     */
+    private void checkQueryPlans(Connection connection) {
+        String uuid = "'" + new UUID(0L, 0L) + "'";
+        QueryPlanCheck check = new QueryPlanCheck(dialect)
+                .expect("player record", "SELECT * FROM player_votes WHERE uuid = " + uuid)
+                .expect("milestone claims", "SELECT milestone_id FROM player_milestones WHERE uuid = " + uuid + " AND claimed = TRUE")
+                .expect("streak claims", "SELECT streak_id FROM player_streaks WHERE uuid = " + uuid + " AND claimed = TRUE")
+                .expect("pending votes", "SELECT id, created_at FROM pending_votes WHERE uuid = " + uuid + " OR username = '' ORDER BY id")
+                .expect("expired pending votes", "SELECT id FROM pending_votes WHERE created_at < 0");
+        if (leaderboardIndexes) {
+            check.expect("all time top voters", "SELECT uuid, all_time_count FROM player_votes ORDER BY all_time_count DESC LIMIT 10")
+                    .expect("all time rank", "SELECT COUNT(*) FROM player_votes WHERE all_time_count > 0");
+            for (String period : PERIODS) {
+                check.expect(period + " top voters", "SELECT uuid, " + period + "_count FROM player_votes WHERE "
+                        + period + "_timestamp >= 0 ORDER BY " + period + "_count DESC LIMIT 10");
+            }
+        }
+        check.run(connection);
+    }
+
+    @Override
+    public CompletableFuture<PlayerVoteProfile> addVote(UUID playerUUID, LocalDateTime time) {
+        return write(connection -> applyVote(connection, playerUUID, time));
+    }
+
+    @Override
+    public CompletableFuture<Void> addVotes(List<JournalEntry> votes) {
+        return write(connection -> inTransaction(connection, () -> {
+            writeVotes(connection, votes);
+            return null;
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> addJournaledVotes(String journalId, long sequence, List<JournalEntry> votes) {
+        return write(connection -> inTransaction(connection, () -> {
+            if (readJournalCheckpoint(connection, journalId) >= sequence) {
+                return null;
+            }
+            writeVotes(connection, votes);
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.UPSERT_JOURNAL_CHECKPOINT))) {
+                pstmt.setString(1, journalId);
+                pstmt.setLong(2, sequence);
+                pstmt.executeUpdate();
+            }
+            return null;
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Long> getJournalCheckpoint(String journalId) {
+        return read(connection -> readJournalCheckpoint(connection, journalId));
+    }
+    @Override
+    public CompletableFuture<List<Long>> claimPendingVotes(UUID playerUUID, String username) {
+        String name = username.toLowerCase(Locale.ROOT);
+        return write(connection -> inTransaction(connection, () -> {
+            List<JournalEntry> votes = new ArrayList<>();
+            long maxId = -1;
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_PENDING_VOTES))) {
+                pstmt.setString(1, playerUUID.toString());
+                pstmt.setString(2, name);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        maxId = rs.getLong("id");
+                        votes.add(new JournalEntry(playerUUID, rs.getLong("created_at")));
+                    }
+                }
+            }
+            if (votes.isEmpty()) {
+                return Collections.<Long>emptyList();
+            }
+            writeVotes(connection, votes);
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.DELETE_PENDING_VOTES))) {
+                pstmt.setString(1, playerUUID.toString());
+                pstmt.setString(2, name);
+                pstmt.setLong(3, maxId);
+                pstmt.executeUpdate();
+            }
+            List<Long> timestamps = new ArrayList<>(votes.size());
+            for (JournalEntry vote : votes) {
+                timestamps.add(vote.getTimestamp());
+            }
+            return timestamps;
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> addPendingVote(UUID playerUUID, String username, long timestamp) {
+        return write(connection -> {
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.INSERT_PENDING_VOTE))) {
+                pstmt.setString(1, playerUUID != null ? playerUUID.toString() : null);
+                pstmt.setString(2, username.toLowerCase(Locale.ROOT));
+                pstmt.setLong(3, timestamp);
+                pstmt.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasPendingVotes(UUID playerUUID, String username) {
+        return read(connection -> {
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_PENDING_VOTES))) {
+                pstmt.setString(1, playerUUID.toString());
+                pstmt.setString(2, username.toLowerCase(Locale.ROOT));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> getPendingVoteNames() {
+        return read(connection -> {
+            Set<String> names = new HashSet<>();
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_PENDING_VOTE_NAMES));
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString("username"));
+                }
+            }
+            return names;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getPendingVoteUUIDs() {
+        return read(connection -> {
+            Set<UUID> uuids = new HashSet<>();
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_PENDING_VOTE_UUIDS));
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    uuids.add(UUID.fromString(rs.getString("uuid")));
+                }
+            }
+            return uuids;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteExpiredPendingVotes(long cutoff) {
+        return write(connection -> {
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.DELETE_EXPIRED_PENDING_VOTES))) {
+                pstmt.setLong(1, cutoff);
+                return pstmt.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<IntList> getClaims(ClaimType type, UUID playerUUID) {
+        return read(connection -> {
+            IntList claims = new IntArrayList();
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(type.getSelect()))) {
+                pstmt.setString(1, playerUUID.toString());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        claims.add(rs.getInt(1));
+                    }
+                }
+            }
+            return claims;
+        });
+    }
 
     @Override
-    public void closeConnection() {
+    public CompletableFuture<Integer> saveClaims(ClaimType type, Map<UUID, IntList> claims) {
+        return write(connection -> inTransaction(connection, () -> {
+            int batched = 0;
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(type.getUpsert()))) {
+                for (Map.Entry<UUID, IntList> entry : claims.entrySet()) {
+                    String uuid = entry.getKey().toString();
+                    for (IntIterator iterator = entry.getValue().iterator(); iterator.hasNext(); ) {
+                        pstmt.setString(1, uuid);
+                        pstmt.setInt(2, iterator.nextInt());
+                        pstmt.addBatch();
+                        if (++batched % 500 == 0) {
+                            pstmt.executeBatch();
+                        }
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            return batched;
+        }));
+    }
+    /**
+     * Reads the highest segment of a journal that has been written, on an already borrowed connection.
+     *
+     * @param connection The connection to read with.
+     * @param journalId The id of the journal.
+     * @return The sequence, or -1 if none of the journal's segments have been written.
+     * @throws SQLException If the checkpoint could not be read.
+     */
+    private long readJournalCheckpoint(Connection connection, String journalId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_JOURNAL_CHECKPOINT))) {
+            pstmt.setString(1, journalId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong("flushed_sequence") : -1L;
+            }
+        }
+    }
+    /**
+     * Applies a batch of votes with the vote upsert, each at the time it was cast.
+     *
+     * @param connection The write connection, inside a transaction.
+     * @param votes The votes, oldest first.
+     * @throws SQLException If a vote could not be written.
+     */
+    private void writeVotes(Connection connection, List<JournalEntry> votes) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.UPSERT_VOTE))) {
+            int batched = 0;
+            for (JournalEntry vote : votes) {
+                bindVote(pstmt, vote.getUuid(), LocalDateTime.ofInstant(Instant.ofEpochMilli(vote.getTimestamp()), ZoneId.systemDefault()));
+                pstmt.addBatch();
+                if (++batched % 500 == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+    /**
+     * Runs work in a single transaction, rolling it back if any of it fails.
+     *
+     * @param connection The connection to run the work on.
+     * @param work The work.
+     * @param <T> The work's result.
+     * @return The result.
+     * @throws SQLException If the work failed, in which case nothing is committed.
+     */
+    protected static <T> T inTransaction(Connection connection, TransactionWork<T> work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+            T result = work.run();
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    /**
+     * Binds the parameters of the vote upsert.
+     *
+     * @param pstmt The upsert statement
+     * @param playerUUID UUID of the player
+     * @param now The time of the vote
+     * @throws SQLException If a parameter could not be bound
+     */
+    protected void bindVote(PreparedStatement pstmt, UUID playerUUID, LocalDateTime now) throws SQLException {
+        LocalDate today = now.toLocalDate();
+        long currentTimestamp = toEpochMillis(now);
+        long[] cutoffs = periodCutoffs(now);
+        pstmt.setString(1, playerUUID.toString());
+        pstmt.setLong(2, currentTimestamp);
+        pstmt.setLong(3, currentTimestamp);
+        pstmt.setLong(4, currentTimestamp);
+        pstmt.setLong(5, currentTimestamp);
+        pstmt.setLong(6, today.toEpochDay());
+        int index = 7;
+        for (int i = 0; i < 2; i++) {
+            for (long cutoff : cutoffs) {
+                pstmt.setLong(index++, cutoff);
+            }
+        }
+        pstmt.setLong(index++, today.minusDays(1).toEpochDay());
+        pstmt.setLong(index, today.minusDays(1).toEpochDay());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addMultipleVotes(UUID playerUUID, int amount, LocalDateTime time) {
+        return write(connection -> {
+            long currentTimestamp = toEpochMillis(time);
+            long[] cutoffs = periodCutoffs(time);
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.ADD_VOTES))) {
+                int index = 1;
+                for (long cutoff : cutoffs) {
+                    pstmt.setLong(index++, cutoff);
+                    pstmt.setInt(index++, amount);
+                    pstmt.setInt(index++, amount);
+                }
+                for (long cutoff : cutoffs) {
+                    pstmt.setLong(index++, cutoff);
+                    pstmt.setLong(index++, currentTimestamp);
+                }
+                pstmt.setInt(index++, amount);
+                pstmt.setString(index, playerUUID.toString());
+                return pstmt.executeUpdate() > 0;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeVotes(UUID playerUUID, int amount) {
+        return write(connection -> {
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.REMOVE_VOTES))) {
+                pstmt.setInt(1, amount);
+                pstmt.setString(2, playerUUID.toString());
+                return pstmt.executeUpdate() > 0;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        });
+    }
+
+    @Override
+    public CompletableFuture<PlayerVoteProfile> getProfile(UUID playerUUID) {
+        return read(connection -> selectProfile(connection, playerUUID));
+    }
+    /**
+     * Reads a player's record on an already borrowed connection.
+     *
+     * @param connection The connection to read with.
+     * @param playerUUID UUID of the player.
+     * @return The record, or null if the player has none.
+     * @throws SQLException If the record could not be read.
+     */
+    protected PlayerVoteProfile selectProfile(Connection connection, UUID playerUUID) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_PROFILE))) {
+            pstmt.setString(1, playerUUID.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? readProfile(playerUUID, rs) : null;
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerVoteProfile>> getAllProfiles() {
+        return read(connection -> {
+            List<PlayerVoteProfile> profiles = new ArrayList<>();
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_ALL_PROFILES));
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    profiles.add(readProfile(UUID.fromString(rs.getString("uuid")), rs));
+                }
+            }
+            return profiles;
+        });
+    }
+    /**
+     * Reads a player's record from the current row of a result set.
+     *
+     * @param playerUUID UUID of the player
+     * @param rs The result set, positioned on the player's row
+     * @return The player's record
+     * @throws SQLException If a database access error occurs
+     */
+    protected static PlayerVoteProfile readProfile(UUID playerUUID, ResultSet rs) throws SQLException {
+        long lastVoteDate = rs.getLong("last_vote_date");
+        boolean hasVoteDate = !rs.wasNull();
+        return new PlayerVoteProfile(playerUUID,
+                rs.getInt("daily_count"),
+                rs.getInt("weekly_count"),
+                rs.getInt("monthly_count"),
+                rs.getInt("yearly_count"),
+                rs.getInt("all_time_count"),
+                readTimestamp(rs, "daily_timestamp"),
+                readTimestamp(rs, "weekly_timestamp"),
+                readTimestamp(rs, "monthly_timestamp"),
+                readTimestamp(rs, "yearly_timestamp"),
+                rs.getInt("streak_count"),
+                hasVoteDate ? LocalDate.ofEpochDay(lastVoteDate) : null);
+    }
+    /**
+     * Reads a timestamp stored as epoch milliseconds.
+     *
+     * @param rs The result set, positioned on the player's row
+     * @param column The timestamp column
+     * @return The timestamp in the server's time zone, or null if it is not set
+     * @throws SQLException If a database access error occurs
+     */
+    private static LocalDateTime readTimestamp(ResultSet rs, String column) throws SQLException {
+        long millis = rs.getLong(column);
+        return rs.wasNull() ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+    /**
+     * Converts a timestamp in the server's time zone to epoch milliseconds, the way timestamps are stored.
+     *
+     * @param timestamp The timestamp
+     * @return The epoch milliseconds
+     */
+    protected static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    /**
+     * Gets the cutoff for each period at the given time, before which a period's count has expired.
+     *
+     * @param now The current time
+     * @return The daily, weekly, monthly and yearly cutoffs in epoch milliseconds
+     */
+    private static long[] periodCutoffs(LocalDateTime now) {
+        return new long[]{
+                toEpochMillis(now.toLocalDate().atStartOfDay()),
+                toEpochMillis(now.minusWeeks(1)),
+                toEpochMillis(now.minusMonths(1)),
+                toEpochMillis(now.minusYears(1))
+        };
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addVoteStreak(UUID playerUUID, LocalDateTime time) {
+        return write(connection -> {
+            LocalDate today = time.toLocalDate();
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_PROFILE))) {
+                pstmt.setString(1, playerUUID.toString());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        long lastVoteDay = rs.getLong("last_vote_date");
+                        boolean hasVoteDate = !rs.wasNull();
+                        int currentStreak = rs.getInt("streak_count");
+                        if (!hasVoteDate || rs.wasNull()) {
+                            updateStreak(connection, playerUUID, 1, today);
+                            return false;
+                        }
+                        LocalDate lastVoteDate = LocalDate.ofEpochDay(lastVoteDay);
+
+                        if (lastVoteDate.equals(today.minusDays(1))) {
+                            updateStreak(connection, playerUUID, currentStreak + 1, today);
+                        } else if (lastVoteDate.isBefore(today.minusDays(1))) {
+                            update(connection, SqlStatement.RESET_STREAK, today.toEpochDay(), playerUUID);
+                        } else {
+                            update(connection, SqlStatement.UPDATE_VOTE_DATE, today.toEpochDay(), playerUUID);
+                        }
+                        return false;
+                    }
+                }
+            }
+            long currentTimestamp = toEpochMillis(time);
+            try (PreparedStatement insertStmt = connection.prepareStatement(statements.get(SqlStatement.INSERT_STREAK_PROFILE))) {
+                insertStmt.setString(1, playerUUID.toString());
+                insertStmt.setLong(2, today.toEpochDay());
+                insertStmt.setLong(3, currentTimestamp);
+                insertStmt.setLong(4, currentTimestamp);
+                insertStmt.setLong(5, currentTimestamp);
+                insertStmt.setLong(6, currentTimestamp);
+                insertStmt.executeUpdate();
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> setStreak(UUID playerUUID, int streak) {
+        return write(connection -> {
+            update(connection, SqlStatement.SET_STREAK, streak, playerUUID);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addStreak(UUID playerUUID, int amount) {
+        return write(connection -> {
+            update(connection, SqlStatement.ADD_STREAK, amount, playerUUID);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateStreak(UUID playerUUID, int streak, LocalDate voteDate) {
+        return write(connection -> {
+            updateStreak(connection, playerUUID, streak, voteDate);
+            return null;
+        });
+    }
+    /**
+     * Sets a player's streak and last vote date on an already borrowed connection.
+     *
+     * @param connection The connection to run the update on
+     * @param playerUUID UUID of the player
+     * @param streak The streak
+     * @param voteDate The date of the player's last vote
+     * @throws SQLException If the update failed
+     */
+    private void updateStreak(Connection connection, UUID playerUUID, int streak, LocalDate voteDate) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.UPDATE_STREAK))) {
+            pstmt.setInt(1, streak);
+            pstmt.setLong(2, voteDate.toEpochDay());
+            pstmt.setString(3, playerUUID.toString());
+            pstmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> resetStreak(UUID playerUUID, LocalDate voteDate) {
+        return write(connection -> {
+            update(connection, SqlStatement.RESET_STREAK, voteDate.toEpochDay(), playerUUID);
+            return null;
+        });
+    }
+    /**
+     * Runs one of the updates that take a single number followed by the player's uuid.
+     *
+     * @param connection The connection to run the update on
+     * @param statement The update
+     * @param value The number
+     * @param playerUUID UUID of the player
+     * @throws SQLException If the update failed
+     */
+    private void update(Connection connection, SqlStatement statement, long value, UUID playerUUID) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(statements.get(statement))) {
+            pstmt.setLong(1, value);
+            pstmt.setString(2, playerUUID.toString());
+            pstmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> getStreak(UUID playerUUID) {
+        return read(connection -> {
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_STREAK))) {
+                pstmt.setString(1, playerUUID.toString());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getInt("streak_count") : 0;
+                }
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> getVotePartyCount() {
+        return read(connection -> {
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.SELECT_VOTE_PARTY));
+                 ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt("current_vote_count") : null;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveVotePartyCount(int count) {
+        return write(connection -> {
+            writeVotePartyCount(connection, count);
+            return null;
+        });
+    }
+    /**
+     * Writes the vote party count with a single upsert.
+     *
+     * @param connection The connection to write with.
+     * @param count The vote count.
+     * @throws SQLException If the count could not be written.
+     */
+    private void writeVotePartyCount(Connection connection, int count) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.UPSERT_VOTE_PARTY))) {
+            pstmt.setInt(1, count);
+            pstmt.executeUpdate();
+        }
+    }
+    /**
+     * Checks if a given column exists in the specified table.
+     *
+     * @param connection The connection to read the metadata from.
+     * @param tableName  The table name.
+     * @param columnName The column name.
+     * @return true if the column exists, false otherwise.
+     * @throws SQLException If a database access error occurs.
+     */
+    private static boolean columnExists(Connection connection, String tableName, String columnName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getColumns(null, null, tableName, columnName)) {
+            return rs.next();
+        }
+    }
+    /**
+     * Checks if a column is the primary key or has a unique index in the specified table.
+     *
+     * @param connection The connection to read the metadata from.
+     * @param tableName  The table name.
+     * @param columnName The column name.
+     * @return true if the column is a key, false otherwise.
+     * @throws SQLException If a database access error occurs.
+     */
+    private static boolean keyExists(Connection connection, String tableName, String columnName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getPrimaryKeys(connection.getCatalog(), null, tableName)) {
+            while (rs.next()) {
+                if (columnName.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, tableName, true, false)) {
+            while (rs.next()) {
+                if (columnName.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    /**
+     * Runs a task on the write executor with the write connection.
+     *
+     * @param task The task.
+     * @param <T> The task's result.
+     * @return A future with the task's result.
+     */
+    protected <T> CompletableFuture<T> write(SqlTask<T> task) {
+        return submit(writeExecutor, true, task);
+    }
+    /**
+     * Runs a task on the read executor with a read connection.
+     *
+     * @param task The task.
+     * @param <T> The task's result.
+     * @return A future with the task's result.
+     */
+    protected <T> CompletableFuture<T> read(SqlTask<T> task) {
+        return submit(readExecutor, false, task);
+    }
+
+    private <T> CompletableFuture<T> submit(ExecutorService executor, boolean write, SqlTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try (Connection connection = write ? connectionProvider.getConnection() : connectionProvider.getReadConnection()) {
+                    future.complete(task.run(connection));
+                } catch (SQLException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SQLException("The " + dialect.getName() + " storage has been closed.", e));
+        }
+        return future;
+    }
+
+    @Override
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public StatementRegistry getStatements() {
+        return statements;
+    }
+
+    @Override
+    public ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
+    }
+
+    @Override
+    public void close() {
+        shutdown(writeExecutor);
+        if (readExecutor != writeExecutor) {
+            shutdown(readExecutor);
+        }
+        connectionProvider.close();
+    }
+
+    private static void shutdown(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
+    /**
+     * A unit of work run with a borrowed connection.
+     *
+     * @param <T> The result.
+     */
+    @FunctionalInterface
+    protected interface SqlTask<T> {
+        /**
+         * Runs the work.
+         *
+         * @param connection The borrowed connection, returned once the work is done.
+         * @return The result.
+         * @throws SQLException If the work failed.
+         */
+        T run(Connection connection) throws SQLException;
+    }
+    /**
+     * Work run inside a transaction on a connection the caller already holds.
+     *
+     * @param <T> The result.
+     */
+    @FunctionalInterface
+    protected interface TransactionWork<T> {
+        /**
+         * Runs the work.
+         *
+         * @return The result.
+         * @throws SQLException If the work failed.
+         */
+        T run() throws SQLException;
+    }
 }
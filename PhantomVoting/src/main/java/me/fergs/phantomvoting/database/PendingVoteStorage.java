@@ -0,0 +1,116 @@
+package me.fergs.phantomvoting.database;
+
+import me.fergs.phantomvoting.database.interfaces.VoteStorage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores votes received while the player was offline, so they can be rewarded when they next join.
+ * <p>
+ * Rows are keyed by lower-cased username and, when the server knows it, UUID. An in-memory index of
+ * both keys lets the join handler skip the database entirely for players with nothing pending.
+ * Every read and write runs on the storage backend's threads, so none of these methods wait for the database.
+ * A player is marked before their row is written and again once it is committed, and a claim only clears the
+ * marks after its own transaction commits, so a row is never left without a mark pointing to it.
+ */
+public class PendingVoteStorage {
+    private final VoteStorage backend;
+    private final Set<String> pendingNames = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingUUIDs = ConcurrentHashMap.newKeySet();
+    /**
+     * Creates a new PendingVoteStorage instance.
+     *
+     * @param backend The storage backend, which stores and claims the pending votes.
+     */
+    public PendingVoteStorage(VoteStorage backend) {
+        this.backend = backend;
+    }
+    /**
+     * Adds every player in the table to the in-memory index. Stale entries are left in place,
+     * as they only cost one empty claim when that player next joins. The storage backend creates the table.
+     *
+     * @return A future completed once the index is loaded.
+     */
+    public CompletableFuture<Void> loadIndex() {
+        return backend.getPendingVoteNames().thenAccept(pendingNames::addAll)
+                .thenCompose(ignored -> backend.getPendingVoteUUIDs())
+                .thenAccept(pendingUUIDs::addAll);
+    }
+    /**
+     * Marks a player as having a pending vote. Call before {@link #addPendingVote} so a
+     * concurrent join never misses a row that is about to be written.
+     *
+     * @param playerUUID The player's UUID, or null if it is not known.
+     * @param username The player's name.
+     */
+    public void markPending(UUID playerUUID, String username) {
+        pendingNames.add(username.toLowerCase(Locale.ROOT));
+        if (playerUUID != null) {
+            pendingUUIDs.add(playerUUID);
+        }
+    }
+    /**
+     * Stores a pending vote.
+     *
+     * @param playerUUID The player's UUID, or null if it is not known.
+     * @param username The player's name.
+     * @param timestamp The time of the vote, in epoch milliseconds.
+     * @return A future completed once the vote is written, or completed exceptionally if it could not be,
+     *         so the caller can retry it.
+     */
+    public CompletableFuture<Void> addPendingVote(UUID playerUUID, String username, long timestamp) {
+        return backend.addPendingVote(playerUUID, username, timestamp)
+                .thenRun(() -> markPending(playerUUID, username));
+    }
+    /**
+     * Checks the in-memory index for pending votes, without touching the database.
+     *
+     * @param playerUUID The player's UUID.
+     * @param username The player's name.
+     * @return True if the player may have pending votes.
+     */
+    public boolean hasPendingVotes(UUID playerUUID, String username) {
+        return pendingUUIDs.contains(playerUUID) || pendingNames.contains(username.toLowerCase(Locale.ROOT));
+    }
+    /**
+     * Moves every pending vote for a player onto their record in one transaction. If the transaction fails,
+     * the votes stay pending and the player stays marked, so the claim is retried on their next join.
+     * The marks are cleared once the claim commits, then restored unless the database shows nothing left,
+     * so a vote written meanwhile keeps its mark.
+     *
+     * @param playerUUID The player's UUID.
+     * @param username The player's name.
+     * @return A future with the times of the claimed votes in epoch milliseconds, oldest first, or an empty list if none were claimed.
+     */
+    public CompletableFuture<List<Long>> claimPendingVotes(UUID playerUUID, String username) {
+        return backend.claimPendingVotes(playerUUID, username).thenCompose(timestamps -> {
+            pendingUUIDs.remove(playerUUID);
+            pendingNames.remove(username.toLowerCase(Locale.ROOT));
+            return backend.hasPendingVotes(playerUUID, username).handle((stored, error) -> {
+                if (error != null || stored) {
+                    markPending(playerUUID, username);
+                }
+                return timestamps;
+            });
+        }).exceptionally(error -> {
+            (error instanceof CompletionException && error.getCause() != null ? error.getCause() : error).printStackTrace();
+            return Collections.emptyList();
+        });
+    }
+    /**
+     * Deletes pending votes older than the given age.
+     *
+     * @param maxAgeMillis The maximum age of a pending vote, in milliseconds.
+     * @return A future with the number of votes deleted.
+     */
+    public CompletableFuture<Integer> compact(long maxAgeMillis) {
+        return backend.deleteExpiredPendingVotes(System.currentTimeMillis() - maxAgeMillis);
+    }
+}
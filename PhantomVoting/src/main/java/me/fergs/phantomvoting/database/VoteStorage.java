@@ -1,33 +1,53 @@
 package me.fergs.phantomvoting.database;
 
 import me.fergs.phantomvoting.config.YamlConfigFile;
+import me.fergs.phantomvoting.database.cache.VoteProfileCache;
+import me.fergs.phantomvoting.database.checkpoint.StateCheckpointer;
+import me.fergs.phantomvoting.database.claim.ClaimStore;
+import me.fergs.phantomvoting.database.claim.ClaimType;
+import me.fergs.phantomvoting.database.index.LeaderboardIndex;
+import me.fergs.phantomvoting.database.index.PeriodLeaderboard;
+import me.fergs.phantomvoting.database.impl.mysql.MySQLImpl;
+import me.fergs.phantomvoting.database.impl.sqlite.SQLiteImpl;
+import me.fergs.phantomvoting.database.interfaces.ConnectionProvider;
+import me.fergs.phantomvoting.database.journal.VoteJournal;
+import me.fergs.phantomvoting.database.journal.WriteBehindVoteWriter;
+import me.fergs.phantomvoting.enums.LeaderboardPeriod;
 import me.fergs.phantomvoting.objects.PlayerVoteData;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
 import me.fergs.phantomvoting.utils.ConsoleUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 
-import java.sql.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
+/**
+ * The plugin's vote storage: the caches, leaderboards, claims and journal the rest of the plugin reads from,
+ * kept in step with the database through a storage backend for the configured database.
+ * Player records, the vote party count, claims and pending votes are all read and written by the backend.
+ */
 public class VoteStorage {
-    private Connection connection;
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private final TreeSet<PlayerVoteData> cachedTopPlayers = new TreeSet<>(
-            Comparator.comparingInt(PlayerVoteData::getVoteCount).reversed()
-                    .thenComparing(PlayerVoteData::getUuid)
-    );
-    private final Map<UUID, Set<Integer>> milestoneCache = new ConcurrentHashMap<>();
-    private final Map<UUID, Set<Integer>> streakCache = new ConcurrentHashMap<>();
+    private final me.fergs.phantomvoting.database.interfaces.VoteStorage backend;
+    private final WriteBehindVoteWriter writeBehindWriter;
+    private final PendingVoteStorage pendingVoteStorage;
+    private final LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+    private final Map<LeaderboardPeriod, PeriodLeaderboard> periodLeaderboards = new EnumMap<>(LeaderboardPeriod.class);
+    private final VoteProfileCache profileCache = new VoteProfileCache();
+    private final ClaimStore milestoneClaims;
+    private final ClaimStore streakClaims;
     private final AtomicInteger currentGlobalVoteCount = new AtomicInteger(0);
-    private final String databaseUrl, username, password;
-    private final boolean useMySQL;
+    private volatile int savedGlobalVoteCount;
+    private final StateCheckpointer checkpointer;
 
     /**
      * Creates a new VoteStorage instance.
@@ -36,221 +56,173 @@ public class VoteStorage {
      * @param storageConfig The storage configuration.
      */
     public VoteStorage(String dataFolder, YamlConfigFile storageConfig) {
-        ConfigurationSection storageSection = storageConfig.getConfigurationSection("Storage-Settings");
-        String type = storageSection.getString("type", "SQLITE");
-        String host = storageSection.getString("host", "");
-        this.username = storageSection.getString("username", "");
-        this.password = storageSection.getString("password", "");
-        String port = storageSection.getString("port", "");
-        String database = storageSection.getString("database", "");
-        this.useMySQL = type.equalsIgnoreCase("SQL");
-        this.databaseUrl = useMySQL
-                ? "jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=false&autoReconnect=true"
-                : "jdbc:sqlite:plugins/" + dataFolder + "/votes.db";
+        ConfigurationSection writeBehindSection = storageConfig.getConfigurationSection("Write-Behind");
+        ConfigurationSection checkpointSection = storageConfig.getConfigurationSection("Checkpoint");
+        this.backend = createBackend(dataFolder, storageConfig);
+        int offlineClaimCacheSize = storageConfig.getInt("Claim-Cache.offline-players", 1000);
+        this.milestoneClaims = new ClaimStore(backend, ClaimType.MILESTONE, offlineClaimCacheSize);
+        this.streakClaims = new ClaimStore(backend, ClaimType.STREAK, offlineClaimCacheSize);
+        this.pendingVoteStorage = new PendingVoteStorage(backend);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (period != LeaderboardPeriod.ALL_TIME) {
+                periodLeaderboards.put(period, new PeriodLeaderboard(period));
+            }
+        }
 
         try {
-            connectDatabase();
-            initializeDatabase();
-            Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eConnected to the &f" + (useMySQL ? "MySQL" : "SQLite") + "&e database."));
+            await(backend.initialize());
+            await(pendingVoteStorage.loadIndex());
+            Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eConnected to the &f" + backend.getDialect().getName() + "&e database."));
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        this.writeBehindWriter = writeBehindSection != null && writeBehindSection.getBoolean("enabled", false)
+                ? createWriteBehindWriter(dataFolder, writeBehindSection)
+                : null;
+        this.checkpointer = checkpointSection == null || checkpointSection.getBoolean("enabled", true)
+                ? new StateCheckpointer(this::checkpoint,
+                        checkpointSection != null ? checkpointSection.getLong("interval", 30000L) : 30000L,
+                        checkpointSection != null ? checkpointSection.getLong("claim-flush-delay", 1000L) : 1000L)
+                : null;
+        loadLeaderboardIndex();
     }
-
     /**
-     * Connects to the database (SQLite or MySQL).
+     * Creates the storage backend for the configured database (SQLite or MySQL).
+     *
+     * @param dataFolder The plugin's data folder.
+     * @param storageConfig The storage configuration.
+     * @return The backend.
      */
-    private void connectDatabase() throws SQLException {
-        if (useMySQL) {
-            connection = DriverManager.getConnection(databaseUrl, username, password);
-        } else {
-            connection = DriverManager.getConnection(databaseUrl);
+    private static me.fergs.phantomvoting.database.interfaces.VoteStorage createBackend(String dataFolder, YamlConfigFile storageConfig) {
+        ConfigurationSection storageSection = storageConfig.getConfigurationSection("Storage-Settings");
+        ConfigurationSection poolSection = storageConfig.getConfigurationSection("Pool-Settings");
+        ConfigurationSection indexSection = storageConfig.getConfigurationSection("Indexes");
+        if (storageSection.getString("type", "SQLITE").equalsIgnoreCase("SQL")) {
+            return new MySQLImpl(storageSection, poolSection, indexSection);
         }
+        return new SQLiteImpl(dataFolder, storageSection, poolSection, storageConfig.getConfigurationSection("SQLite-Settings"), indexSection);
     }
-    private void initializeDatabase() throws SQLException {
-        String createTableSQL;
-        String createVotePartyTableSQL;
-        String createMilestonesTableSQL;
-        String createStreaksTableSQL;
-
-        if (useMySQL) {
-            createTableSQL = "CREATE TABLE IF NOT EXISTS player_votes (" +
-                    "uuid VARCHAR(36) PRIMARY KEY," +
-                    "daily_count INT DEFAULT 0," +
-                    "weekly_count INT DEFAULT 0," +
-                    "monthly_count INT DEFAULT 0," +
-                    "yearly_count INT DEFAULT 0," +
-                    "all_time_count INT DEFAULT 0," +
-                    "daily_timestamp DATETIME," +
-                    "weekly_timestamp DATETIME," +
-                    "monthly_timestamp DATETIME," +
-                    "yearly_timestamp DATETIME," +
-                    "streak_count INT DEFAULT 0," +
-                    "last_vote_date DATETIME" +
-                    ");";
-
-            createVotePartyTableSQL = "CREATE TABLE IF NOT EXISTS vote_party (" +
-                    "current_vote_count INT DEFAULT 0" +
-                    ");";
-
-            createMilestonesTableSQL = "CREATE TABLE IF NOT EXISTS player_milestones (" +
-                    "uuid VARCHAR(36) NOT NULL," +
-                    "milestone_id INT NOT NULL," +
-                    "claimed BOOLEAN DEFAULT FALSE," +
-                    "PRIMARY KEY (uuid, milestone_id)" +
-                    ");";
-
-            createStreaksTableSQL = "CREATE TABLE IF NOT EXISTS player_streaks (" +
-                    "uuid VARCHAR(36) NOT NULL," +
-                    "streak_id INT NOT NULL," +
-                    "claimed BOOLEAN DEFAULT FALSE," +
-                    "PRIMARY KEY (uuid, streak_id)" +
-                    ");";
-        } else {
-            createTableSQL = "CREATE TABLE IF NOT EXISTS player_votes (" +
-                    "uuid TEXT PRIMARY KEY," +
-                    "daily_count INTEGER DEFAULT 0," +
-                    "weekly_count INTEGER DEFAULT 0," +
-                    "monthly_count INTEGER DEFAULT 0," +
-                    "yearly_count INTEGER DEFAULT 0," +
-                    "all_time_count INTEGER DEFAULT 0," +
-                    "daily_timestamp TEXT," +
-                    "weekly_timestamp TEXT," +
-                    "monthly_timestamp TEXT," +
-                    "yearly_timestamp TEXT," +
-                    "streak_count INTEGER DEFAULT 0," +
-                    "last_vote_date TEXT" +
-                    ");";
-
-            createVotePartyTableSQL = "CREATE TABLE IF NOT EXISTS vote_party (" +
-                    "current_vote_count INTEGER DEFAULT 0" +
-                    ");";
-
-            createMilestonesTableSQL = "CREATE TABLE IF NOT EXISTS player_milestones (" +
-                    "uuid TEXT NOT NULL," +
-                    "milestone_id INTEGER NOT NULL," +
-                    "claimed BOOLEAN DEFAULT FALSE," +
-                    "PRIMARY KEY (uuid, milestone_id)" +
-                    ");";
-
-            createStreaksTableSQL = "CREATE TABLE IF NOT EXISTS player_streaks (" +
-                    "uuid TEXT NOT NULL," +
-                    "streak_id INTEGER NOT NULL," +
-                    "claimed BOOLEAN DEFAULT FALSE," +
-                    "PRIMARY KEY (uuid, streak_id)" +
-                    ");";
-        }
-
-        try (Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(createTableSQL);
-            stmt.executeUpdate(createVotePartyTableSQL);
-            stmt.executeUpdate(createMilestonesTableSQL);
-            stmt.executeUpdate(createStreaksTableSQL);
+    /**
+     * Waits for a backend operation to finish.
+     *
+     * @param future The operation.
+     * @param <T> The operation's result.
+     * @return The result.
+     * @throws SQLException If the operation failed.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
         }
-
-        checkAndAddColumns();
     }
     /**
-     * Checks if the necessary columns exist in the database and adds them if they
-     * are missing.
+     * Prints the error a backend operation failed with. Used by the operations that return a future instead of
+     * waiting for the database, so a failure is reported the same way as one that was waited for.
+     *
+     * @param error The error the future completed with.
+     * @param <T> The operation's result.
+     * @return Null, as the operation's result.
      */
-    public void checkAndAddColumns() {
+    private static <T> T report(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        cause.printStackTrace();
+        return null;
+    }
+    /**
+     * Builds the in-memory leaderboards from every player's record.
+     * Runs after the journal has been replayed, so the indexes start in step with the database.
+     */
+    private void loadLeaderboardIndex() {
+        Map<UUID, Integer> counts = new HashMap<>();
         try {
-            if (!columnExists("player_votes", "streak_count")) {
-                String addStreakCountColumnQuery = "ALTER TABLE player_votes ADD COLUMN streak_count "
-                        + (useMySQL ? "INT DEFAULT 0" : "INTEGER DEFAULT 0");
-                try (PreparedStatement stmt = connection.prepareStatement(addStreakCountColumnQuery)) {
-                    stmt.executeUpdate();
-                }
-            }
-            if (!columnExists("player_votes", "last_vote_date")) {
-                String addLastVoteDateColumnQuery = "ALTER TABLE player_votes ADD COLUMN last_vote_date "
-                        + (useMySQL ? "DATETIME" : "TEXT");
-                try (PreparedStatement stmt = connection.prepareStatement(addLastVoteDateColumnQuery)) {
-                    stmt.executeUpdate();
-                }
+            for (PlayerVoteProfile profile : await(backend.getAllProfiles())) {
+                counts.put(profile.getUuid(), profile.getAllTimeCount());
+                periodLeaderboards.values().forEach(leaderboard -> leaderboard.apply(profile));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        leaderboardIndex.load(counts);
+    }
+
+    /**
+     * Creates the write-behind writer, replaying any votes left in the journal.
+     *
+     * @param dataFolder The plugin's data folder.
+     * @param writeBehindSection The write-behind settings.
+     * @return The writer, or null if the journal or its checkpoint could not be read, in which case votes are
+     *         written directly and the journal is left for the next start.
+     */
+    private WriteBehindVoteWriter createWriteBehindWriter(String dataFolder, ConfigurationSection writeBehindSection) {
+        try {
+            VoteJournal journal = new VoteJournal(Paths.get("plugins", dataFolder, "journal"));
+            journal.advancePast(await(backend.getJournalCheckpoint(journal.getId())));
+            return new WriteBehindVoteWriter(journal,
+                    (sequence, entries) -> await(backend.addJournaledVotes(journal.getId(), sequence, entries)),
+                    writeBehindSection.getLong("flush-interval", 1000L),
+                    writeBehindSection.getInt("batch-size", 500));
+        } catch (IOException | SQLException e) {
+            Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cCould not open the vote journal, votes will be written directly: " + e.getMessage()));
+            return null;
+        }
     }
     /**
      * Adds a vote to the specified player's record and updates the timestamps.
      * If a timestamp is expired, it resets the count and updates the timestamp.
+     * The whole update, including the streak, runs as a single upsert.
+     * In write-behind mode the vote is journaled instead and written by the background flusher.
+     * Never waits for the database: the leaderboards and cache are updated when the returned future completes.
+     * They are updated by adding the vote rather than copying the returned record, because votes for the same
+     * player can complete out of order and an older record would otherwise overwrite a newer one.
+     *
      * @param playerUUID UUID of the player
+     * @return A future with the player's record after the vote, or null if the update failed or was deferred to the journal
      */
-    public void addVote(UUID playerUUID) {
-        String currentTimestamp = LocalDateTime.now().toString();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDate today = now.toLocalDate();
-
-        try {
-            String selectSQL = "SELECT * FROM player_votes WHERE uuid = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(selectSQL)) {
-                pstmt.setString(1, playerUUID.toString());
-                ResultSet rs = pstmt.executeQuery();
-
-                if (rs.next()) {
-                    LocalDateTime dailyTimestamp;
-                    LocalDateTime weeklyTimestamp;
-                    LocalDateTime monthlyTimestamp;
-                    LocalDateTime yearlyTimestamp;
-                    if (useMySQL) {
-                        dailyTimestamp = LocalDateTime.parse(rs.getString("daily_timestamp"), formatter);
-                        weeklyTimestamp = LocalDateTime.parse(rs.getString("weekly_timestamp"), formatter);
-                        monthlyTimestamp = LocalDateTime.parse(rs.getString("monthly_timestamp"), formatter);
-                        yearlyTimestamp = LocalDateTime.parse(rs.getString("yearly_timestamp"), formatter);
-                    } else {
-                        dailyTimestamp = LocalDateTime.parse(rs.getString("daily_timestamp"));
-                        weeklyTimestamp = LocalDateTime.parse(rs.getString("weekly_timestamp"));
-                        monthlyTimestamp = LocalDateTime.parse(rs.getString("monthly_timestamp"));
-                        yearlyTimestamp = LocalDateTime.parse(rs.getString("yearly_timestamp"));
-                    }
-                    
-                    LocalDate dailyDate = dailyTimestamp.toLocalDate();
-                    if (dailyDate.isBefore(today)) {
-                        resetAndIncrementVote("daily", playerUUID, currentTimestamp);
-                    } else {
-                        incrementVote("daily", playerUUID);
-                    }
-
-                    if (weeklyTimestamp.isBefore(now.minusWeeks(1))) {
-                        resetAndIncrementVote("weekly", playerUUID, currentTimestamp);
-                    } else {
-                        incrementVote("weekly", playerUUID);
-                    }
-
-                    if (monthlyTimestamp.isBefore(now.minusMonths(1))) {
-                        resetAndIncrementVote("monthly", playerUUID, currentTimestamp);
-                    } else {
-                        incrementVote("monthly", playerUUID);
-                    }
-
-                    if (yearlyTimestamp.isBefore(now.minusYears(1))) {
-                        resetAndIncrementVote("yearly", playerUUID, currentTimestamp);
-                    } else {
-                        incrementVote("yearly", playerUUID);
-                    }
+    public CompletableFuture<PlayerVoteProfile> addVote(UUID playerUUID) {
+        if (writeBehindWriter != null && writeBehindWriter.recordVote(playerUUID)) {
+            LocalDateTime now = LocalDateTime.now();
+            leaderboardIndex.add(playerUUID, 1);
+            recordPeriodVotes(playerUUID, now, 1);
+            profileCache.update(playerUUID, cached -> cached.withVote(now));
+            return CompletableFuture.completedFuture(null);
+        }
 
-                    incrementVote("all_time", playerUUID);
-                    addVoteStreak(playerUUID);
-                } else {
-                    String insertSQL = "INSERT INTO player_votes(uuid, daily_count, weekly_count, monthly_count, yearly_count, all_time_count, " +
-                            "daily_timestamp, weekly_timestamp, monthly_timestamp, yearly_timestamp) " +
-                            "VALUES (?, 1, 1, 1, 1, 1, ?, ?, ?, ?)";
-                    try (PreparedStatement insertStmt = connection.prepareStatement(insertSQL)) {
-                        insertStmt.setString(1, playerUUID.toString());
-                        insertStmt.setString(2, currentTimestamp);
-                        insertStmt.setString(3, currentTimestamp);
-                        insertStmt.setString(4, currentTimestamp);
-                        insertStmt.setString(5, currentTimestamp);
-                        insertStmt.executeUpdate();
-                    }
-                }
+        LocalDateTime now = LocalDateTime.now();
+        return backend.addVote(playerUUID, now).thenApply(profile -> {
+            if (profile != null) {
+                leaderboardIndex.add(playerUUID, 1);
+                recordPeriodVotes(playerUUID, now, 1);
+                profileCache.update(playerUUID, cached -> cached.withVote(now));
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+            return profile;
+        }).exceptionally(VoteStorage::report);
+    }
+    /**
+     * Claims the votes a player received while offline onto their record, in the same transaction that removes
+     * them from the pending votes, then applies them to the leaderboards and cache. Never waits for the database.
+     *
+     * @param playerUUID UUID of the player
+     * @param playerName The player's name
+     * @return A future with the times of the claimed votes in epoch milliseconds, oldest first, or an empty list if none were claimed
+     */
+    public CompletableFuture<List<Long>> claimPendingVotes(UUID playerUUID, String playerName) {
+        return pendingVoteStorage.claimPendingVotes(playerUUID, playerName).thenApply(timestamps -> {
+            if (timestamps.isEmpty()) {
+                return timestamps;
+            }
+            leaderboardIndex.add(playerUUID, timestamps.size());
+            for (long timestamp : timestamps) {
+                LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+                recordPeriodVotes(playerUUID, time, 1);
+                profileCache.update(playerUUID, cached -> cached.withVote(time));
+            }
+            return timestamps;
+        });
     }
     /**
      * Adds multiple votes to the specified player's record and updates all vote counts.
@@ -258,173 +230,105 @@ public class VoteStorage {
      *
      * @param playerUUID UUID of the player
      * @param voteAmount The number of votes to add
+     * @return A future completed once the votes are written and applied
      */
-    public void addMultipleVotes(UUID playerUUID, int voteAmount) {
+    public CompletableFuture<Void> addMultipleVotes(UUID playerUUID, int voteAmount) {
         if (voteAmount <= 0) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         LocalDateTime now = LocalDateTime.now();
-        LocalDate today = now.toLocalDate();
-        String currentTimestamp = now.toString();
-
-        try {
-            String selectSQL = "SELECT * FROM player_votes WHERE uuid = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(selectSQL)) {
-                pstmt.setString(1, playerUUID.toString());
-                ResultSet rs = pstmt.executeQuery();
-
-                if (rs.next()) {
-                    LocalDateTime dailyTimestamp;
-                    LocalDateTime weeklyTimestamp;
-                    LocalDateTime monthlyTimestamp;
-                    LocalDateTime yearlyTimestamp;
-                    if (useMySQL) {
-                        dailyTimestamp = LocalDateTime.parse(rs.getString("daily_timestamp"), formatter);
-                        weeklyTimestamp = LocalDateTime.parse(rs.getString("weekly_timestamp"), formatter);
-                        monthlyTimestamp = LocalDateTime.parse(rs.getString("monthly_timestamp"), formatter);
-                        yearlyTimestamp = LocalDateTime.parse(rs.getString("yearly_timestamp"), formatter);
-                    } else {
-                        dailyTimestamp = LocalDateTime.parse(rs.getString("daily_timestamp"));
-                        weeklyTimestamp = LocalDateTime.parse(rs.getString("weekly_timestamp"));
-                        monthlyTimestamp = LocalDateTime.parse(rs.getString("monthly_timestamp"));
-                        yearlyTimestamp = LocalDateTime.parse(rs.getString("yearly_timestamp"));
-                    }
-
-                    LocalDate dailyDate = dailyTimestamp.toLocalDate();
-                    boolean resetDaily = dailyDate.isBefore(today);
-                    boolean resetWeekly = weeklyTimestamp.isBefore(now.minusWeeks(1));
-                    boolean resetMonthly = monthlyTimestamp.isBefore(now.minusMonths(1));
-                    boolean resetYearly = yearlyTimestamp.isBefore(now.minusYears(1));
-
-                    String updateSQL = "UPDATE player_votes SET " +
-                            "daily_count = ?, weekly_count = ?, monthly_count = ?, yearly_count = ?, " +
-                            "all_time_count = all_time_count + ?," +
-                            "daily_timestamp = ?, weekly_timestamp = ?, monthly_timestamp = ?, yearly_timestamp = ? " +
-                            "WHERE uuid = ?";
-
-                    try (PreparedStatement updateStmt = connection.prepareStatement(updateSQL)) {
-                        updateStmt.setInt(1, resetDaily ? voteAmount : rs.getInt("daily_count") + voteAmount);
-                        updateStmt.setInt(2, resetWeekly ? voteAmount : rs.getInt("weekly_count") + voteAmount);
-                        updateStmt.setInt(3, resetMonthly ? voteAmount : rs.getInt("monthly_count") + voteAmount);
-                        updateStmt.setInt(4, resetYearly ? voteAmount : rs.getInt("yearly_count") + voteAmount);
-                        updateStmt.setInt(5, voteAmount);
-                        updateStmt.setString(6, resetDaily ? currentTimestamp : rs.getString("daily_timestamp"));
-                        updateStmt.setString(7, resetWeekly ? currentTimestamp : rs.getString("weekly_timestamp"));
-                        updateStmt.setString(8, resetMonthly ? currentTimestamp : rs.getString("monthly_timestamp"));
-                        updateStmt.setString(9, resetYearly ? currentTimestamp : rs.getString("yearly_timestamp"));
-                        updateStmt.setString(10, playerUUID.toString());
-                        updateStmt.executeUpdate();
-                    }
-                } else Bukkit.getLogger().info(ConsoleUtil.translateColors("&4[&c!&4] &cPlayer &f" + playerUUID + " &chas no record in the database, please use test-vote to add a record."));
+        return backend.addMultipleVotes(playerUUID, voteAmount, now).thenAccept(updated -> {
+            if (updated) {
+                leaderboardIndex.add(playerUUID, voteAmount);
+                recordPeriodVotes(playerUUID, now, voteAmount);
+                profileCache.update(playerUUID, cached -> cached.withAddedVotes(now, voteAmount));
+            } else {
+                Bukkit.getLogger().info(ConsoleUtil.translateColors("&4[&c!&4] &cPlayer &f" + playerUUID + " &chas no record in the database, please use test-vote to add a record."));
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        }).exceptionally(VoteStorage::report);
     }
     /**
-     * Resets a specific vote period and sets the count to 1 (for the current vote).
-     * @param period The vote period to reset (daily, weekly, monthly, yearly)
+     * Removes a vote from the specified player's record.
      * @param playerUUID UUID of the player
-     * @param newTimestamp The new timestamp to store
-     */
-    private void resetAndIncrementVote(String period, UUID playerUUID, String newTimestamp) {
-        String updateSQL = "UPDATE player_votes SET " + period + "_count = 1, " + period + "_timestamp = ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setString(1, newTimestamp);
-            pstmt.setString(2, playerUUID.toString());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+     * @return A future completed once the votes are removed
+     */
+    public CompletableFuture<Void> removeVote(UUID playerUUID, int count) {
+        return backend.removeVotes(playerUUID, count).thenAccept(updated -> {
+            if (updated) {
+                leaderboardIndex.add(playerUUID, -count);
+                profileCache.update(playerUUID, cached -> cached.withRemovedVotes(count));
+            }
+        }).exceptionally(VoteStorage::report);
     }
     /**
-     * Increments the vote count for a specific period (e.g., all-time votes).
-     * @param period The vote period to increment (e.g., all_time)
+     * Gets the specified vote count for a player without waiting for the database.
+     * Online players are read from the cache, and anyone else from the in-memory leaderboards, which hold
+     * every player's count for each period.
      * @param playerUUID UUID of the player
+     * @param type Type of vote count to retrieve ("daily", "weekly", "monthly", "yearly", "all_time")
+     * @return The vote count
      */
-    private void incrementVote(String period, UUID playerUUID) {
-        String updateSQL = "UPDATE player_votes SET " + period + "_count = " + period + "_count + 1 WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setString(1, playerUUID.toString());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    public int getPlayerVoteCount(UUID playerUUID, String type) {
+        PlayerVoteProfile profile = profileCache.get(playerUUID);
+        if (profile != null) {
+            return profile.getVoteCount(type, LocalDateTime.now());
         }
+        LeaderboardPeriod period = LeaderboardPeriod.fromIdentifier(type);
+        if (period == null) {
+            return 0;
+        }
+        return period == LeaderboardPeriod.ALL_TIME ? leaderboardIndex.getCount(playerUUID) : periodLeaderboards.get(period).getCount(playerUUID);
     }
     /**
-     * Removes a vote from the specified player's record.
+     * Reads a player's record from the database, including any votes still waiting in the journal.
+     * @param playerUUID UUID of the player
+     * @return A future with the record, or an empty record if the player has none
+     */
+    private CompletableFuture<PlayerVoteProfile> fetchProfile(UUID playerUUID) {
+        return backend.getProfile(playerUUID).thenApply(stored -> {
+            PlayerVoteProfile profile = stored != null ? stored : PlayerVoteProfile.empty(playerUUID);
+            int pendingVotes = writeBehindWriter != null ? writeBehindWriter.getPendingVotes(playerUUID) : 0;
+            return pendingVotes > 0 ? profile.withAddedVotes(LocalDateTime.now(), pendingVotes) : profile;
+        });
+    }
+    /**
+     * Loads a player's record into the cache. Blocks on the database, so call it off the server thread.
      * @param playerUUID UUID of the player
      */
-    public void removeVote(UUID playerUUID, int count) {
-        String updateSQL = "UPDATE player_votes SET all_time_count = all_time_count - ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setInt(1, count);
-            pstmt.setString(2, playerUUID.toString());
-            pstmt.executeUpdate();
+    public void loadCachedProfile(UUID playerUUID) {
+        if (!profileCache.beginLoad(playerUUID)) {
+            return;
+        }
+        try {
+            PlayerVoteProfile profile;
+            do {
+                profile = await(fetchProfile(playerUUID));
+            } while (!profileCache.completeLoad(profile));
         } catch (SQLException e) {
             e.printStackTrace();
+            profileCache.evict(playerUUID);
         }
     }
     /**
-     * Gets the specified vote count for a player.
+     * Re-reads a cached record after a change the cache cannot apply itself, such as an admin streak edit.
      * @param playerUUID UUID of the player
-     * @param type Type of vote count to retrieve ("daily", "weekly", "monthly", "yearly", "all_time")
-     * @return The vote count
+     * @return A future completed once the cache is updated
      */
-    public int getPlayerVoteCount(UUID playerUUID, String type) {
-        String querySQL = "SELECT * FROM player_votes WHERE uuid = ?;";
-        try (PreparedStatement pstmt = connection.prepareStatement(querySQL)) {
-            pstmt.setString(1, playerUUID.toString());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                if ("all_time".equals(type)) {
-                    return rs.getInt(type + "_count");
-                }
-
-                LocalDateTime now = LocalDateTime.now();
-                LocalDate today = now.toLocalDate();
-
-                String timestampColumn = type + "_timestamp";
-                String timestamp = rs.getString(timestampColumn);
-                if (timestamp == null) {
-                    return 0;
-                }
-
-                LocalDateTime storedTimestamp;
-                if (useMySQL) {
-                    storedTimestamp = LocalDateTime.parse(timestamp, formatter);
-                } else {
-                    storedTimestamp = LocalDateTime.parse(timestamp);
-                }
-
-                boolean expired = false;
-                switch (type) {
-                    case "daily":
-                        LocalDate storedDate = storedTimestamp.toLocalDate();
-                        expired = storedDate.isBefore(today);
-                        break;
-                    case "weekly":
-                        expired = storedTimestamp.isBefore(now.minusWeeks(1));
-                        break;
-                    case "monthly":
-                        expired = storedTimestamp.isBefore(now.minusMonths(1));
-                        break;
-                    case "yearly":
-                        expired = storedTimestamp.isBefore(now.minusYears(1));
-                        break;
-                }
-
-                if (expired) {
-                    return 0;
-                }
-
-                return rs.getInt(type + "_count");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private CompletableFuture<Void> refreshCachedProfile(UUID playerUUID) {
+        if (!profileCache.contains(playerUUID) && !profileCache.isLoading(playerUUID)) {
+            return CompletableFuture.completedFuture(null);
         }
-        return 0;
+        return fetchProfile(playerUUID)
+                .thenAccept(profile -> profileCache.update(playerUUID, cached -> profile))
+                .exceptionally(VoteStorage::report);
+    }
+    /**
+     * Removes a player's record from the cache.
+     * @param playerUUID UUID of the player
+     */
+    public void evictCachedProfile(UUID playerUUID) {
+        profileCache.evict(playerUUID);
     }
     /**
      * Sets the current global vote count.
@@ -437,28 +341,19 @@ public class VoteStorage {
 
         currentGlobalVoteCount.set(count);
     }
+    /**
+     * Saves the current global vote count to the database.
+     */
     public void saveCurrentGlobalVoteCount() {
-        final String updateSQL = "UPDATE vote_party SET current_vote_count = ?;";
-        final String insertSQL = "INSERT INTO vote_party (current_vote_count) VALUES (?);";
-
         try {
-            try (PreparedStatement updateStmt = connection.prepareStatement(updateSQL)) {
-                updateStmt.setInt(1, currentGlobalVoteCount.get());
-                int rows = updateStmt.executeUpdate();
-                if (rows > 0) {
-                    return;
-                }
-            }
-
-            try (PreparedStatement insertStmt = connection.prepareStatement(insertSQL)) {
-                insertStmt.setInt(1, currentGlobalVoteCount.get());
-                insertStmt.executeUpdate();
-            }
-
+            int count = getCurrentGlobalVoteCount();
+            await(backend.saveVotePartyCount(count));
+            savedGlobalVoteCount = count;
         } catch (SQLException e) {
             e.printStackTrace();
         }
-    }    /**
+    }
+    /**
      * Gets the current global vote count.
      * @return The current global vote count
      */
@@ -466,58 +361,42 @@ public class VoteStorage {
         return Math.max(currentGlobalVoteCount.get(), 0);
 
     }
+    /**
+     * Gets the live global vote counter. The vote party manager updates it directly, so the value saved here
+     * is always the one the vote party is counting.
+     * @return The global vote counter
+     */
+    public AtomicInteger getGlobalVoteCounter() {
+        return currentGlobalVoteCount;
+    }
     /**
      * Loads the current global vote count from the database.
      */
     public void loadCurrentGlobalVoteCount() {
-        String querySQL = "SELECT current_vote_count FROM vote_party;";
-        try (PreparedStatement pstmt = connection.prepareStatement(querySQL)) {
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                currentGlobalVoteCount.set(rs.getInt("current_vote_count"));
+        try {
+            Integer count = await(backend.getVotePartyCount());
+            if (count != null) {
+                savedGlobalVoteCount = count;
+                currentGlobalVoteCount.set(count);
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
     /**
-     * Gets the top players based on all-time vote count.
+     * Gets the top players based on all-time vote count, from the in-memory leaderboard.
      * @return A list of PlayerVoteData objects
      */
     public List<PlayerVoteData> getTopPlayers() {
-        String querySQL = "SELECT uuid, all_time_count FROM player_votes ORDER BY all_time_count DESC LIMIT 10";
-        List<PlayerVoteData> topPlayers = new ArrayList<>();
-
-        cachedTopPlayers.clear();
-        try (PreparedStatement pstmt = connection.prepareStatement(querySQL)) {
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                UUID uuid = UUID.fromString(rs.getString("uuid"));
-                int count = rs.getInt("all_time_count");
-                topPlayers.add(new PlayerVoteData(uuid, count));
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        updateTopPlayers(topPlayers);
-        return topPlayers;
+        return getTopPlayers(LeaderboardPeriod.ALL_TIME);
     }
     /**
-     * Updates the cached top players list.
-     * @param newTopPlayers The new top players list
+     * Gets the top players in a period, from the in-memory leaderboards.
+     * @param period The period to rank by
+     * @return A list of PlayerVoteData objects
      */
-    private void updateTopPlayers(List<PlayerVoteData> newTopPlayers) {
-        cachedTopPlayers.clear();
-        cachedTopPlayers.addAll(
-                newTopPlayers.stream()
-                        .sorted(Comparator.comparingInt(PlayerVoteData::getVoteCount).reversed()
-                                .thenComparing(PlayerVoteData::getUuid))
-                        .limit(10)
-                        .collect(Collectors.toList())
-        );
+    public List<PlayerVoteData> getTopPlayers(LeaderboardPeriod period) {
+        return period == LeaderboardPeriod.ALL_TIME ? leaderboardIndex.topN(10) : periodLeaderboards.get(period).topN(10);
     }
     /**
      * Gets the PlayerVoteData at the specified position (1-based index).
@@ -526,344 +405,228 @@ public class VoteStorage {
      * @return The PlayerVoteData at the position, or null if out of bounds.
      */
     public PlayerVoteData getTopPlayerAt(int position) {
-        if (position <= 0 || position > cachedTopPlayers.size()) {
-            return null;
-        }
-        int currentIndex = 1;
-        for (PlayerVoteData data : cachedTopPlayers) {
-            if (currentIndex == position) {
-                return data;
-            }
-            currentIndex++;
-        }
-        return null;
+        return getTopPlayerAt(position, LeaderboardPeriod.ALL_TIME);
+    }
+    /**
+     * Gets the PlayerVoteData at the specified position (1-based index) in a period.
+     *
+     * @param position The position (1-based index).
+     * @param period The period to rank by.
+     * @return The PlayerVoteData at the position, or null if out of bounds.
+     */
+    public PlayerVoteData getTopPlayerAt(int position, LeaderboardPeriod period) {
+        return period == LeaderboardPeriod.ALL_TIME ? leaderboardIndex.getAt(position) : periodLeaderboards.get(period).getAt(position);
     }
 
     /**
-     * Gets the position of a player in the all-time vote leaderboard.
+     * Gets the position of a player in the all-time vote leaderboard, from the in-memory leaderboard.
      * @param playerId UUID of the player
      * @return The player's position in the leaderboard
      */
     public int getPlayerPosition(UUID playerId) {
-        String querySQL = "SELECT COUNT(*) + 1 AS position FROM player_votes WHERE all_time_count > (SELECT all_time_count FROM player_votes WHERE uuid = ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(querySQL)) {
-            pstmt.setString(1, playerId.toString());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("position");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        return getPlayerPosition(playerId, LeaderboardPeriod.ALL_TIME);
+    }
+    /**
+     * Gets the position of a player in a period's leaderboard, from the in-memory leaderboards.
+     * @param playerId UUID of the player
+     * @param period The period to rank by
+     * @return The player's position in the leaderboard
+     */
+    public int getPlayerPosition(UUID playerId, LeaderboardPeriod period) {
+        return period == LeaderboardPeriod.ALL_TIME ? leaderboardIndex.rank(playerId) : periodLeaderboards.get(period).rank(playerId);
+    }
+    /**
+     * Applies votes to every period leaderboard.
+     * @param playerUUID UUID of the player
+     * @param time The time the votes were cast
+     * @param amount The number of votes
+     */
+    private void recordPeriodVotes(UUID playerUUID, LocalDateTime time, int amount) {
+        for (PeriodLeaderboard leaderboard : periodLeaderboards.values()) {
+            leaderboard.recordVotes(playerUUID, time, amount);
         }
-        return 0;
     }
     /**
      * Adds a vote streak for the specified player, updates streaks based on last vote date,
      * and resets if they missed a day.
      *
      * @param playerUUID UUID of the player
+     * @return A future completed once the streak is written and the cache updated
      */
-    public void addVoteStreak(UUID playerUUID) {
-        LocalDate today = LocalDate.now();
-        String currentTimestamp = today.toString();
-
-        try {
-            String selectSQL = "SELECT * FROM player_votes WHERE uuid = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(selectSQL)) {
-                pstmt.setString(1, playerUUID.toString());
-                ResultSet rs = pstmt.executeQuery();
-
-                if (rs.next()) {
-                    if (rs.getString("last_vote_date") == null || rs.getString("streak_count") == null) {
-                        incrementStreak(playerUUID, 1, currentTimestamp);
-                        return;
-                    }
-                    LocalDate lastVoteDate;
-                    if (useMySQL) {
-                        LocalDateTime lastVoteDateTime = LocalDateTime.parse(rs.getString("last_vote_date"), formatter);
-                        lastVoteDate = lastVoteDateTime.toLocalDate();
-                    } else {
-                        lastVoteDate = LocalDate.parse(rs.getString("last_vote_date"));
-                    }
-                    int currentStreak = rs.getInt("streak_count");
-
-                    if (lastVoteDate.equals(today.minusDays(1))) {
-                        incrementStreak(playerUUID, currentStreak + 1, currentTimestamp);
-                    } else if (lastVoteDate.isBefore(today.minusDays(1))) {
-                        resetStreak(playerUUID, currentTimestamp);
-                    } else {
-                        updateVoteDate(playerUUID, currentTimestamp);
-                    }
-                } else {
-                    String insertSQL = "INSERT INTO player_votes(uuid, daily_count, weekly_count, monthly_count, yearly_count, " +
-                            "all_time_count, streak_count, last_vote_date, daily_timestamp, weekly_timestamp, monthly_timestamp, yearly_timestamp) " +
-                            "VALUES (?, 1, 1, 1, 1, 1, 1, ?, ?, ?, ?, ?)";
-                    try (PreparedStatement insertStmt = connection.prepareStatement(insertSQL)) {
-                        insertStmt.setString(1, playerUUID.toString());
-                        insertStmt.setString(2, currentTimestamp);
-                        insertStmt.setString(3, currentTimestamp);
-                        insertStmt.setString(4, currentTimestamp);
-                        insertStmt.setString(5, currentTimestamp);
-                        insertStmt.setString(6, currentTimestamp);
-                        insertStmt.executeUpdate();
-                    }
-                }
+    public CompletableFuture<Void> addVoteStreak(UUID playerUUID) {
+        LocalDateTime now = LocalDateTime.now();
+        return backend.addVoteStreak(playerUUID, now).thenAccept(created -> {
+            if (created) {
+                leaderboardIndex.set(playerUUID, 1);
+                recordPeriodVotes(playerUUID, now, 1);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        }).exceptionally(VoteStorage::report).thenCompose(ignored -> refreshCachedProfile(playerUUID));
     }
     /**
      * Sets the vote streak count for the player.
      *
      * @param playerUUID UUID of the player
      * @param streak The streak count to set
+     * @return A future completed once the streak is written and the cache updated
      */
-    public void setVoteStreak(UUID playerUUID, int streak) {
-        String updateSQL = "UPDATE player_votes SET streak_count = ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setInt(1, streak);
-            pstmt.setString(2, playerUUID.toString());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    public CompletableFuture<Void> setVoteStreak(UUID playerUUID, int streak) {
+        return backend.setStreak(playerUUID, streak)
+                .exceptionally(VoteStorage::report)
+                .thenCompose(ignored -> refreshCachedProfile(playerUUID));
     }
     /**
      * Increments the streak count for the player and updates the last vote date.
      *
      * @param playerUUID UUID of the player
      * @param newStreakCount New streak count to set
-     * @param currentTimestamp The current date as a timestamp
-     */
-    public void incrementStreak(UUID playerUUID, int newStreakCount, String currentTimestamp) {
-        String updateSQL = "UPDATE player_votes SET streak_count = ?, last_vote_date = ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setInt(1, newStreakCount);
-            pstmt.setString(2, currentTimestamp);
-            pstmt.setString(3, playerUUID.toString());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+     * @param voteDate The date of the player's last vote
+     * @return A future completed once the streak is written and the cache updated
+     */
+    public CompletableFuture<Void> incrementStreak(UUID playerUUID, int newStreakCount, LocalDate voteDate) {
+        return backend.updateStreak(playerUUID, newStreakCount, voteDate)
+                .exceptionally(VoteStorage::report)
+                .thenCompose(ignored -> refreshCachedProfile(playerUUID));
     }
     /**
      * Adds to the player's current streak count.
      *
      * @param playerUUID UUID of the player
      * @param streak The streak count to add
+     * @return A future completed once the streak is written and the cache updated
      */
-    public void addStreak(UUID playerUUID, int streak) {
-        String updateSQL = "UPDATE player_votes SET streak_count = streak_count + ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setInt(1, streak);
-            pstmt.setString(2, playerUUID.toString());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    public CompletableFuture<Void> addStreak(UUID playerUUID, int streak) {
+        return backend.addStreak(playerUUID, streak)
+                .exceptionally(VoteStorage::report)
+                .thenCompose(ignored -> refreshCachedProfile(playerUUID));
     }
     /**
      * Resets the player's streak count and updates the last vote date.
      *
      * @param playerUUID UUID of the player
-     * @param currentTimestamp The current date as a timestamp
-     */
-    public void resetStreak(UUID playerUUID, String currentTimestamp) {
-        String updateSQL = "UPDATE player_votes SET streak_count = 1, last_vote_date = ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setString(1, currentTimestamp);
-            pstmt.setString(2, playerUUID.toString());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+     * @param voteDate The date of the player's last vote
+     * @return A future completed once the streak is written and the cache updated
+     */
+    public CompletableFuture<Void> resetStreak(UUID playerUUID, LocalDate voteDate) {
+        return backend.resetStreak(playerUUID, voteDate)
+                .exceptionally(VoteStorage::report)
+                .thenCompose(ignored -> refreshCachedProfile(playerUUID));
     }
     /**
-     * Updates only the last vote date without changing the streak count.
+     * Gets the current streak count for the player, from the cache for online players.
      *
      * @param playerUUID UUID of the player
-     * @param currentTimestamp The current date as a timestamp
-     */
-    private void updateVoteDate(UUID playerUUID, String currentTimestamp) {
-        String updateSQL = "UPDATE player_votes SET last_vote_date = ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(updateSQL)) {
-            pstmt.setString(1, currentTimestamp);
-            pstmt.setString(2, playerUUID.toString());
-            pstmt.executeUpdate();
+     * @return The player's current streak count
+     */
+    public int getPlayerStreak(UUID playerUUID) {
+        PlayerVoteProfile profile = profileCache.get(playerUUID);
+        if (profile != null) {
+            return profile.getStreakCount();
+        }
+        if (profileCache.isLoading(playerUUID)) {
+            return 0;
+        }
+        try {
+            return await(backend.getStreak(playerUUID));
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return 0;
     }
     /**
-     * Gets the current streak count for the player.
+     * Writes the state that changed since the last checkpoint: the vote party count and any unsaved claims.
      *
-     * @param playerUUID UUID of the player
-     * @return The player's current streak count
+     * @return True if anything was written, false if nothing had changed.
+     * @throws SQLException If the state could not be written.
      */
-    public int getPlayerStreak(UUID playerUUID) {
-        String querySQL = "SELECT streak_count FROM player_votes WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(querySQL)) {
-            pstmt.setString(1, playerUUID.toString());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("streak_count");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private boolean checkpoint() throws SQLException {
+        boolean wrote = false;
+        int count = getCurrentGlobalVoteCount();
+        if (count != savedGlobalVoteCount) {
+            await(backend.saveVotePartyCount(count));
+            savedGlobalVoteCount = count;
+            wrote = true;
         }
-        return 0;
+        wrote |= flushClaims(milestoneClaims) > 0;
+        wrote |= flushClaims(streakClaims) > 0;
+        return wrote;
     }
     /**
-     * Adds a milestone claim for the specified player.
+     * Checks if a player has claimed a milestone.
      *
      * @param uuid UUID of the player
      * @param milestoneId ID of the milestone
      */
     public boolean isMilestoneClaimed(UUID uuid, int milestoneId) {
-        return milestoneCache.getOrDefault(uuid, Collections.emptySet()).contains(milestoneId);
+        return milestoneClaims.isClaimed(uuid, milestoneId);
     }
     /**
-     * Claims a milestone for the specified player.
+     * Claims a milestone for the specified player. The claim is only recorded in memory here, and written in the
+     * background with any others made around the same time, so it is safe to call on the server thread.
      *
      * @param uuid UUID of the player
      * @param milestoneId ID of the milestone
      */
-    public void claimMilestone(UUID uuid, int milestoneId) throws SQLException {
-        milestoneCache.computeIfAbsent(uuid, k -> ConcurrentHashMap.newKeySet()).add(milestoneId);
-
-        CompletableFuture.runAsync(() -> {
-            String query;
-            if (useMySQL) {
-                query = "INSERT INTO player_milestones (uuid, milestone_id, claimed) " +
-                        "VALUES (?, ?, TRUE) ON DUPLICATE KEY UPDATE claimed = TRUE;";
-            }
-            else {
-                query = "INSERT INTO player_milestones (uuid, milestone_id, claimed) " +
-                        "VALUES (?, ?, TRUE) ON CONFLICT(uuid, milestone_id) DO UPDATE SET claimed = TRUE;";
-            }
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setString(1, uuid.toString());
-                ps.setInt(2, milestoneId);
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-        });
+    public void claimMilestone(UUID uuid, int milestoneId) {
+        if (milestoneClaims.claim(uuid, milestoneId)) {
+            requestClaimFlush();
+        }
     }
     /**
-     * Saves the player milestones to the database.
+     * Saves the milestone claims that have not been written yet.
      */
     public void saveMilestones() throws SQLException {
-        String query;
-        if (useMySQL) {
-            query = "INSERT INTO player_milestones (uuid, milestone_id, claimed) " +
-                    "VALUES (?, ?, TRUE) ON DUPLICATE KEY UPDATE claimed = TRUE;";
-        }
-        else {
-            query = "INSERT INTO player_milestones (uuid, milestone_id, claimed) " +
-                    "VALUES (?, ?, TRUE) ON CONFLICT(uuid, milestone_id) DO UPDATE SET claimed = TRUE;";
-        }
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            for (Map.Entry<UUID, Set<Integer>> entry : milestoneCache.entrySet()) {
-                UUID uuid = entry.getKey();
-                for (int milestoneId : entry.getValue()) {
-                    ps.setString(1, uuid.toString());
-                    ps.setInt(2, milestoneId);
-                    ps.addBatch();
-                }
-            }
-            ps.executeBatch();
-        }
+        int written = flushClaims(milestoneClaims);
 
-        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eSaved &6" + milestoneCache.size() + " &eplayer milestones to the database."));
+        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eSaved &6" + written + " &enew milestone claims to the database."));
     }
     /**
-     * Loads the player milestones from the database.
+     * Saves the streak claims that have not been written yet.
      */
-    public void loadMilestones() throws SQLException {
-        String query = "SELECT uuid, milestone_id FROM player_milestones WHERE claimed = TRUE;";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                UUID uuid = UUID.fromString(rs.getString("uuid"));
-                int milestoneId = rs.getInt("milestone_id");
-                milestoneCache.computeIfAbsent(uuid, k -> ConcurrentHashMap.newKeySet()).add(milestoneId);
-            }
-        }
+    public void saveStreaks() throws SQLException {
+        int written = flushClaims(streakClaims);
 
-        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eLoaded &6" + milestoneCache.size() + " &eplayer milestones from the database."));
+        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eSaved &6" + written + " &enew streak claims to the database."));
     }
     /**
-     * Saves the player streaks to the database.
+     * Starts loading a player's milestone and streak claims when they join. Call on the server thread before
+     * {@link #loadClaims(UUID)}, so an eviction for a quit that follows cancels the load.
+     *
+     * @param playerUUID UUID of the player
      */
-    public void saveStreaks() throws SQLException {
-        String query;
-        if (useMySQL) {
-            query = "INSERT INTO player_streaks (uuid, streak_id, claimed) " +
-                    "VALUES (?, ?, TRUE) ON DUPLICATE KEY UPDATE claimed = TRUE;";
-        }
-        else {
-            query = "INSERT INTO player_streaks (uuid, streak_id, claimed) " +
-                    "VALUES (?, ?, TRUE) ON CONFLICT(uuid, streak_id) DO UPDATE SET claimed = TRUE;";
-        }
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            for (Map.Entry<UUID, Set<Integer>> entry : streakCache.entrySet()) {
-                UUID uuid = entry.getKey();
-                for (int streakId : entry.getValue()) {
-                    ps.setString(1, uuid.toString());
-                    ps.setInt(2, streakId);
-                    ps.addBatch();
-                }
-            }
-            ps.executeBatch();
-        }
-
-        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eSaved &6" + streakCache.size() + " &eplayer streaks to the database."));
+    public void beginLoadClaims(UUID playerUUID) {
+        milestoneClaims.beginLoad(playerUUID);
+        streakClaims.beginLoad(playerUUID);
     }
     /**
-     * Loads the player streaks from the database.
+     * Loads a player's milestone and streak claims into memory in the background, where they stay until the
+     * player is evicted. Call after {@link #beginLoadClaims(UUID)}.
+     *
+     * @param playerUUID UUID of the player
+     * @return A future completed once both loads have finished
      */
-    public void loadStreaks() throws SQLException {
-        String query = "SELECT uuid, streak_id FROM player_streaks WHERE claimed = TRUE;";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                UUID uuid = UUID.fromString(rs.getString("uuid"));
-                int streakId = rs.getInt("streak_id");
-                streakCache.computeIfAbsent(uuid, k -> ConcurrentHashMap.newKeySet()).add(streakId);
-            }
-        }
-
-        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eLoaded &6" + streakCache.size() + " &eplayer streaks from the database."));
+    public CompletableFuture<Void> loadClaims(UUID playerUUID) {
+        return CompletableFuture.allOf(milestoneClaims.load(playerUUID), streakClaims.load(playerUUID));
+    }
+    /**
+     * Moves a player's claims to the offline cache once they have left.
+     *
+     * @param playerUUID UUID of the player
+     */
+    public void evictClaims(UUID playerUUID) {
+        milestoneClaims.evict(playerUUID);
+        streakClaims.evict(playerUUID);
     }
     /**
-     * Claims a streak for the specified player.
+     * Claims a streak for the specified player. The claim is only recorded in memory here, and written in the
+     * background with any others made around the same time, so it is safe to call on the server thread.
      *
      * @param uuid UUID of the player
      * @param streakId ID of the streak
      */
     public void claimStreak(UUID uuid, int streakId) {
-        streakCache.computeIfAbsent(uuid, k -> ConcurrentHashMap.newKeySet()).add(streakId);
-
-        CompletableFuture.runAsync(() -> {
-            String query;
-            if (useMySQL) {
-                query = "INSERT INTO player_streaks (uuid, streak_id, claimed) " +
-                        "VALUES (?, ?, TRUE) ON DUPLICATE KEY UPDATE claimed = TRUE;";
-            }
-            else {
-                query = "INSERT INTO player_streaks (uuid, streak_id, claimed) " +
-                        "VALUES (?, ?, TRUE) ON CONFLICT(uuid, streak_id) DO UPDATE SET claimed = TRUE;";
-            }
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setString(1, uuid.toString());
-                ps.setInt(2, streakId);
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-        });
+        if (streakClaims.claim(uuid, streakId)) {
+            requestClaimFlush();
+        }
     }
     /**
      * Checks if a player has claimed a streak.
@@ -873,32 +636,112 @@ public class VoteStorage {
      * @return True if the player has claimed the streak, false otherwise
      */
     public boolean isStreakClaimed(UUID uuid, int streakId) {
-        return streakCache.getOrDefault(uuid, Collections.emptySet()).contains(streakId);
+        return streakClaims.isClaimed(uuid, streakId);
     }
     /**
-     * Checks if a given column exists in the specified table.
-     *
-     * @param tableName  The table name.
-     * @param columnName The column name.
-     * @return true if the column exists, false otherwise.
-     * @throws SQLException If a database access error occurs.
+     * Asks for the unsaved claims to be written soon. Requests made close together are written in one batch
+     * by the checkpointer, or straight away in the background if checkpointing is disabled.
      */
-    private boolean columnExists(String tableName, String columnName) throws SQLException {
-        DatabaseMetaData metaData = connection.getMetaData();
-        try (ResultSet rs = metaData.getColumns(null, null, tableName, columnName)) {
-            return rs.next();
+    private void requestClaimFlush() {
+        if (checkpointer != null) {
+            checkpointer.request();
+            return;
         }
+        milestoneClaims.flush().exceptionally(VoteStorage::report);
+        streakClaims.flush().exceptionally(VoteStorage::report);
+    }
+    /**
+     * Writes a store's unsaved claims.
+     *
+     * @param claims The claim store.
+     * @return The number of claims written.
+     * @throws SQLException If the claims could not be written, in which case they are kept for the next flush.
+     */
+    private int flushClaims(ClaimStore claims) throws SQLException {
+        return claims.hasUnsaved() ? await(claims.flush()) : 0;
+    }
+    /**
+     * Gets the connection provider, which exposes the pool gauges.
+     *
+     * @return The connection provider.
+     */
+    public ConnectionProvider getConnectionProvider() {
+        return backend.getConnectionProvider();
+    }
+    /**
+     * Gets the storage backend for the configured database.
+     *
+     * @return The backend.
+     */
+    public me.fergs.phantomvoting.database.interfaces.VoteStorage getBackend() {
+        return backend;
+    }
+    /**
+     * Gets the storage for votes received while players were offline.
+     *
+     * @return The pending vote storage.
+     */
+    public PendingVoteStorage getPendingVoteStorage() {
+        return pendingVoteStorage;
+    }
+    /**
+     * Gets the write-behind writer.
+     *
+     * @return The writer, or null if write-behind is disabled.
+     */
+    public WriteBehindVoteWriter getWriteBehindWriter() {
+        return writeBehindWriter;
+    }
+    /**
+     * Gets the checkpointer that periodically saves the vote party count and claims.
+     *
+     * @return The checkpointer, or null if checkpointing is disabled.
+     */
+    public StateCheckpointer getCheckpointer() {
+        return checkpointer;
+    }
+    /**
+     * Gets the players' milestone claims.
+     *
+     * @return The milestone claim store.
+     */
+    public ClaimStore getMilestoneClaims() {
+        return milestoneClaims;
     }
     /**
-     * Closes the database connection.
+     * Gets the players' streak claims.
+     *
+     * @return The streak claim store.
+     */
+    public ClaimStore getStreakClaims() {
+        return streakClaims;
+    }
+    /**
+     * Gets the cache of online players' records.
+     *
+     * @return The profile cache.
+     */
+    public VoteProfileCache getProfileCache() {
+        return profileCache;
+    }
+    /**
+     * Gets the in-memory all-time leaderboard.
+     *
+     * @return The leaderboard index.
+     */
+    public LeaderboardIndex getLeaderboardIndex() {
+        return leaderboardIndex;
+    }
+    /**
+     * Flushes any journaled votes, runs a last checkpoint and closes the backend.
      */
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        if (writeBehindWriter != null) {
+            writeBehindWriter.close();
+        }
+        if (checkpointer != null) {
+            checkpointer.close();
         }
+        backend.close();
     }
 }
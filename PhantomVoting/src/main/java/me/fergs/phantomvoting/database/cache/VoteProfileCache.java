@@ -0,0 +1,115 @@
+package me.fergs.phantomvoting.database.cache;
+
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the vote record of every online player, so placeholders and menus never query the database.
+ * <p>
+ * Reads are a single concurrent map lookup. A record is loaded off the server thread when the player joins,
+ * and any mutation that lands while it is loading marks it stale so the loader reads it again rather than
+ * publishing a record that is missing the mutation.
+ */
+public class VoteProfileCache {
+    private final Map<UUID, PlayerVoteProfile> profiles = new ConcurrentHashMap<>();
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> stale = ConcurrentHashMap.newKeySet();
+    /**
+     * Gets a cached record.
+     *
+     * @param uuid The player's UUID.
+     * @return The record, or null if it is not cached.
+     */
+    public PlayerVoteProfile get(UUID uuid) {
+        return profiles.get(uuid);
+    }
+    /**
+     * Checks whether a record is cached.
+     *
+     * @param uuid The player's UUID.
+     * @return True if the record is cached.
+     */
+    public boolean contains(UUID uuid) {
+        return profiles.containsKey(uuid);
+    }
+    /**
+     * Checks whether a record is being loaded.
+     *
+     * @param uuid The player's UUID.
+     * @return True if the record is being loaded.
+     */
+    public boolean isLoading(UUID uuid) {
+        return loading.contains(uuid);
+    }
+    /**
+     * Marks a record as loading. Call before reading it from the database.
+     *
+     * @param uuid The player's UUID.
+     * @return False if the record is already cached or being loaded by another thread.
+     */
+    public synchronized boolean beginLoad(UUID uuid) {
+        if (profiles.containsKey(uuid) || !loading.add(uuid)) {
+            return false;
+        }
+        stale.remove(uuid);
+        return true;
+    }
+    /**
+     * Publishes a loaded record, unless it was mutated while loading.
+     * A record that was evicted while loading is dropped.
+     *
+     * @param profile The record read from the database.
+     * @return False if the record is stale and must be read again.
+     */
+    public synchronized boolean completeLoad(PlayerVoteProfile profile) {
+        if (!loading.contains(profile.getUuid())) {
+            return true;
+        }
+        if (stale.remove(profile.getUuid())) {
+            return false;
+        }
+        profiles.put(profile.getUuid(), profile);
+        loading.remove(profile.getUuid());
+        return true;
+    }
+    /**
+     * Applies a mutation to a cached record. Records that are not cached are left alone,
+     * and records that are loading are marked stale.
+     *
+     * @param uuid The player's UUID.
+     * @param mutation The mutation.
+     */
+    public void update(UUID uuid, UnaryOperator<PlayerVoteProfile> mutation) {
+        if (profiles.computeIfPresent(uuid, (key, profile) -> mutation.apply(profile)) != null) {
+            return;
+        }
+        synchronized (this) {
+            if (profiles.computeIfPresent(uuid, (key, profile) -> mutation.apply(profile)) == null && loading.contains(uuid)) {
+                stale.add(uuid);
+            }
+        }
+    }
+    /**
+     * Removes a record from the cache, abandoning any load in progress.
+     *
+     * @param uuid The player's UUID.
+     */
+    public synchronized void evict(UUID uuid) {
+        profiles.remove(uuid);
+        loading.remove(uuid);
+        stale.remove(uuid);
+    }
+    /**
+     * Gets the number of cached records.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return profiles.size();
+    }
+}
@@ -0,0 +1,98 @@
+package me.fergs.phantomvoting.database.checkpoint;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how often checkpoints run and how long they take.
+ */
+public class CheckpointMetrics {
+    private final LongAdder writeCount = new LongAdder();
+    private final LongAdder skipCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder totalWriteNanos = new LongAdder();
+    private final LongAccumulator maxWriteNanos = new LongAccumulator(Long::max, 0L);
+    private volatile long lastWriteNanos;
+    private volatile long lastWriteTime;
+    /**
+     * Records a checkpoint that wrote to the database.
+     *
+     * @param writeNanos The time spent writing, in nanoseconds.
+     */
+    public void recordWrite(long writeNanos) {
+        writeCount.increment();
+        totalWriteNanos.add(writeNanos);
+        maxWriteNanos.accumulate(writeNanos);
+        lastWriteNanos = writeNanos;
+        lastWriteTime = System.currentTimeMillis();
+    }
+    /**
+     * Records a checkpoint that had nothing to write.
+     */
+    public void recordSkip() {
+        skipCount.increment();
+    }
+    /**
+     * Records a checkpoint that failed.
+     */
+    public void recordFailure() {
+        failureCount.increment();
+    }
+    /**
+     * Gets the number of checkpoints that wrote to the database.
+     *
+     * @return The write count.
+     */
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+    /**
+     * Gets the number of checkpoints skipped because nothing had changed.
+     *
+     * @return The skip count.
+     */
+    public long getSkipCount() {
+        return skipCount.sum();
+    }
+    /**
+     * Gets the number of checkpoints that failed.
+     *
+     * @return The failure count.
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+    /**
+     * Gets the average time a checkpoint write took.
+     *
+     * @return The average write time in milliseconds.
+     */
+    public double getAverageWriteMillis() {
+        long writes = writeCount.sum();
+        return writes == 0 ? 0 : totalWriteNanos.sum() / (double) writes / 1_000_000D;
+    }
+    /**
+     * Gets the longest time a checkpoint write took.
+     *
+     * @return The maximum write time in milliseconds.
+     */
+    public double getMaxWriteMillis() {
+        return maxWriteNanos.get() / 1_000_000D;
+    }
+    /**
+     * Gets the time the last checkpoint write took.
+     *
+     * @return The last write time in milliseconds.
+     */
+    public double getLastWriteMillis() {
+        return lastWriteNanos / 1_000_000D;
+    }
+    /**
+     * Gets when the last checkpoint was written.
+     *
+     * @return The epoch time in milliseconds, or 0 if none has been written.
+     */
+    public long getLastWriteTime() {
+        return lastWriteTime;
+    }
+}
@@ -0,0 +1,100 @@
+package me.fergs.phantomvoting.database.checkpoint;
+
+import org.bukkit.Bukkit;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically saves state that is otherwise only kept in memory, such as the vote party count and claimed
+ * rewards, from a background thread. Each run only writes what changed since the last one, so a crash loses
+ * at most one interval of progress.
+ */
+public class StateCheckpointer {
+    private final Checkpoint checkpoint;
+    private final CheckpointMetrics metrics = new CheckpointMetrics();
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean runQueued = new AtomicBoolean();
+    private final long requestDelayMillis;
+    /**
+     * Creates a new checkpointer and starts it.
+     *
+     * @param checkpoint Writes whatever changed since the last checkpoint.
+     * @param intervalMillis How often to checkpoint, in milliseconds.
+     * @param requestDelayMillis How long a requested checkpoint waits, so changes made together are written together.
+     */
+    public StateCheckpointer(Checkpoint checkpoint, long intervalMillis, long requestDelayMillis) {
+        this.checkpoint = checkpoint;
+        this.requestDelayMillis = Math.max(0L, requestDelayMillis);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PhantomVoting-Checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000L, intervalMillis);
+        this.executor.scheduleWithFixedDelay(this::run, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    /**
+     * Requests a checkpoint sooner than the next interval, for changes that should not wait that long.
+     * Requests made before the checkpoint runs are all covered by it.
+     */
+    public void request() {
+        if (!executor.isShutdown() && runQueued.compareAndSet(false, true)) {
+            executor.schedule(this::run, requestDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    /**
+     * Runs a checkpoint, recording whether it wrote anything and how long it took.
+     */
+    private synchronized void run() {
+        runQueued.set(false);
+        long start = System.nanoTime();
+        try {
+            if (checkpoint.write()) {
+                metrics.recordWrite(System.nanoTime() - start);
+            } else {
+                metrics.recordSkip();
+            }
+        } catch (SQLException e) {
+            metrics.recordFailure();
+            Bukkit.getLogger().warning("[PhantomVoting] Failed to checkpoint, retrying on the next checkpoint: " + e.getMessage());
+        }
+    }
+    /**
+     * Gets the checkpoint metrics.
+     *
+     * @return The metrics.
+     */
+    public CheckpointMetrics getMetrics() {
+        return metrics;
+    }
+    /**
+     * Stops checkpointing and runs one last checkpoint.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        run();
+    }
+
+    /**
+     * Writes whatever changed since the last checkpoint.
+     */
+    @FunctionalInterface
+    public interface Checkpoint {
+        /**
+         * Writes the changed state.
+         *
+         * @return True if anything was written, false if nothing had changed.
+         * @throws SQLException If the write failed, in which case the state stays changed for the next checkpoint.
+         */
+        boolean write() throws SQLException;
+    }
+}
@@ -0,0 +1,430 @@
+package me.fergs.phantomvoting.database.claim;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import me.fergs.phantomvoting.database.interfaces.VoteStorage;
+import me.fergs.phantomvoting.utils.ConsoleUtil;
+import org.bukkit.Bukkit;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The rewards players have claimed, such as milestones or streaks, kept in memory.
+ * <p>
+ * Reward ids are small numbers, so each player's claims are held as a 64-bit mask where bit {@code n} means
+ * reward {@code n} was claimed. Ids outside 0-63 fall back to a per-player set, which only players with such
+ * ids pay for. This keeps a player to one map entry and one {@code long}, instead of a set of boxed integers.
+ * <p>
+ * Claims are loaded per player when they join and kept while they are online. Once they leave, their claims
+ * move to a bounded cache of offline players, least recently used first out, so memory follows the number of
+ * players online rather than every player who has ever joined. Anyone else is read from the database in the
+ * background when first looked up. A load that is still reading when the player is evicted is dropped, so a
+ * slow read never puts a player who has left back among the online players.
+ * <p>
+ * Claims are recorded in memory straight away and remembered as unsaved until the next flush, which writes
+ * only those claims in one batch. Claims loaded from the database are never written back. Every read and write
+ * runs on the storage backend's threads, so no method here waits for the database.
+ */
+public class ClaimStore {
+    private final VoteStorage backend;
+    private final ClaimType type;
+    private final int offlineCacheSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object2LongOpenHashMap<UUID> online = new Object2LongOpenHashMap<>();
+    private final Object2LongLinkedOpenHashMap<UUID> offline = new Object2LongLinkedOpenHashMap<>();
+    private final Object2ObjectOpenHashMap<UUID, IntOpenHashSet> overflowClaims = new Object2ObjectOpenHashMap<>();
+    private final ObjectOpenHashSet<UUID> loading = new ObjectOpenHashSet<>();
+    private final ObjectOpenHashSet<UUID> lookups = new ObjectOpenHashSet<>();
+    private Object2LongOpenHashMap<UUID> unsaved = new Object2LongOpenHashMap<>();
+    private Object2ObjectOpenHashMap<UUID, IntOpenHashSet> overflowUnsaved = new Object2ObjectOpenHashMap<>();
+    /**
+     * Creates a new claim store.
+     *
+     * @param backend The storage backend to read and write claims with.
+     * @param type The type of reward stored.
+     * @param offlineCacheSize The number of offline players whose claims are kept in memory.
+     */
+    public ClaimStore(VoteStorage backend, ClaimType type, int offlineCacheSize) {
+        this.backend = backend;
+        this.type = type;
+        this.offlineCacheSize = Math.max(0, offlineCacheSize);
+    }
+    /**
+     * Checks if a player has claimed a reward. A player whose claims are not in memory has them read in the
+     * background into the offline cache. Until they are in memory, whether loading on join or looked up here,
+     * every reward counts as claimed, so it is never given out twice and the server thread never waits for
+     * the database.
+     *
+     * @param uuid The player's UUID.
+     * @param claimId The reward's id.
+     * @return True if the reward has been claimed.
+     */
+    public boolean isClaimed(UUID uuid, int claimId) {
+        lock.readLock().lock();
+        try {
+            if (online.containsKey(uuid)) {
+                return contains(online, uuid, claimId);
+            }
+            if (loading.contains(uuid) || lookups.contains(uuid)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            Object2LongMap<UUID> claims = resident(uuid);
+            if (claims != null) {
+                return contains(claims, uuid, claimId);
+            }
+            if (loading.contains(uuid) || !lookups.add(uuid)) {
+                return true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        read(uuid).whenComplete((loaded, error) -> {
+            lock.writeLock().lock();
+            try {
+                if (lookups.remove(uuid) && loaded != null && resident(uuid) == null && !loading.contains(uuid)) {
+                    cache(offline, uuid, merge(uuid, loaded));
+                    trimOffline();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        return true;
+    }
+    /**
+     * Records a claim, to be written by the next flush.
+     *
+     * @param uuid The player's UUID.
+     * @param claimId The reward's id.
+     * @return True if the claim is new, false if the reward was already claimed.
+     */
+    public boolean claim(UUID uuid, int claimId) {
+        lock.writeLock().lock();
+        try {
+            Object2LongMap<UUID> claims = resident(uuid);
+            if (claims != null && !add(claims, overflowClaims, uuid, claimId)) {
+                return false;
+            }
+            add(unsaved, overflowUnsaved, uuid, claimId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    /**
+     * Starts loading a player's claims when they join. Call on the server thread before {@link #load(UUID)}, so
+     * an eviction for a quit that follows always comes after it. A player still in the offline cache is moved
+     * back to the online players straight away, without a read.
+     *
+     * @param uuid The player's UUID.
+     * @return True if the claims still have to be read with {@link #load(UUID)}.
+     */
+    public boolean beginLoad(UUID uuid) {
+        lock.writeLock().lock();
+        try {
+            if (online.containsKey(uuid) || promote(uuid)) {
+                return false;
+            }
+            loading.add(uuid);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    /**
+     * Reads the claims of a player marked by {@link #beginLoad(UUID)} in the background and keeps them in memory
+     * until {@link #evict(UUID)} is called. If the player was evicted before or during the read, the claims are
+     * dropped instead of kept.
+     *
+     * @param uuid The player's UUID.
+     * @return A future completed once the claims are in memory, dropped or could not be read.
+     */
+    public CompletableFuture<Void> load(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            if (!loading.contains(uuid)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return read(uuid).thenAccept(loaded -> {
+            lock.writeLock().lock();
+            try {
+                if (loading.remove(uuid) && loaded != null && !online.containsKey(uuid) && !promote(uuid)) {
+                    cache(online, uuid, merge(uuid, loaded));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    /**
+     * Moves a player who left into the offline cache, dropping the least recently used offline players if it is full.
+     * A load that has not finished reading the player's claims is cancelled.
+     *
+     * @param uuid The player's UUID.
+     */
+    public void evict(UUID uuid) {
+        lock.writeLock().lock();
+        try {
+            loading.remove(uuid);
+            if (online.containsKey(uuid)) {
+                offline.putAndMoveToLast(uuid, online.removeLong(uuid));
+                trimOffline();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    /**
+     * Writes every unsaved claim in one transaction. Claims made while the flush runs are left for the next one,
+     * and if the write fails, the claims it took are put back.
+     *
+     * @return A future with the number of claims written, completed exceptionally if they could not be written.
+     */
+    public CompletableFuture<Integer> flush() {
+        Object2LongOpenHashMap<UUID> batch;
+        Object2ObjectOpenHashMap<UUID, IntOpenHashSet> overflowBatch;
+        lock.writeLock().lock();
+        try {
+            if (unsaved.isEmpty() && overflowUnsaved.isEmpty()) {
+                return CompletableFuture.completedFuture(0);
+            }
+            batch = unsaved;
+            overflowBatch = overflowUnsaved;
+            unsaved = new Object2LongOpenHashMap<>();
+            overflowUnsaved = new Object2ObjectOpenHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<UUID, IntList> claims = new Object2ObjectOpenHashMap<>(batch.size() + overflowBatch.size());
+        for (Object2LongMap.Entry<UUID> entry : batch.object2LongEntrySet()) {
+            long mask = entry.getLongValue();
+            IntList ids = new IntArrayList(Long.bitCount(mask));
+            while (mask != 0) {
+                ids.add(Long.numberOfTrailingZeros(mask));
+                mask &= mask - 1;
+            }
+            claims.put(entry.getKey(), ids);
+        }
+        for (Map.Entry<UUID, IntOpenHashSet> entry : overflowBatch.entrySet()) {
+            claims.computeIfAbsent(entry.getKey(), key -> new IntArrayList()).addAll(entry.getValue());
+        }
+        return backend.saveClaims(type, claims).whenComplete((written, error) -> {
+            if (error == null) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                for (Object2LongMap.Entry<UUID> entry : batch.object2LongEntrySet()) {
+                    unsaved.put(entry.getKey(), unsaved.getLong(entry.getKey()) | entry.getLongValue());
+                }
+                overflowBatch.forEach((uuid, ids) -> overflowUnsaved.computeIfAbsent(uuid, key -> new IntOpenHashSet()).addAll(ids));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    /**
+     * Gets the number of online players whose claims are in memory.
+     *
+     * @return The number of players.
+     */
+    public int getOnlineCount() {
+        lock.readLock().lock();
+        try {
+            return online.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    /**
+     * Gets the number of offline players whose claims are cached.
+     *
+     * @return The number of players.
+     */
+    public int getOfflineCount() {
+        lock.readLock().lock();
+        try {
+            return offline.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    /**
+     * Gets the number of claims waiting to be written.
+     *
+     * @return The number of unsaved claims.
+     */
+    public int getUnsavedCount() {
+        lock.readLock().lock();
+        try {
+            int total = 0;
+            for (LongIterator iterator = unsaved.values().iterator(); iterator.hasNext(); ) {
+                total += Long.bitCount(iterator.nextLong());
+            }
+            for (IntOpenHashSet ids : overflowUnsaved.values()) {
+                total += ids.size();
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    /**
+     * Checks if any claims are waiting to be written.
+     *
+     * @return True if there are unsaved claims.
+     */
+    public boolean hasUnsaved() {
+        lock.readLock().lock();
+        try {
+            return !unsaved.isEmpty() || !overflowUnsaved.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    /**
+     * Finds the map holding a player's claims, marking an offline player as recently used.
+     * Must be called with the write lock held.
+     *
+     * @param uuid The player's UUID.
+     * @return The map, or null if the player's claims are not in memory.
+     */
+    private Object2LongMap<UUID> resident(UUID uuid) {
+        if (online.containsKey(uuid)) {
+            return online;
+        }
+        if (offline.containsKey(uuid)) {
+            offline.getAndMoveToLast(uuid);
+            return offline;
+        }
+        return null;
+    }
+    /**
+     * Moves a player from the offline cache back to the online players. Must be called with the write lock held.
+     *
+     * @param uuid The player's UUID.
+     * @return True if the player was in the offline cache.
+     */
+    private boolean promote(UUID uuid) {
+        if (!offline.containsKey(uuid)) {
+            return false;
+        }
+        online.put(uuid, offline.removeLong(uuid));
+        return true;
+    }
+    /**
+     * Drops the least recently used offline players until the cache fits. Must be called with the write lock held.
+     */
+    private void trimOffline() {
+        while (offline.size() > offlineCacheSize) {
+            UUID eldest = offline.firstKey();
+            offline.removeLong(eldest);
+            overflowClaims.remove(eldest);
+        }
+    }
+    /**
+     * Adds claims not yet written to ones read from the database. Must be called with the write lock held.
+     *
+     * @param uuid The player's UUID.
+     * @param loaded The claims read from the database.
+     * @return The merged claims.
+     */
+    private PlayerClaims merge(UUID uuid, PlayerClaims loaded) {
+        loaded.mask |= unsaved.getLong(uuid);
+        IntOpenHashSet pending = overflowUnsaved.get(uuid);
+        if (pending != null) {
+            loaded.overflow = loaded.overflow != null ? loaded.overflow : new IntOpenHashSet();
+            loaded.overflow.addAll(pending);
+        }
+        return loaded;
+    }
+
+    private void cache(Object2LongMap<UUID> claims, UUID uuid, PlayerClaims loaded) {
+        claims.put(uuid, loaded.mask);
+        if (loaded.overflow != null) {
+            overflowClaims.put(uuid, loaded.overflow);
+        }
+    }
+    /**
+     * Reads a player's claims from the database.
+     *
+     * @param uuid The player's UUID.
+     * @return A future with the claims, or null if they could not be read.
+     */
+    private CompletableFuture<PlayerClaims> read(UUID uuid) {
+        return backend.getClaims(type, uuid).handle((ids, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cCould not load " + type.getTable() + " for &f" + uuid + "&c: " + cause.getMessage()));
+                return null;
+            }
+            PlayerClaims claims = new PlayerClaims();
+            for (IntIterator iterator = ids.iterator(); iterator.hasNext(); ) {
+                claims.add(iterator.nextInt());
+            }
+            return claims;
+        });
+    }
+
+    private boolean contains(Object2LongMap<UUID> masks, UUID uuid, int claimId) {
+        if (claimId >= 0 && claimId < Long.SIZE) {
+            return (masks.getLong(uuid) & (1L << claimId)) != 0;
+        }
+        IntOpenHashSet ids = overflowClaims.get(uuid);
+        return ids != null && ids.contains(claimId);
+    }
+
+    private static boolean add(Object2LongMap<UUID> masks, Map<UUID, IntOpenHashSet> overflow, UUID uuid, int claimId) {
+        if (claimId >= 0 && claimId < Long.SIZE) {
+            long mask = masks.getLong(uuid);
+            long bit = 1L << claimId;
+            if ((mask & bit) != 0) {
+                return false;
+            }
+            masks.put(uuid, mask | bit);
+            return true;
+        }
+        return overflow.computeIfAbsent(uuid, key -> new IntOpenHashSet()).add(claimId);
+    }
+
+    /**
+     * One player's claims as read from the database.
+     */
+    private static final class PlayerClaims {
+        private long mask;
+        private IntOpenHashSet overflow;
+
+        private void add(int claimId) {
+            if (claimId >= 0 && claimId < Long.SIZE) {
+                mask |= 1L << claimId;
+            } else {
+                overflow = overflow != null ? overflow : new IntOpenHashSet();
+                overflow.add(claimId);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package me.fergs.phantomvoting.database.claim;
+
+import me.fergs.phantomvoting.database.statement.SqlStatement;
+
+/**
+ * The kinds of reward a player can claim, each kept in its own table.
+ */
+public enum ClaimType {
+    /**
+     * Milestones, claimed once a player reaches a number of votes.
+     */
+    MILESTONE("player_milestones", SqlStatement.UPSERT_MILESTONE_CLAIM, SqlStatement.SELECT_MILESTONE_CLAIMS),
+    /**
+     * Streaks, claimed once a player has voted a number of days in a row.
+     */
+    STREAK("player_streaks", SqlStatement.UPSERT_STREAK_CLAIM, SqlStatement.SELECT_STREAK_CLAIMS);
+    private final String table;
+    private final SqlStatement upsert;
+    private final SqlStatement select;
+    /**
+     * Creates a new claim type.
+     *
+     * @param table The claims table.
+     * @param upsert The statement that saves a claim, taking the uuid and the claim id.
+     * @param select The statement that reads a player's claim ids, taking the uuid.
+     */
+    ClaimType(String table, SqlStatement upsert, SqlStatement select) {
+        this.table = table;
+        this.upsert = upsert;
+        this.select = select;
+    }
+    /**
+     * Gets the claims table, also used in messages.
+     *
+     * @return The table name.
+     */
+    public String getTable() {
+        return table;
+    }
+    /**
+     * Gets the statement that saves a claim.
+     *
+     * @return The statement.
+     */
+    public SqlStatement getUpsert() {
+        return upsert;
+    }
+    /**
+     * Gets the statement that reads a player's claim ids.
+     *
+     * @return The statement.
+     */
+    public SqlStatement getSelect() {
+        return select;
+    }
+}
@@ -0,0 +1,53 @@
+package me.fergs.phantomvoting.database.impl.mysql;
+
+import me.fergs.phantomvoting.database.interfaces.SqlDialect;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The MySQL dialect.
+ */
+public class MySQLDialect implements SqlDialect {
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public String integerType() {
+        return "INT";
+    }
+
+    @Override
+    public String textType(int maxLength) {
+        return "VARCHAR(" + maxLength + ")";
+    }
+
+    @Override
+    public String dropIndexSql(String index, String table) {
+        return "DROP INDEX " + index + " ON " + table;
+    }
+
+    @Override
+    public String explainSql(String query) {
+        return "EXPLAIN " + query;
+    }
+    /**
+     * MySQL reports a full table scan with the access type ALL.
+     */
+    @Override
+    public String findScan(ResultSet plan) throws SQLException {
+        return "ALL".equalsIgnoreCase(plan.getString("type")) ? plan.getString("table") : null;
+    }
+    /**
+     * Swaps both tables in one atomic RENAME, so the table is never missing, then drops the old one.
+     */
+    @Override
+    public void replaceTable(Statement stmt, String table, String replacement) throws SQLException {
+        stmt.executeUpdate("DROP TABLE IF EXISTS " + table + "_legacy");
+        stmt.executeUpdate("RENAME TABLE " + table + " TO " + table + "_legacy, " + replacement + " TO " + table);
+        stmt.executeUpdate("DROP TABLE " + table + "_legacy");
+    }
+}
@@ -1,4 +1,137 @@
 package me.fergs.phantomvoting.database.impl.mysql;
 
-public class MySQLImpl {
+import me.fergs.phantomvoting.database.AbstractVoteStorage;
+import me.fergs.phantomvoting.database.pool.MySQLConnectionProvider;
+import me.fergs.phantomvoting.database.statement.SqlStatement;
+import me.fergs.phantomvoting.database.statement.StatementRegistry;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The MySQL storage backend.
+ * <p>
+ * MySQL handles concurrent writers itself, so reads and writes share one executor with a thread for every
+ * pooled connection. Batches are sent with rewriteBatchedStatements, so the driver combines a batch of votes
+ * or claims into a few round trips rather than one per row.
+ * MySQL has no RETURNING, so a vote is read back with a second statement on the same connection.
+ */
+public class MySQLImpl extends AbstractVoteStorage {
+    /**
+     * Creates a new MySQL storage backend.
+     *
+     * @param storageSection The storage settings.
+     * @param poolSection The pool settings, may be null for defaults.
+     * @param indexSection The index settings, may be null for defaults.
+     */
+    public MySQLImpl(ConfigurationSection storageSection, ConfigurationSection poolSection, ConfigurationSection indexSection) {
+        this(new MySQLConnectionProvider(databaseUrl(storageSection),
+                        storageSection.getString("username", ""),
+                        storageSection.getString("password", ""),
+                        poolSection),
+                newExecutor("MySQL", poolSection != null ? poolSection.getInt("maximum-pool-size", 10) : 10),
+                indexSection);
+    }
+
+    private MySQLImpl(MySQLConnectionProvider connectionProvider, ExecutorService executor, ConfigurationSection indexSection) {
+        super(connectionProvider, new MySQLDialect(), createStatements(), executor, executor, indexSection);
+    }
+    /**
+     * Builds the JDBC url of the database.
+     *
+     * @param storageSection The storage settings.
+     * @return The JDBC url.
+     */
+    private static String databaseUrl(ConfigurationSection storageSection) {
+        return "jdbc:mysql://" + storageSection.getString("host", "") + ":" + storageSection.getString("port", "")
+                + "/" + storageSection.getString("database", "")
+                + "?useSSL=false&autoReconnect=true&rewriteBatchedStatements=true";
+    }
+    /**
+     * Registers the MySQL upserts, which refer to the new row with VALUES().
+     *
+     * @return The statements.
+     */
+    private static StatementRegistry createStatements() {
+        return new StatementRegistry()
+                .register(SqlStatement.UPSERT_VOTE, StatementRegistry.insertVoteSql() + "ON DUPLICATE KEY UPDATE " + StatementRegistry.applyVoteSql("VALUES(%s)"))
+                .register(SqlStatement.UPSERT_VOTE_PARTY, "INSERT INTO vote_party (id, current_vote_count) VALUES (1, ?) " +
+                        "ON DUPLICATE KEY UPDATE current_vote_count = VALUES(current_vote_count)")
+                .register(SqlStatement.UPSERT_MILESTONE_CLAIM, "INSERT INTO player_milestones (uuid, milestone_id, claimed) VALUES (?, ?, TRUE) " +
+                        "ON DUPLICATE KEY UPDATE claimed = TRUE")
+                .register(SqlStatement.UPSERT_STREAK_CLAIM, "INSERT INTO player_streaks (uuid, streak_id, claimed) VALUES (?, ?, TRUE) " +
+                        "ON DUPLICATE KEY UPDATE claimed = TRUE")
+                .register(SqlStatement.UPSERT_JOURNAL_CHECKPOINT, "INSERT INTO journal_checkpoints (journal_id, flushed_sequence) VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE flushed_sequence = VALUES(flushed_sequence)");
+    }
+
+    @Override
+    protected void createTables(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_votes (" +
+                "uuid VARCHAR(36) PRIMARY KEY," +
+                "daily_count INT DEFAULT 0," +
+                "weekly_count INT DEFAULT 0," +
+                "monthly_count INT DEFAULT 0," +
+                "yearly_count INT DEFAULT 0," +
+                "all_time_count INT DEFAULT 0," +
+                "daily_timestamp BIGINT," +
+                "weekly_timestamp BIGINT," +
+                "monthly_timestamp BIGINT," +
+                "yearly_timestamp BIGINT," +
+                "streak_count INT DEFAULT 0," +
+                "last_vote_date INT" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS vote_party (" +
+                "id INT PRIMARY KEY," +
+                "current_vote_count INT DEFAULT 0" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_milestones (" +
+                "uuid VARCHAR(36) NOT NULL," +
+                "milestone_id INT NOT NULL," +
+                "claimed BOOLEAN DEFAULT FALSE," +
+                "PRIMARY KEY (uuid, milestone_id)" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_streaks (" +
+                "uuid VARCHAR(36) NOT NULL," +
+                "streak_id INT NOT NULL," +
+                "claimed BOOLEAN DEFAULT FALSE," +
+                "PRIMARY KEY (uuid, streak_id)" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS pending_votes (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                "uuid VARCHAR(36)," +
+                "username VARCHAR(16) NOT NULL," +
+                "created_at BIGINT NOT NULL," +
+                "INDEX idx_pending_votes_uuid (uuid)," +
+                "INDEX idx_pending_votes_username (username)," +
+                "INDEX idx_pending_votes_created_at (created_at)" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS journal_checkpoints (" +
+                "journal_id VARCHAR(36) PRIMARY KEY," +
+                "flushed_sequence BIGINT NOT NULL" +
+                ");");
+    }
+
+    @Override
+    protected String votePartyKeySql() {
+        return "ALTER TABLE vote_party ADD PRIMARY KEY (id)";
+    }
+
+    @Override
+    protected PlayerVoteProfile applyVote(Connection connection, UUID playerUUID, LocalDateTime time) throws SQLException {
+        return inTransaction(connection, () -> {
+            try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.UPSERT_VOTE))) {
+                bindVote(pstmt, playerUUID, time);
+                pstmt.executeUpdate();
+            }
+            return selectProfile(connection, playerUUID);
+        });
+    }
 }
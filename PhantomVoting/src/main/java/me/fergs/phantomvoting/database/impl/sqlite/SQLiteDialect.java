@@ -0,0 +1,59 @@
+package me.fergs.phantomvoting.database.impl.sqlite;
+
+import me.fergs.phantomvoting.database.interfaces.SqlDialect;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * The SQLite dialect.
+ */
+public class SQLiteDialect implements SqlDialect {
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public String integerType() {
+        return "INTEGER";
+    }
+    /**
+     * SQLite does not enforce lengths, so every text column is TEXT.
+     */
+    @Override
+    public String textType(int maxLength) {
+        return "TEXT";
+    }
+
+    @Override
+    public String dropIndexSql(String index, String table) {
+        return "DROP INDEX " + index;
+    }
+
+    @Override
+    public String explainSql(String query) {
+        return "EXPLAIN QUERY PLAN " + query;
+    }
+    /**
+     * SQLite reports a scan as "SCAN table" without an index, while a "SCAN table USING INDEX" walks an index in order.
+     */
+    @Override
+    public String findScan(ResultSet plan) throws SQLException {
+        String detail = plan.getString("detail");
+        if (detail.startsWith("SCAN ") && !detail.toUpperCase(Locale.ROOT).contains("INDEX")) {
+            return detail.substring(5).replace("TABLE ", "").split(" ")[0];
+        }
+        return null;
+    }
+    /**
+     * Schema changes are transactional in SQLite, so the old table is dropped first and the swap is still atomic.
+     */
+    @Override
+    public void replaceTable(Statement stmt, String table, String replacement) throws SQLException {
+        stmt.executeUpdate("DROP TABLE " + table);
+        stmt.executeUpdate("ALTER TABLE " + replacement + " RENAME TO " + table);
+    }
+}
@@ -1,4 +1,139 @@
 package me.fergs.phantomvoting.database.impl.sqlite;
 
-public class SQLiteImpl {
+import me.fergs.phantomvoting.database.AbstractVoteStorage;
+import me.fergs.phantomvoting.database.pool.SQLiteConnectionProvider;
+import me.fergs.phantomvoting.database.statement.SqlStatement;
+import me.fergs.phantomvoting.database.statement.StatementRegistry;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The SQLite storage backend.
+ * <p>
+ * SQLite allows one writer at a time, so writes run on a single thread and queue in its executor instead of
+ * blocking each other on the writer connection, while reads run on one thread per reader connection.
+ * A vote is applied and read back in a single statement with RETURNING.
+ */
+public class SQLiteImpl extends AbstractVoteStorage {
+    /**
+     * Creates a new SQLite storage backend.
+     *
+     * @param dataFolder The plugin's data folder.
+     * @param storageSection The storage settings.
+     * @param poolSection The pool settings, may be null for defaults.
+     * @param sqliteSection The SQLite settings, may be null for defaults.
+     * @param indexSection The index settings, may be null for defaults.
+     */
+    public SQLiteImpl(String dataFolder, ConfigurationSection storageSection, ConfigurationSection poolSection,
+                      ConfigurationSection sqliteSection, ConfigurationSection indexSection) {
+        super(new SQLiteConnectionProvider(databaseUrl(dataFolder, storageSection.getString("file", "votes.db")), poolSection, sqliteSection),
+                new SQLiteDialect(),
+                createStatements(),
+                newExecutor("SQLite-Writer", 1),
+                newExecutor("SQLite-Reader", poolSection != null ? poolSection.getInt("reader-connections", 4) : 4),
+                indexSection);
+    }
+    /**
+     * Builds the JDBC url of the database file, or of a shared in-memory database.
+     *
+     * @param dataFolder The plugin's data folder.
+     * @param file The database file, or ":memory:".
+     * @return The JDBC url.
+     */
+    private static String databaseUrl(String dataFolder, String file) {
+        return file.equals(":memory:")
+                ? "jdbc:sqlite:file:" + dataFolder + "?mode=memory&cache=shared"
+                : "jdbc:sqlite:plugins/" + dataFolder + "/" + file;
+    }
+    /**
+     * Registers the SQLite upserts, which name the conflicting key and refer to the new row as excluded.
+     *
+     * @return The statements.
+     */
+    private static StatementRegistry createStatements() {
+        String upsertVote = StatementRegistry.insertVoteSql() + "ON CONFLICT(uuid) DO UPDATE SET " + StatementRegistry.applyVoteSql("excluded.%s");
+        return new StatementRegistry()
+                .register(SqlStatement.UPSERT_VOTE, upsertVote)
+                .register(SqlStatement.UPSERT_VOTE_RETURNING, upsertVote + " RETURNING *")
+                .register(SqlStatement.UPSERT_VOTE_PARTY, "INSERT INTO vote_party (id, current_vote_count) VALUES (1, ?) " +
+                        "ON CONFLICT(id) DO UPDATE SET current_vote_count = excluded.current_vote_count")
+                .register(SqlStatement.UPSERT_MILESTONE_CLAIM, "INSERT INTO player_milestones (uuid, milestone_id, claimed) VALUES (?, ?, TRUE) " +
+                        "ON CONFLICT(uuid, milestone_id) DO UPDATE SET claimed = TRUE")
+                .register(SqlStatement.UPSERT_STREAK_CLAIM, "INSERT INTO player_streaks (uuid, streak_id, claimed) VALUES (?, ?, TRUE) " +
+                        "ON CONFLICT(uuid, streak_id) DO UPDATE SET claimed = TRUE")
+                .register(SqlStatement.UPSERT_JOURNAL_CHECKPOINT, "INSERT INTO journal_checkpoints (journal_id, flushed_sequence) VALUES (?, ?) " +
+                        "ON CONFLICT(journal_id) DO UPDATE SET flushed_sequence = excluded.flushed_sequence");
+    }
+
+    @Override
+    protected void createTables(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_votes (" +
+                "uuid TEXT PRIMARY KEY," +
+                "daily_count INTEGER DEFAULT 0," +
+                "weekly_count INTEGER DEFAULT 0," +
+                "monthly_count INTEGER DEFAULT 0," +
+                "yearly_count INTEGER DEFAULT 0," +
+                "all_time_count INTEGER DEFAULT 0," +
+                "daily_timestamp INTEGER," +
+                "weekly_timestamp INTEGER," +
+                "monthly_timestamp INTEGER," +
+                "yearly_timestamp INTEGER," +
+                "streak_count INTEGER DEFAULT 0," +
+                "last_vote_date INTEGER" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS vote_party (" +
+                "id INTEGER PRIMARY KEY," +
+                "current_vote_count INTEGER DEFAULT 0" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_milestones (" +
+                "uuid TEXT NOT NULL," +
+                "milestone_id INTEGER NOT NULL," +
+                "claimed BOOLEAN DEFAULT FALSE," +
+                "PRIMARY KEY (uuid, milestone_id)" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_streaks (" +
+                "uuid TEXT NOT NULL," +
+                "streak_id INTEGER NOT NULL," +
+                "claimed BOOLEAN DEFAULT FALSE," +
+                "PRIMARY KEY (uuid, streak_id)" +
+                ");");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS pending_votes (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "uuid TEXT," +
+                "username TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL" +
+                ");");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_pending_votes_uuid ON pending_votes (uuid);");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_pending_votes_username ON pending_votes (username);");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_pending_votes_created_at ON pending_votes (created_at);");
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS journal_checkpoints (" +
+                "journal_id TEXT PRIMARY KEY," +
+                "flushed_sequence INTEGER NOT NULL" +
+                ");");
+    }
+    /**
+     * SQLite cannot add a primary key to an existing table, so a unique index keys the row instead.
+     */
+    @Override
+    protected String votePartyKeySql() {
+        return "CREATE UNIQUE INDEX IF NOT EXISTS vote_party_id ON vote_party (id)";
+    }
+
+    @Override
+    protected PlayerVoteProfile applyVote(Connection connection, UUID playerUUID, LocalDateTime time) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(statements.get(SqlStatement.UPSERT_VOTE_RETURNING))) {
+            bindVote(pstmt, playerUUID, time);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? readProfile(playerUUID, rs) : null;
+            }
+        }
+    }
 }
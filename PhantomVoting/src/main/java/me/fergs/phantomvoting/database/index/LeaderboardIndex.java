@@ -0,0 +1,261 @@
+package me.fergs.phantomvoting.database.index;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import me.fergs.phantomvoting.objects.PlayerVoteData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A resident ranking of every player by vote count.
+ * <p>
+ * A Fenwick tree indexed by vote count answers "how many players have more votes than this"
+ * in O(log maxVotes), which gives a player's rank. Players are also bucketed by count in a
+ * sorted map, so the top of the leaderboard is read by walking the highest buckets.
+ * Ties are ordered by UUID, matching the order the database queries used.
+ */
+public class LeaderboardIndex {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object2IntOpenHashMap<UUID> counts = new Object2IntOpenHashMap<>();
+    private final NavigableMap<Integer, Set<UUID>> buckets = new TreeMap<>(Collections.reverseOrder());
+    private int[] tree = new int[1025];
+    /**
+     * Replaces the contents of the index.
+     *
+     * @param playerCounts Every player's vote count.
+     */
+    public void load(Map<UUID, Integer> playerCounts) {
+        lock.writeLock().lock();
+        try {
+            counts.clear();
+            buckets.clear();
+            int maxCount = 0;
+            for (Map.Entry<UUID, Integer> entry : playerCounts.entrySet()) {
+                int count = Math.max(0, entry.getValue());
+                counts.put(entry.getKey(), count);
+                buckets.computeIfAbsent(count, key -> new ObjectOpenHashSet<>()).add(entry.getKey());
+                maxCount = Math.max(maxCount, count);
+            }
+            rebuildTree(Math.max(1024, Integer.highestOneBit(maxCount) << 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    /**
+     * Sets a player's vote count.
+     *
+     * @param uuid The player's UUID.
+     * @param count The new vote count, clamped to zero.
+     */
+    public void set(UUID uuid, int count) {
+        lock.writeLock().lock();
+        try {
+            update(uuid, Math.max(0, count));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    /**
+     * Adds to a player's vote count, adding the player if they are not indexed yet.
+     *
+     * @param uuid The player's UUID.
+     * @param delta The amount to add, which may be negative.
+     */
+    public void add(UUID uuid, int delta) {
+        lock.writeLock().lock();
+        try {
+            update(uuid, Math.max(0, counts.getInt(uuid) + delta));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    /**
+     * Removes a player from the index, after which they are ranked as having no votes.
+     *
+     * @param uuid The player's UUID.
+     */
+    public void remove(UUID uuid) {
+        lock.writeLock().lock();
+        try {
+            if (!counts.containsKey(uuid)) {
+                return;
+            }
+            int previous = counts.removeInt(uuid);
+            removeFromBucket(uuid, previous);
+            addToTree(previous, -1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    /**
+     * Moves a player to a new count. Must hold the write lock.
+     *
+     * @param uuid The player's UUID.
+     * @param count The new vote count.
+     */
+    private void update(UUID uuid, int count) {
+        boolean present = counts.containsKey(uuid);
+        int previous = counts.getInt(uuid);
+        if (present && previous == count) {
+            return;
+        }
+        if (present) {
+            removeFromBucket(uuid, previous);
+            addToTree(previous, -1);
+        }
+        counts.put(uuid, count);
+        buckets.computeIfAbsent(count, key -> new ObjectOpenHashSet<>()).add(uuid);
+        if (count + 1 >= tree.length) {
+            rebuildTree(Integer.highestOneBit(count) << 1);
+        } else {
+            addToTree(count, 1);
+        }
+    }
+    /**
+     * Gets a player's vote count.
+     *
+     * @param uuid The player's UUID.
+     * @return The vote count, or 0 if the player is not indexed.
+     */
+    public int getCount(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            return counts.getInt(uuid);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    /**
+     * Gets a player's position on the leaderboard. Players with the same count share a position,
+     * and a player who is not indexed is ranked as having no votes.
+     *
+     * @param uuid The player's UUID.
+     * @return The 1-based position.
+     */
+    public int rank(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            int count = counts.getInt(uuid);
+            return counts.size() - prefixSum(count) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    /**
+     * Gets the highest ranked players.
+     *
+     * @param limit The maximum number of players to return.
+     * @return The players, highest first.
+     */
+    public List<PlayerVoteData> topN(int limit) {
+        List<PlayerVoteData> top = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Integer, Set<UUID>> bucket : buckets.entrySet()) {
+                int remaining = limit - top.size();
+                if (remaining <= 0) {
+                    break;
+                }
+                for (UUID uuid : sortedHead(bucket.getValue(), remaining)) {
+                    top.add(new PlayerVoteData(uuid, bucket.getKey()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top;
+    }
+    /**
+     * Gets the player at a position on the leaderboard.
+     *
+     * @param position The 1-based position.
+     * @return The player, or null if out of bounds.
+     */
+    public PlayerVoteData getAt(int position) {
+        if (position <= 0) {
+            return null;
+        }
+        List<PlayerVoteData> top = topN(position);
+        return top.size() == position ? top.get(position - 1) : null;
+    }
+    /**
+     * Gets the number of indexed players.
+     *
+     * @return The player count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return counts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    /**
+     * Gets the lowest UUIDs in a bucket, in order.
+     *
+     * @param bucket The bucket.
+     * @param limit The maximum number of UUIDs.
+     * @return The sorted UUIDs.
+     */
+    private static List<UUID> sortedHead(Set<UUID> bucket, int limit) {
+        List<UUID> sorted = new ArrayList<>(bucket);
+        Collections.sort(sorted);
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+    /**
+     * Removes a player from a count bucket, dropping the bucket once empty.
+     *
+     * @param uuid The player's UUID.
+     * @param count The bucket's count.
+     */
+    private void removeFromBucket(UUID uuid, int count) {
+        Set<UUID> bucket = buckets.get(count);
+        if (bucket != null && bucket.remove(uuid) && bucket.isEmpty()) {
+            buckets.remove(count);
+        }
+    }
+    /**
+     * Rebuilds the Fenwick tree from the buckets with a new capacity.
+     *
+     * @param capacity The highest count the tree can hold, exclusive.
+     */
+    private void rebuildTree(int capacity) {
+        tree = new int[capacity + 1];
+        for (Map.Entry<Integer, Set<UUID>> bucket : buckets.entrySet()) {
+            addToTree(bucket.getKey(), bucket.getValue().size());
+        }
+    }
+    /**
+     * Adds to the number of players at a count.
+     *
+     * @param count The count.
+     * @param delta The number of players to add.
+     */
+    private void addToTree(int count, int delta) {
+        for (int i = count + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+    /**
+     * Gets the number of players with at most the given count.
+     *
+     * @param count The count.
+     * @return The number of players.
+     */
+    private int prefixSum(int count) {
+        int sum = 0;
+        for (int i = Math.min(count + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
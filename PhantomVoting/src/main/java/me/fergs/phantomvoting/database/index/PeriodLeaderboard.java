@@ -0,0 +1,186 @@
+package me.fergs.phantomvoting.database.index;
+
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import me.fergs.phantomvoting.enums.LeaderboardPeriod;
+import me.fergs.phantomvoting.objects.PlayerVoteData;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * A resident ranking of every player by their vote count in one period.
+ * <p>
+ * Period counts in the database only reset when that player next votes, so each player's window is
+ * tracked here along with the time it runs out. Windows are bucketed by expiry time, and a player is
+ * dropped from the ranking once their bucket rolls over, so keeping the ranking current costs one
+ * bucket per expiry rather than a scan of every player.
+ */
+public class PeriodLeaderboard {
+    private final LeaderboardPeriod period;
+    private final LeaderboardIndex index = new LeaderboardIndex();
+    private final Object2LongOpenHashMap<UUID> expiries = new Object2LongOpenHashMap<>();
+    private final NavigableMap<Long, Set<UUID>> expiryBuckets = new TreeMap<>();
+    private volatile long nextExpiry = Long.MAX_VALUE;
+    /**
+     * Creates a new period leaderboard.
+     *
+     * @param period The period to rank by. Must be a period that runs out.
+     */
+    public PeriodLeaderboard(LeaderboardPeriod period) {
+        this.period = period;
+    }
+    /**
+     * Sets a player's window from their record, as it is after a write to the database.
+     *
+     * @param profile The player's record.
+     */
+    public synchronized void apply(PlayerVoteProfile profile) {
+        LocalDateTime start = period.getTimestamp(profile);
+        long expiry = start != null ? toMillis(period.getExpiry(start)) : Long.MIN_VALUE;
+        if (expiry < System.currentTimeMillis()) {
+            dropWindow(profile.getUuid());
+            return;
+        }
+        index.set(profile.getUuid(), period.getCount(profile));
+        scheduleExpiry(profile.getUuid(), expiry);
+    }
+    /**
+     * Applies votes the same way the database does, starting a new window if the player's
+     * current one has run out by the time of the votes.
+     *
+     * @param uuid The player's UUID.
+     * @param time The time the votes were cast.
+     * @param amount The number of votes.
+     */
+    public synchronized void recordVotes(UUID uuid, LocalDateTime time, int amount) {
+        long expiry = expiries.containsKey(uuid) ? expiries.getLong(uuid) : Long.MIN_VALUE;
+        if (expiry < toMillis(time)) {
+            index.set(uuid, amount);
+            scheduleExpiry(uuid, toMillis(period.getExpiry(time)));
+        } else {
+            index.add(uuid, amount);
+        }
+    }
+    /**
+     * Gets a player's vote count in this period.
+     *
+     * @param uuid The player's UUID.
+     * @return The vote count, or 0 if the player's window has run out.
+     */
+    public int getCount(UUID uuid) {
+        expire();
+        return index.getCount(uuid);
+    }
+    /**
+     * Gets a player's position in this period.
+     *
+     * @param uuid The player's UUID.
+     * @return The 1-based position.
+     */
+    public int rank(UUID uuid) {
+        expire();
+        return index.rank(uuid);
+    }
+    /**
+     * Gets the highest ranked players in this period.
+     *
+     * @param limit The maximum number of players to return.
+     * @return The players, highest first.
+     */
+    public List<PlayerVoteData> topN(int limit) {
+        expire();
+        return index.topN(limit);
+    }
+    /**
+     * Gets the player at a position in this period.
+     *
+     * @param position The 1-based position.
+     * @return The player, or null if out of bounds.
+     */
+    public PlayerVoteData getAt(int position) {
+        expire();
+        return index.getAt(position);
+    }
+    /**
+     * Drops every window that has run out. Reads take the lock only when a bucket is due.
+     */
+    private void expire() {
+        long now = System.currentTimeMillis();
+        if (now <= nextExpiry) {
+            return;
+        }
+        synchronized (this) {
+            NavigableMap<Long, Set<UUID>> due = expiryBuckets.headMap(now, false);
+            for (Set<UUID> bucket : due.values()) {
+                for (UUID uuid : bucket) {
+                    expiries.removeLong(uuid);
+                    index.remove(uuid);
+                }
+            }
+            due.clear();
+            updateNextExpiry();
+        }
+    }
+    /**
+     * Moves a player's window to a new expiry bucket. Must hold the monitor.
+     *
+     * @param uuid The player's UUID.
+     * @param expiry When the window runs out, in epoch milliseconds.
+     */
+    private void scheduleExpiry(UUID uuid, long expiry) {
+        if (expiries.containsKey(uuid)) {
+            removeFromBucket(uuid, expiries.getLong(uuid));
+        }
+        expiries.put(uuid, expiry);
+        expiryBuckets.computeIfAbsent(expiry, key -> new ObjectOpenHashSet<>()).add(uuid);
+        updateNextExpiry();
+    }
+    /**
+     * Removes a player's window entirely. Must hold the monitor.
+     *
+     * @param uuid The player's UUID.
+     */
+    private void dropWindow(UUID uuid) {
+        if (expiries.containsKey(uuid)) {
+            removeFromBucket(uuid, expiries.removeLong(uuid));
+            updateNextExpiry();
+        }
+        index.remove(uuid);
+    }
+    /**
+     * Removes a player from an expiry bucket, dropping the bucket once empty.
+     *
+     * @param uuid The player's UUID.
+     * @param expiry The bucket's expiry time.
+     */
+    private void removeFromBucket(UUID uuid, long expiry) {
+        Set<UUID> bucket = expiryBuckets.get(expiry);
+        if (bucket != null && bucket.remove(uuid) && bucket.isEmpty()) {
+            expiryBuckets.remove(expiry);
+        }
+    }
+    /**
+     * Publishes the earliest pending expiry for the lock-free check in {@link #expire()}.
+     */
+    private void updateNextExpiry() {
+        Map.Entry<Long, Set<UUID>> first = expiryBuckets.firstEntry();
+        nextExpiry = first != null ? first.getKey() : Long.MAX_VALUE;
+    }
+    /**
+     * Converts a local time to epoch milliseconds in the server's zone, as timestamps are stored.
+     *
+     * @param time The local time.
+     * @return The epoch milliseconds.
+     */
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
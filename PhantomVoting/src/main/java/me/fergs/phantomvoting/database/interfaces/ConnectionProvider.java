@@ -0,0 +1,59 @@
+package me.fergs.phantomvoting.database.interfaces;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out JDBC connections for the vote storage.
+ * Connections must be closed after use, which returns them to the provider.
+ */
+public interface ConnectionProvider {
+    /**
+     * Borrows a connection that may be used for writes.
+     *
+     * @return A connection, which must be closed once finished with.
+     * @throws SQLException If no connection could be obtained in time.
+     */
+    Connection getConnection() throws SQLException;
+    /**
+     * Borrows a connection that is only used for reads.
+     *
+     * @return A connection, which must be closed once finished with.
+     * @throws SQLException If no connection could be obtained in time.
+     */
+    Connection getReadConnection() throws SQLException;
+    /**
+     * Gets the number of connections currently borrowed.
+     *
+     * @return The active connection count.
+     */
+    int getActiveConnections();
+    /**
+     * Gets the number of open connections waiting to be borrowed.
+     *
+     * @return The idle connection count.
+     */
+    int getIdleConnections();
+    /**
+     * Gets the average time callers waited to borrow a connection.
+     *
+     * @return The average wait time in milliseconds.
+     */
+    double getAverageWaitMillis();
+    /**
+     * Gets the longest time a caller waited to borrow a connection.
+     *
+     * @return The maximum wait time in milliseconds.
+     */
+    double getMaxWaitMillis();
+    /**
+     * Gets the share of prepared statements reused from a connection's statement cache.
+     *
+     * @return The hit ratio between 0 and 1.
+     */
+    double getStatementHitRatio();
+    /**
+     * Closes every connection held by the provider.
+     */
+    void close();
+}
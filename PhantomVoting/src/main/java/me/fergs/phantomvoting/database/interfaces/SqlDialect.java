@@ -0,0 +1,63 @@
+package me.fergs.phantomvoting.database.interfaces;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The parts of SQL that differ between the databases the plugin supports, for the schema code that is shared
+ * between them. Each storage backend provides its own dialect.
+ */
+public interface SqlDialect {
+    /**
+     * Gets the database's name, as shown in the console.
+     *
+     * @return The name.
+     */
+    String getName();
+    /**
+     * Gets the column type for a whole number.
+     *
+     * @return The column type.
+     */
+    String integerType();
+    /**
+     * Gets the column type for text of a bounded length.
+     *
+     * @param maxLength The longest value the column holds.
+     * @return The column type.
+     */
+    String textType(int maxLength);
+    /**
+     * Builds the statement that drops an index.
+     *
+     * @param index The index.
+     * @param table The table the index is on.
+     * @return The SQL.
+     */
+    String dropIndexSql(String index, String table);
+    /**
+     * Builds the statement that shows how a query would be run.
+     *
+     * @param query The query.
+     * @return The SQL.
+     */
+    String explainSql(String query);
+    /**
+     * Reads a row of a query plan and finds the table it scans.
+     *
+     * @param plan The query plan, positioned on a row.
+     * @return The table the row reads in full, or null if the row uses an index.
+     * @throws SQLException If the row could not be read.
+     */
+    String findScan(ResultSet plan) throws SQLException;
+    /**
+     * Replaces a table with a rebuilt copy, which takes the table's name.
+     *
+     * @param stmt The statement to run the change with.
+     * @param table The table.
+     * @param replacement The rebuilt table.
+     * @throws SQLException If the table could not be replaced.
+     */
+    void replaceTable(Statement stmt, String table, String replacement) throws SQLException;
+}
@@ -1,14 +1,243 @@
 package me.fergs.phantomvoting.database.interfaces;
 
-import java.sql.SQLException;
+import it.unimi.dsi.fastutil.ints.IntList;
+import me.fergs.phantomvoting.database.claim.ClaimType;
+import me.fergs.phantomvoting.database.journal.JournalEntry;
+import me.fergs.phantomvoting.database.statement.StatementRegistry;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * TODO: Complete the implementation of the VoteStorage interface.
+ * A storage backend: everything the plugin reads from and writes to its database, for one kind of database.
+ * <p>
+ * Every operation runs on the backend's own threads and returns a future, so callers never block on the
+ * database unless they choose to wait. A failed operation completes its future exceptionally with the
+ * {@link java.sql.SQLException} that caused it. The caches and leaderboards built on top of the backend live
+ * in {@link me.fergs.phantomvoting.database.VoteStorage}, so a backend only has to store and read records.
  */
 public interface VoteStorage {
-    void connectDatabase() throws SQLException;
-    void initializeDatabase() throws SQLException;
-    void addVote(UUID playerUUID);
-    void closeConnection();
-}
\ No newline at end of file
+    /**
+     * Creates any missing tables, migrates the schema to the current version and brings the indexes in sync.
+     *
+     * @return A future completed once the database is ready.
+     */
+    CompletableFuture<Void> initialize();
+    /**
+     * Applies a vote to a player's record, creating the record on their first vote. Expired period counts
+     * are reset and the streak is continued, restarted or left as it is for a second vote on the same day.
+     *
+     * @param playerUUID UUID of the player.
+     * @param time The time of the vote.
+     * @return A future with the player's record after the vote.
+     */
+    CompletableFuture<PlayerVoteProfile> addVote(UUID playerUUID, LocalDateTime time);
+    /**
+     * Applies a batch of votes in one transaction, each at the time it was cast, so either all of them are
+     * written or none are.
+     *
+     * @param votes The votes, oldest first.
+     * @return A future completed once the batch is committed.
+     */
+    CompletableFuture<Void> addVotes(List<JournalEntry> votes);
+    /**
+     * Applies a sealed journal segment in one transaction and records its sequence as flushed in the same
+     * transaction. A segment at or below the journal's recorded sequence is already in the database and is
+     * skipped, so replaying a segment after a crash never counts its votes twice.
+     *
+     * @param journalId The id of the journal the segment belongs to.
+     * @param sequence The segment's sequence number.
+     * @param votes The segment's votes, oldest first.
+     * @return A future completed once the segment is committed or skipped.
+     */
+    CompletableFuture<Void> addJournaledVotes(String journalId, long sequence, List<JournalEntry> votes);
+    /**
+     * Reads the highest segment of a journal that has been written to the database.
+     *
+     * @param journalId The id of the journal.
+     * @return A future with the sequence, or -1 if none of the journal's segments have been written.
+     */
+    CompletableFuture<Long> getJournalCheckpoint(String journalId);
+    /**
+     * Moves a player's pending votes onto their record in one transaction: each vote is applied at the time it
+     * was cast and the pending rows are deleted, so the votes are either all claimed or all left pending.
+     *
+     * @param playerUUID UUID of the player.
+     * @param username The player's name.
+     * @return A future with the times of the claimed votes in epoch milliseconds, oldest first.
+     */
+    CompletableFuture<List<Long>> claimPendingVotes(UUID playerUUID, String username);
+    /**
+     * Stores a vote for a player who was offline when it arrived, to be claimed when they next join.
+     *
+     * @param playerUUID UUID of the player, or null if it is not known.
+     * @param username The player's name.
+     * @param timestamp The time of the vote, in epoch milliseconds.
+     * @return A future completed once the vote is written.
+     */
+    CompletableFuture<Void> addPendingVote(UUID playerUUID, String username, long timestamp);
+    /**
+     * Checks whether a player has any pending vote.
+     *
+     * @param playerUUID UUID of the player.
+     * @param username The player's name.
+     * @return A future with true if the player has a pending vote.
+     */
+    CompletableFuture<Boolean> hasPendingVotes(UUID playerUUID, String username);
+    /**
+     * Reads the lower-cased name of every player with a pending vote.
+     *
+     * @return A future with the names.
+     */
+    CompletableFuture<Set<String>> getPendingVoteNames();
+    /**
+     * Reads the UUID of every player with a pending vote, for the votes where it was known.
+     *
+     * @return A future with the UUIDs.
+     */
+    CompletableFuture<Set<UUID>> getPendingVoteUUIDs();
+    /**
+     * Deletes the pending votes cast before a time.
+     *
+     * @param cutoff The time, in epoch milliseconds.
+     * @return A future with the number of votes deleted.
+     */
+    CompletableFuture<Integer> deleteExpiredPendingVotes(long cutoff);
+    /**
+     * Reads the ids of the rewards of one type a player has claimed.
+     *
+     * @param type The type of reward.
+     * @param playerUUID UUID of the player.
+     * @return A future with the claimed ids.
+     */
+    CompletableFuture<IntList> getClaims(ClaimType type, UUID playerUUID);
+    /**
+     * Saves claimed rewards of one type in one transaction, so either all of them are written or none are.
+     * Claims that are already saved are left as they are.
+     *
+     * @param type The type of reward.
+     * @param claims The claimed ids of each player.
+     * @return A future with the number of claims written.
+     */
+    CompletableFuture<Integer> saveClaims(ClaimType type, Map<UUID, IntList> claims);
+    /**
+     * Adds several votes to an existing record without touching the streak.
+     *
+     * @param playerUUID UUID of the player.
+     * @param amount The number of votes.
+     * @param time The time of the votes.
+     * @return A future with true, or false if the player has no record.
+     */
+    CompletableFuture<Boolean> addMultipleVotes(UUID playerUUID, int amount, LocalDateTime time);
+    /**
+     * Removes votes from a player's all time count.
+     *
+     * @param playerUUID UUID of the player.
+     * @param amount The number of votes.
+     * @return A future with true, or false if the player has no record.
+     */
+    CompletableFuture<Boolean> removeVotes(UUID playerUUID, int amount);
+    /**
+     * Reads a player's record.
+     *
+     * @param playerUUID UUID of the player.
+     * @return A future with the record, or null if the player has none.
+     */
+    CompletableFuture<PlayerVoteProfile> getProfile(UUID playerUUID);
+    /**
+     * Reads every player's record, for building the leaderboards.
+     *
+     * @return A future with the records.
+     */
+    CompletableFuture<List<PlayerVoteProfile>> getAllProfiles();
+    /**
+     * Records a day voted on for a player's streak, continuing it if they voted the day before and restarting it
+     * if they missed a day. A player without a record gets one, counting as their first vote.
+     *
+     * @param playerUUID UUID of the player.
+     * @param time The time of the vote.
+     * @return A future with true if the player's record was created.
+     */
+    CompletableFuture<Boolean> addVoteStreak(UUID playerUUID, LocalDateTime time);
+    /**
+     * Sets a player's streak.
+     *
+     * @param playerUUID UUID of the player.
+     * @param streak The streak.
+     * @return A future completed once the streak is written.
+     */
+    CompletableFuture<Void> setStreak(UUID playerUUID, int streak);
+    /**
+     * Adds to a player's streak.
+     *
+     * @param playerUUID UUID of the player.
+     * @param amount The amount to add.
+     * @return A future completed once the streak is written.
+     */
+    CompletableFuture<Void> addStreak(UUID playerUUID, int amount);
+    /**
+     * Sets a player's streak and the date of their last vote.
+     *
+     * @param playerUUID UUID of the player.
+     * @param streak The streak.
+     * @param voteDate The date of the player's last vote.
+     * @return A future completed once the streak is written.
+     */
+    CompletableFuture<Void> updateStreak(UUID playerUUID, int streak, LocalDate voteDate);
+    /**
+     * Restarts a player's streak at 1.
+     *
+     * @param playerUUID UUID of the player.
+     * @param voteDate The date of the player's last vote.
+     * @return A future completed once the streak is written.
+     */
+    CompletableFuture<Void> resetStreak(UUID playerUUID, LocalDate voteDate);
+    /**
+     * Reads a player's streak.
+     *
+     * @param playerUUID UUID of the player.
+     * @return A future with the streak, 0 if the player has no record.
+     */
+    CompletableFuture<Integer> getStreak(UUID playerUUID);
+    /**
+     * Reads the saved vote party count.
+     *
+     * @return A future with the count, or null if none has been saved.
+     */
+    CompletableFuture<Integer> getVotePartyCount();
+    /**
+     * Saves the vote party count.
+     *
+     * @param count The count.
+     * @return A future completed once the count is written.
+     */
+    CompletableFuture<Void> saveVotePartyCount(int count);
+    /**
+     * Gets the database's dialect.
+     *
+     * @return The dialect.
+     */
+    SqlDialect getDialect();
+    /**
+     * Gets the statements for the database.
+     *
+     * @return The statement registry.
+     */
+    StatementRegistry getStatements();
+    /**
+     * Gets the connection provider, which exposes the pool gauges.
+     *
+     * @return The connection provider.
+     */
+    ConnectionProvider getConnectionProvider();
+    /**
+     * Finishes the operations already submitted, then closes the database connections.
+     */
+    void close();
+}
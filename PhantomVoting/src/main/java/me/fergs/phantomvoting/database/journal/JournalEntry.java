@@ -0,0 +1,62 @@
+package me.fergs.phantomvoting.database.journal;
+
+import java.util.UUID;
+
+/**
+ * A single vote recorded in the journal.
+ */
+public class JournalEntry {
+    private final UUID uuid;
+    private final long timestamp;
+    /**
+     * Creates a new journal entry.
+     *
+     * @param uuid      The UUID of the player who voted.
+     * @param timestamp The time of the vote, in epoch milliseconds.
+     */
+    public JournalEntry(UUID uuid, long timestamp) {
+        this.uuid = uuid;
+        this.timestamp = timestamp;
+    }
+    /**
+     * Parses an entry from a journal line.
+     *
+     * @param line The line, in the form {@code uuid,timestamp}.
+     * @return The entry, or null if the line is malformed (e.g. torn by a crash mid-write).
+     */
+    static JournalEntry parse(String line) {
+        int separator = line.indexOf(',');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return new JournalEntry(UUID.fromString(line.substring(0, separator)), Long.parseLong(line.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    /**
+     * Formats this entry as a journal line, without the line break.
+     *
+     * @return The journal line.
+     */
+    String format() {
+        return uuid + "," + timestamp;
+    }
+    /**
+     * Gets the UUID.
+     *
+     * @return The UUID.
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+    /**
+     * Gets the time of the vote.
+     *
+     * @return The timestamp in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
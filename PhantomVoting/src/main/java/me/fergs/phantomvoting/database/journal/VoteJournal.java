@@ -0,0 +1,188 @@
+package me.fergs.phantomvoting.database.journal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An append-only file journal of votes, split into numbered segments.
+ * The active segment is sealed on every flush, and a sealed segment is deleted once its votes are in the database.
+ * The journal keeps a random id in its directory, under which the database records the highest segment it has
+ * written, so several servers can share one database without mixing up their segments.
+ */
+public class VoteJournal {
+    private static final String SEGMENT_PREFIX = "votes-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String ID_FILE = "journal.id";
+    private final Path directory;
+    private final String id;
+    private final Object lock = new Object();
+    private long nextSequence;
+    private Path activeSegment;
+    private BufferedWriter writer;
+    /**
+     * Creates a new vote journal, creating the directory if needed.
+     *
+     * @param directory The directory the segments are stored in.
+     * @throws IOException If the directory could not be created or read.
+     */
+    public VoteJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.id = readId(directory.resolve(ID_FILE));
+        for (Path segment : listSegments()) {
+            nextSequence = Math.max(nextSequence, sequenceOf(segment) + 1);
+        }
+    }
+    /**
+     * Reads the journal's id, creating one the first time the journal is opened.
+     *
+     * @param idFile The file the id is kept in.
+     * @return The id.
+     * @throws IOException If the id could not be read or written.
+     */
+    private static String readId(Path idFile) throws IOException {
+        if (Files.exists(idFile)) {
+            String id = new String(Files.readAllBytes(idFile), StandardCharsets.UTF_8).trim();
+            if (!id.isEmpty()) {
+                return id;
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        Files.write(idFile, id.getBytes(StandardCharsets.UTF_8));
+        return id;
+    }
+    /**
+     * Gets the journal's id.
+     *
+     * @return The id.
+     */
+    public String getId() {
+        return id;
+    }
+    /**
+     * Numbers new segments after a sequence, so a segment never reuses the number of one the database has already
+     * recorded as written. Needed once the journal has been emptied, since the numbering otherwise restarts from
+     * the segments left on disk.
+     *
+     * @param sequence The highest sequence the database has recorded.
+     */
+    public void advancePast(long sequence) {
+        synchronized (lock) {
+            nextSequence = Math.max(nextSequence, sequence + 1);
+        }
+    }
+    /**
+     * Lists every segment on disk, oldest first.
+     *
+     * @return The segment paths.
+     * @throws IOException If the directory could not be read.
+     */
+    public List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        segments.sort((first, second) -> Long.compare(sequenceOf(first), sequenceOf(second)));
+        return segments;
+    }
+    /**
+     * Reads every entry in a segment, skipping malformed lines.
+     *
+     * @param segment The segment to read.
+     * @return The entries, in the order they were written.
+     * @throws IOException If the segment could not be read.
+     */
+    public List<JournalEntry> read(Path segment) throws IOException {
+        List<String> lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<JournalEntry> entries = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            JournalEntry entry = JournalEntry.parse(line);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+    /**
+     * Appends an entry to the active segment, opening one if needed.
+     * The line is handed to the OS before returning, so it survives the server process crashing.
+     *
+     * @param entry The entry to append.
+     * @throws IOException If the entry could not be written.
+     */
+    public void append(JournalEntry entry) throws IOException {
+        synchronized (lock) {
+            if (writer == null) {
+                activeSegment = directory.resolve(SEGMENT_PREFIX + nextSequence++ + SEGMENT_SUFFIX);
+                writer = Files.newBufferedWriter(activeSegment, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            writer.write(entry.format());
+            writer.newLine();
+            writer.flush();
+        }
+    }
+    /**
+     * Seals the active segment so that new entries go to a fresh one.
+     *
+     * @return The sealed segment, or null if nothing has been written since the last seal.
+     * @throws IOException If the segment could not be closed.
+     */
+    public Path seal() throws IOException {
+        synchronized (lock) {
+            if (writer == null) {
+                return null;
+            }
+            writer.close();
+            writer = null;
+            Path sealed = activeSegment;
+            activeSegment = null;
+            return sealed;
+        }
+    }
+    /**
+     * Deletes a segment once its entries are in the database.
+     *
+     * @param segment The segment to delete.
+     * @throws IOException If the segment could not be deleted.
+     */
+    public void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+    /**
+     * Closes the active segment, leaving it on disk.
+     *
+     * @throws IOException If the segment could not be closed.
+     */
+    public void close() throws IOException {
+        seal();
+    }
+    /**
+     * Gets the sequence number of a segment from its file name.
+     *
+     * @param segment The segment.
+     * @return The sequence number.
+     */
+    public static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
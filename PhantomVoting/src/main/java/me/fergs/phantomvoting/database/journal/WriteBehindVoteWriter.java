@@ -0,0 +1,204 @@
+package me.fergs.phantomvoting.database.journal;
+
+import me.fergs.phantomvoting.utils.ConsoleUtil;
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records votes to the journal and an in-memory counter table straight away,
+ * then writes them to the database in batches from a background thread.
+ */
+public class WriteBehindVoteWriter {
+    private final VoteJournal journal;
+    private final BatchWriter batchWriter;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private final Map<UUID, Integer> pendingVotes = new ConcurrentHashMap<>();
+    private final List<SealedSegment> sealedSegments = new ArrayList<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private List<JournalEntry> activeEntries = new ArrayList<>();
+    private volatile long lastFlushMillis;
+    /**
+     * Creates a new write-behind writer, replaying any segments left over from a previous run.
+     *
+     * @param journal The journal to record votes in.
+     * @param batchWriter Writes a segment's votes to the database and records it as flushed, in one transaction.
+     * @param flushIntervalMillis How often to flush, in milliseconds.
+     * @param batchSize The number of unflushed votes that triggers an early flush.
+     * @throws IOException If the leftover segments could not be read.
+     */
+    public WriteBehindVoteWriter(VoteJournal journal, BatchWriter batchWriter, long flushIntervalMillis, int batchSize) throws IOException {
+        this.journal = journal;
+        this.batchWriter = batchWriter;
+        this.batchSize = Math.max(1, batchSize);
+
+        int replayed = 0;
+        for (Path segment : journal.listSegments()) {
+            List<JournalEntry> entries = journal.read(segment);
+            sealedSegments.add(new SealedSegment(segment, entries));
+            entries.forEach(entry -> pendingVotes.merge(entry.getUuid(), 1, Integer::sum));
+            replayed += entries.size();
+        }
+        if (replayed > 0) {
+            Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eReplaying &f" + replayed + "&e unflushed vote(s) from the journal."));
+            flush();
+        }
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PhantomVoting-Journal-Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(50L, flushIntervalMillis);
+        this.flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    /**
+     * Records a vote in the journal and the in-memory counter table. The vote is counted before its entry
+     * becomes visible to {@link #flush()}, so a flush can never take the count back before it was added.
+     *
+     * @param uuid The UUID of the player who voted.
+     * @return True if the vote was journaled, false if the journal could not be written and the caller must store it directly.
+     */
+    public boolean recordVote(UUID uuid) {
+        JournalEntry entry = new JournalEntry(uuid, System.currentTimeMillis());
+        int unflushed;
+        synchronized (lock) {
+            try {
+                journal.append(entry);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+            pendingVotes.merge(uuid, 1, Integer::sum);
+            activeEntries.add(entry);
+            unflushed = activeEntries.size();
+        }
+
+        if (unflushed >= batchSize && flushQueued.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+        return true;
+    }
+    /**
+     * Writes every sealed segment to the database, oldest first, each in its own transaction that also records
+     * the segment as flushed, then deletes it. If a segment fails, it and the ones after it are kept and retried
+     * on the next flush. A segment that was committed but not deleted before a crash is skipped by the database
+     * when it is replayed, so its votes are never counted twice.
+     */
+    private synchronized void flush() {
+        flushQueued.set(false);
+        try {
+            synchronized (lock) {
+                Path sealed = journal.seal();
+                if (sealed != null) {
+                    sealedSegments.add(new SealedSegment(sealed, activeEntries));
+                    activeEntries = new ArrayList<>();
+                }
+            }
+            if (sealedSegments.isEmpty()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            Iterator<SealedSegment> iterator = sealedSegments.iterator();
+            while (iterator.hasNext()) {
+                SealedSegment segment = iterator.next();
+                batchWriter.write(VoteJournal.sequenceOf(segment.path), segment.entries);
+                iterator.remove();
+                for (JournalEntry entry : segment.entries) {
+                    pendingVotes.computeIfPresent(entry.getUuid(), (uuid, count) -> count > 1 ? count - 1 : null);
+                }
+                try {
+                    journal.delete(segment.path);
+                } catch (IOException e) {
+                    Bukkit.getLogger().warning("[PhantomVoting] Flushed journal segment " + segment.path + " could not be deleted, it will be skipped when the journal is replayed.");
+                }
+            }
+            lastFlushMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } catch (IOException | SQLException e) {
+            Bukkit.getLogger().warning("[PhantomVoting] Failed to flush the vote journal, retrying on the next flush: " + e.getMessage());
+        }
+    }
+    /**
+     * Gets the number of votes recorded for a player that are not yet in the database.
+     *
+     * @param uuid The UUID of the player.
+     * @return The number of unflushed votes.
+     */
+    public int getPendingVotes(UUID uuid) {
+        return pendingVotes.getOrDefault(uuid, 0);
+    }
+    /**
+     * Gets the total number of votes that are not yet in the database.
+     *
+     * @return The number of unflushed votes.
+     */
+    public int getPendingVotes() {
+        int total = 0;
+        for (int count : pendingVotes.values()) {
+            total += count;
+        }
+        return total;
+    }
+    /**
+     * Gets how long the last successful flush took.
+     *
+     * @return The flush duration in milliseconds.
+     */
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+    /**
+     * Stops the background flusher and writes any remaining votes.
+     * Votes that still fail to write stay in the journal and are replayed on the next start.
+     */
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes a sealed segment's votes to the database and records the segment as flushed, in one transaction.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(long sequence, List<JournalEntry> entries) throws SQLException;
+    }
+
+    /**
+     * A sealed segment and the votes it holds.
+     */
+    private static final class SealedSegment {
+        private final Path path;
+        private final List<JournalEntry> entries;
+
+        private SealedSegment(Path path, List<JournalEntry> entries) {
+            this.path = path;
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package me.fergs.phantomvoting.database.migration;
+
+import me.fergs.phantomvoting.database.interfaces.SqlDialect;
+import me.fergs.phantomvoting.utils.ConsoleUtil;
+import org.bukkit.Bukkit;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Stores the player_votes timestamps as numbers instead of text: the period timestamps become epoch
+ * milliseconds and the last vote date becomes an epoch day. Expiry checks can then compare numbers in SQL
+ * and rows no longer need their dates parsed when they are read.
+ * <p>
+ * Neither database can change a column's type and convert its values in place, so the table is rebuilt:
+ * the rows are copied into a new table, converting each value in the server's time zone, which is the
+ * zone the old values were written in, and the new table then replaces the old one.
+ * <p>
+ * MySQL commits each of these schema changes on its own, so a run that stopped part way can leave the copy
+ * behind, or have already swapped the tables without recording the version. Running again starts the copy
+ * over in the first case, and in the second finds player_votes already converted and only drops what the
+ * swap left behind.
+ */
+public class EpochTimestampMigration implements Migration {
+    private static final String[] COUNT_COLUMNS = {"daily_count", "weekly_count", "monthly_count", "yearly_count", "all_time_count", "streak_count"};
+    private static final String[] TIMESTAMP_COLUMNS = {"daily_timestamp", "weekly_timestamp", "monthly_timestamp", "yearly_timestamp"};
+    private static final String INSERT_SQL = "INSERT INTO player_votes_v1 (uuid, daily_count, weekly_count, monthly_count, yearly_count, " +
+            "all_time_count, streak_count, daily_timestamp, weekly_timestamp, monthly_timestamp, yearly_timestamp, last_vote_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Store vote timestamps as epoch milliseconds and the last vote date as an epoch day";
+    }
+
+    @Override
+    public void migrate(Connection connection, SqlDialect dialect) throws SQLException {
+        if (isConverted(connection)) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("DROP TABLE IF EXISTS player_votes_v1");
+                stmt.executeUpdate("DROP TABLE IF EXISTS player_votes_legacy");
+            }
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DROP TABLE IF EXISTS player_votes_v1");
+            stmt.executeUpdate("CREATE TABLE player_votes_v1 (" +
+                    "uuid " + dialect.textType(36) + " PRIMARY KEY," +
+                    "daily_count " + dialect.integerType() + " DEFAULT 0," +
+                    "weekly_count " + dialect.integerType() + " DEFAULT 0," +
+                    "monthly_count " + dialect.integerType() + " DEFAULT 0," +
+                    "yearly_count " + dialect.integerType() + " DEFAULT 0," +
+                    "all_time_count " + dialect.integerType() + " DEFAULT 0," +
+                    "daily_timestamp BIGINT," +
+                    "weekly_timestamp BIGINT," +
+                    "monthly_timestamp BIGINT," +
+                    "yearly_timestamp BIGINT," +
+                    "streak_count " + dialect.integerType() + " DEFAULT 0," +
+                    "last_vote_date " + dialect.integerType() +
+                    ")");
+        }
+
+        int rows = copyRows(connection);
+
+        try (Statement stmt = connection.createStatement()) {
+            dialect.replaceTable(stmt, "player_votes", "player_votes_v1");
+        }
+        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eConverted the timestamps of &f" + rows + " &eplayer records."));
+    }
+    /**
+     * Checks whether player_votes already stores its timestamps as numbers, either because it was created with
+     * the new schema or because an earlier run swapped the tables before it could record the version.
+     *
+     * @param connection The connection to read the metadata from.
+     * @return True if the daily timestamp column is an integer column.
+     * @throws SQLException If the metadata could not be read.
+     */
+    private static boolean isConverted(Connection connection) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, "player_votes", "daily_timestamp")) {
+            return rs.next() && rs.getString("TYPE_NAME").toUpperCase(Locale.ROOT).contains("INT");
+        }
+    }
+    /**
+     * Copies every player record into the new table, converting the timestamps.
+     *
+     * @param connection The connection to copy on.
+     * @return The number of records copied.
+     * @throws SQLException If a record could not be read or written.
+     */
+    private int copyRows(Connection connection) throws SQLException {
+        int rows = 0;
+        int unreadable = 0;
+        try (Statement select = connection.createStatement();
+             ResultSet rs = select.executeQuery("SELECT * FROM player_votes");
+             PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            while (rs.next()) {
+                int index = 1;
+                insert.setString(index++, rs.getString("uuid"));
+                for (String column : COUNT_COLUMNS) {
+                    int count = rs.getInt(column);
+                    if (rs.wasNull()) {
+                        insert.setNull(index++, Types.INTEGER);
+                    } else {
+                        insert.setInt(index++, count);
+                    }
+                }
+                for (String column : TIMESTAMP_COLUMNS) {
+                    Long millis = toEpochMillis(rs.getString(column));
+                    if (millis == null) {
+                        insert.setNull(index++, Types.BIGINT);
+                    } else {
+                        insert.setLong(index++, millis);
+                    }
+                }
+                String lastVoteDate = rs.getString("last_vote_date");
+                Long epochDay = toEpochDay(lastVoteDate);
+                if (epochDay == null) {
+                    insert.setNull(index, Types.INTEGER);
+                } else {
+                    insert.setLong(index, epochDay);
+                }
+                if (lastVoteDate != null && epochDay == null) {
+                    unreadable++;
+                }
+                insert.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        if (unreadable > 0) {
+            Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cCould not read the last vote date of &f" + unreadable + " &cplayer records, their streaks will restart."));
+        }
+        return rows;
+    }
+    /**
+     * Converts a stored timestamp to epoch milliseconds. SQLite stored ISO timestamps, sometimes only a date,
+     * and MySQL returns its DATETIME values with a space instead of the 'T'.
+     *
+     * @param value The stored value, may be null.
+     * @return The epoch milliseconds, or null if there was no value or it could not be read.
+     */
+    private Long toEpochMillis(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (isNumber(value)) {
+            return Long.parseLong(value);
+        }
+        try {
+            String timestamp = value.replace(' ', 'T');
+            LocalDateTime dateTime = timestamp.length() == 10
+                    ? LocalDate.parse(timestamp).atStartOfDay()
+                    : LocalDateTime.parse(timestamp);
+            return dateTime.atZone(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    /**
+     * Converts a stored date, or the date part of a stored timestamp, to an epoch day.
+     *
+     * @param value The stored value, may be null.
+     * @return The epoch day, or null if there was no value or it could not be read.
+     */
+    private Long toEpochDay(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (isNumber(value)) {
+            return Long.parseLong(value);
+        }
+        try {
+            return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    /**
+     * Checks whether a stored value is already a number, as it is in tables created with the new schema.
+     *
+     * @param value The stored value.
+     * @return True if the value is a whole number.
+     */
+    private static boolean isNumber(String value) {
+        for (int i = value.charAt(0) == '-' ? 1 : 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return value.length() > (value.charAt(0) == '-' ? 1 : 0);
+    }
+}
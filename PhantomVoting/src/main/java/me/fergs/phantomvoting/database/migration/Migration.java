@@ -0,0 +1,35 @@
+package me.fergs.phantomvoting.database.migration;
+
+import me.fergs.phantomvoting.database.interfaces.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A single, numbered change to the database schema. Migrations are applied in version order and each
+ * version is applied at most once, as recorded in the schema_version table.
+ */
+public interface Migration {
+    /**
+     * Gets the version this migration brings the schema to. Versions start at 1 and must be unique.
+     *
+     * @return The version.
+     */
+    int getVersion();
+    /**
+     * Gets a short description of the change, recorded alongside the version.
+     *
+     * @return The description.
+     */
+    String getDescription();
+    /**
+     * Applies the change.
+     * On SQLite this runs in the same transaction that records the version, so a failed migration leaves
+     * nothing behind. MySQL commits schema changes as they are made, so a migration must detect a run that stopped part way and finish it.
+     *
+     * @param connection The connection to apply the change on.
+     * @param dialect The database's dialect.
+     * @throws SQLException If the change could not be applied.
+     */
+    void migrate(Connection connection, SqlDialect dialect) throws SQLException;
+}
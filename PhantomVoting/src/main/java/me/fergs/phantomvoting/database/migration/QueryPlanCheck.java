@@ -0,0 +1,85 @@
+package me.fergs.phantomvoting.database.migration;
+
+import me.fergs.phantomvoting.database.interfaces.SqlDialect;
+import me.fergs.phantomvoting.utils.ConsoleUtil;
+import org.bukkit.Bukkit;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Asks the database how it would run a set of queries and warns about any that would read a whole table
+ * instead of using an index, which usually means an index is missing or has been dropped by hand.
+ * <p>
+ * The queries are checked with literal values rather than parameters, because MySQL cannot explain a
+ * statement with unbound parameters. MySQL may also prefer a scan on a table with only a few rows,
+ * so a warning on a new server is not necessarily a problem.
+ */
+public class QueryPlanCheck {
+    private final SqlDialect dialect;
+    private final Map<String, String> queries = new LinkedHashMap<>();
+    /**
+     * Creates a new query plan check.
+     *
+     * @param dialect The database's dialect.
+     */
+    public QueryPlanCheck(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+    /**
+     * Adds a query that should be answered from an index.
+     *
+     * @param name A short name for the query, used in the warning.
+     * @param sql The query, with literal values in place of parameters.
+     * @return This check.
+     */
+    public QueryPlanCheck expect(String name, String sql) {
+        queries.put(name, sql);
+        return this;
+    }
+    /**
+     * Explains every query and warns about those that scan a table.
+     *
+     * @param connection The connection to explain the queries on, left open.
+     * @return The number of queries that scan a table.
+     */
+    public int run(Connection connection) {
+        int scans = 0;
+        try (Statement stmt = connection.createStatement()) {
+            for (Map.Entry<String, String> query : queries.entrySet()) {
+                String scannedTable = findScan(stmt, query.getValue());
+                if (scannedTable != null) {
+                    scans++;
+                    Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cThe &f" + query.getKey()
+                            + " &cquery reads the whole &f" + scannedTable + " &ctable instead of using an index."));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return scans;
+    }
+    /**
+     * Explains a query and finds the first table it would scan.
+     *
+     * @param stmt The statement to explain the query with.
+     * @param sql The query.
+     * @return The scanned table, or null if every table is read through an index.
+     * @throws SQLException If the query could not be explained.
+     */
+    private String findScan(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(dialect.explainSql(sql))) {
+            while (rs.next()) {
+                String scannedTable = dialect.findScan(rs);
+                if (scannedTable != null) {
+                    return scannedTable;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,172 @@
+package me.fergs.phantomvoting.database.migration;
+
+import me.fergs.phantomvoting.database.interfaces.SqlDialect;
+import me.fergs.phantomvoting.utils.ConsoleUtil;
+import org.bukkit.Bukkit;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Brings the database schema up to date by applying every migration newer than the version recorded
+ * in the schema_version table, oldest first.
+ */
+public class SchemaMigrator {
+    private static final String SELECT_VERSION_SQL = "SELECT MAX(version) FROM schema_version";
+    private static final String INSERT_VERSION_SQL = "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)";
+    private final SqlDialect dialect;
+    private final List<Migration> migrations = new ArrayList<>();
+    private final Map<String, List<TableIndex>> indexes = new LinkedHashMap<>();
+    /**
+     * Creates a new schema migrator.
+     *
+     * @param dialect The database's dialect.
+     */
+    public SchemaMigrator(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+    /**
+     * Registers a migration.
+     *
+     * @param migration The migration.
+     * @return This migrator.
+     */
+    public SchemaMigrator register(Migration migration) {
+        for (Migration registered : migrations) {
+            if (registered.getVersion() == migration.getVersion()) {
+                throw new IllegalArgumentException("Duplicate schema version " + migration.getVersion());
+            }
+        }
+        migrations.add(migration);
+        return this;
+    }
+    /**
+     * Declares the indexes a table should have. After migrating, any missing index is created, and any other index
+     * on the table whose name starts with "idx_" and the table name is dropped, so the table's indexes always match
+     * the declared ones. Declaring no indexes drops every managed index on the table.
+     *
+     * @param table The table.
+     * @param tableIndexes The indexes the table should have.
+     * @return This migrator.
+     */
+    public SchemaMigrator indexes(String table, List<TableIndex> tableIndexes) {
+        indexes.put(table, new ArrayList<>(tableIndexes));
+        return this;
+    }
+    /**
+     * Applies every registered migration newer than the current schema version, stopping at the first one that fails,
+     * then brings the declared indexes in sync. Runs on the caller's connection, so migrating never needs a second
+     * connection from a pool the caller is already holding one of.
+     *
+     * @param connection The connection to migrate on, left open.
+     * @return The schema version after migrating.
+     * @throws SQLException If a migration failed, in which case the schema is left at the last version that succeeded.
+     */
+    public int migrate(Connection connection) throws SQLException {
+        migrations.sort(Comparator.comparingInt(Migration::getVersion));
+        createVersionTable(connection);
+        int version = getVersion(connection);
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= version) {
+                continue;
+            }
+            apply(connection, migration);
+            version = migration.getVersion();
+            Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eMigrated the database to version &f" + version + "&e: " + migration.getDescription()));
+        }
+        for (Map.Entry<String, List<TableIndex>> entry : indexes.entrySet()) {
+            syncIndexes(connection, entry.getKey(), entry.getValue());
+        }
+        return version;
+    }
+    /**
+     * Applies a single migration and records its version in one transaction.
+     * On SQLite a failed migration leaves nothing behind. MySQL commits every CREATE, RENAME or DROP as soon as
+     * it runs, so only the row changes are rolled back there, and the migration finds and finishes its own
+     * partial state when it is applied again on the next start.
+     *
+     * @param connection The connection to migrate on.
+     * @param migration The migration.
+     * @throws SQLException If the migration failed, in which case the row changes since its last schema change are rolled back.
+     */
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            migration.migrate(connection, dialect);
+            try (PreparedStatement pstmt = connection.prepareStatement(INSERT_VERSION_SQL)) {
+                pstmt.setInt(1, migration.getVersion());
+                pstmt.setString(2, migration.getDescription());
+                pstmt.setLong(3, System.currentTimeMillis());
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    /**
+     * Creates the declared indexes a table is missing and drops the managed ones that are no longer declared.
+     *
+     * @param connection The connection to change the indexes on.
+     * @param table The table.
+     * @param tableIndexes The indexes the table should have.
+     * @throws SQLException If an index could not be read, created or dropped.
+     */
+    private void syncIndexes(Connection connection, String table, List<TableIndex> tableIndexes) throws SQLException {
+        String prefix = "idx_" + table + "_";
+        Set<String> existing = new HashSet<>();
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null && name.toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                    existing.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        try (Statement stmt = connection.createStatement()) {
+            for (TableIndex index : tableIndexes) {
+                if (!existing.remove(index.getName().toLowerCase(Locale.ROOT))) {
+                    stmt.executeUpdate(index.getCreateSql());
+                    Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eCreated the &f" + index.getName() + " &eindex."));
+                }
+            }
+            for (String name : existing) {
+                stmt.executeUpdate(dialect.dropIndexSql(name, table));
+                Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eDropped the &f" + name + " &eindex."));
+            }
+        }
+    }
+    /**
+     * Creates the schema_version table if it does not exist yet.
+     *
+     * @param connection The connection to create the table on.
+     * @throws SQLException If the table could not be created.
+     */
+    private void createVersionTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version " + dialect.integerType() + " PRIMARY KEY," +
+                    "description " + dialect.textType(255) + "," +
+                    "applied_at BIGINT NOT NULL" +
+                    ")");
+        }
+    }
+    /**
+     * Gets the current schema version.
+     *
+     * @param connection The connection to read the version with.
+     * @return The version, or 0 if no migration has been applied.
+     * @throws SQLException If the version could not be read.
+     */
+    private int getVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_VERSION_SQL)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
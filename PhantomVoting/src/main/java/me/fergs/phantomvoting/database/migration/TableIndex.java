@@ -0,0 +1,47 @@
+package me.fergs.phantomvoting.database.migration;
+
+/**
+ * An index the schema should have. Indexes are matched by name, so an index whose columns change
+ * must be given a new name for the old one to be replaced.
+ */
+public class TableIndex {
+    private final String name;
+    private final String table;
+    private final String columns;
+    /**
+     * Creates a new index definition.
+     *
+     * @param name The index name, which must start with "idx_" and the table name, for example "idx_player_votes_all_time".
+     * @param table The table the index is on.
+     * @param columns The indexed columns as they appear in CREATE INDEX, for example "all_time_count DESC, uuid".
+     */
+    public TableIndex(String name, String table, String columns) {
+        this.name = name;
+        this.table = table;
+        this.columns = columns;
+    }
+    /**
+     * Gets the index name.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+    /**
+     * Gets the table the index is on.
+     *
+     * @return The table.
+     */
+    public String getTable() {
+        return table;
+    }
+    /**
+     * Gets the statement that creates the index.
+     *
+     * @return The CREATE INDEX statement.
+     */
+    public String getCreateSql() {
+        return "CREATE INDEX " + name + " ON " + table + " (" + columns + ")";
+    }
+}
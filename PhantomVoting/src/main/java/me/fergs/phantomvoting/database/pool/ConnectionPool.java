@@ -0,0 +1,270 @@
+package me.fergs.phantomvoting.database.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of JDBC connections with borrow-time validation and idle eviction.
+ */
+public class ConnectionPool {
+    /**
+     * Connections returned more recently than this are handed out again without a validation round trip.
+     */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private final String name;
+    private final ConnectionFactory connectionFactory;
+    private final int maximumPoolSize;
+    private final int minimumIdle;
+    private final long connectionTimeoutMillis;
+    private final long idleTimeoutNanos;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledEntry> idleConnections = new LinkedBlockingDeque<>();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final PoolMetrics metrics;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new connection pool.
+     *
+     * @param name The pool name, used for the eviction thread.
+     * @param connectionFactory The factory that opens physical connections.
+     * @param maximumPoolSize The maximum number of connections, borrowed or idle.
+     * @param minimumIdle The number of idle connections kept open during eviction.
+     * @param connectionTimeoutMillis How long to wait for a free connection.
+     * @param idleTimeoutMillis How long a connection may sit idle before being closed.
+     * @param validationTimeoutSeconds The timeout passed to {@link Connection#isValid(int)}.
+     * @param statementCacheSize The prepared statements kept open per connection, 0 to disable the cache.
+     */
+    public ConnectionPool(String name, ConnectionFactory connectionFactory, int maximumPoolSize, int minimumIdle,
+                          long connectionTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds, int statementCacheSize) {
+        this(name, connectionFactory, new PoolMetrics(), maximumPoolSize, minimumIdle,
+                connectionTimeoutMillis, idleTimeoutMillis, validationTimeoutSeconds, statementCacheSize);
+    }
+    /**
+     * Creates a new connection pool that records into a shared set of metrics.
+     *
+     * @param name The pool name, used for the eviction thread.
+     * @param connectionFactory The factory that opens physical connections.
+     * @param metrics The metrics to record borrow wait times into.
+     * @param maximumPoolSize The maximum number of connections, borrowed or idle.
+     * @param minimumIdle The number of idle connections kept open during eviction.
+     * @param connectionTimeoutMillis How long to wait for a free connection.
+     * @param idleTimeoutMillis How long a connection may sit idle before being closed.
+     * @param validationTimeoutSeconds The timeout passed to {@link Connection#isValid(int)}.
+     * @param statementCacheSize The prepared statements kept open per connection, 0 to disable the cache.
+     */
+    public ConnectionPool(String name, ConnectionFactory connectionFactory, PoolMetrics metrics, int maximumPoolSize, int minimumIdle,
+                          long connectionTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds, int statementCacheSize) {
+        this.name = name;
+        this.metrics = metrics;
+        this.connectionFactory = connectionFactory;
+        this.maximumPoolSize = Math.max(1, maximumPoolSize);
+        this.minimumIdle = Math.max(0, Math.min(minimumIdle, this.maximumPoolSize));
+        this.connectionTimeoutMillis = Math.max(250L, connectionTimeoutMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10_000L, idleTimeoutMillis));
+        this.validationTimeoutSeconds = Math.max(1, validationTimeoutSeconds);
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(this.maximumPoolSize, true);
+
+        long evictionPeriod = Math.max(5_000L, TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) / 2);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PhantomVoting-" + name + "-Evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+    /**
+     * Borrows a connection, waiting up to the connection timeout for one to become free.
+     *
+     * @return A pooled connection, which returns to the pool when closed.
+     * @throws SQLException If the pool is closed, exhausted, or a connection could not be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("The " + name + " pool has been closed.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                metrics.recordTimeout();
+                throw new SQLTimeoutException("Timed out after " + connectionTimeoutMillis + "ms waiting for a " + name + " connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a " + name + " connection.", e);
+        }
+
+        try {
+            PooledEntry entry = takeValidEntry();
+            metrics.recordBorrow(System.nanoTime() - start);
+            activeConnections.incrementAndGet();
+            return PooledConnectionHandler.wrap(entry.connection, entry.statementCache, () -> release(entry));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    /**
+     * Takes an idle connection that is still usable, or opens a new one.
+     *
+     * @return A usable pool entry.
+     * @throws SQLException If a new connection could not be opened.
+     */
+    private PooledEntry takeValidEntry() throws SQLException {
+        PooledEntry entry;
+        while ((entry = idleConnections.pollFirst()) != null) {
+            long idleNanos = System.nanoTime() - entry.lastReturned;
+            if (idleNanos > idleTimeoutNanos) {
+                closeQuietly(entry.connection);
+                continue;
+            }
+            if (idleNanos > VALIDATION_BYPASS_NANOS && !isValid(entry.connection)) {
+                closeQuietly(entry.connection);
+                continue;
+            }
+            return entry;
+        }
+        Connection connection = connectionFactory.create();
+        return new PooledEntry(connection, statementCacheSize > 0 ? new StatementCache(connection, statementCacheSize, metrics) : null);
+    }
+    /**
+     * Returns a borrowed connection to the pool.
+     *
+     * @param entry The pool entry being returned.
+     */
+    private void release(PooledEntry entry) {
+        activeConnections.decrementAndGet();
+        try {
+            if (closed || entry.connection.isClosed()) {
+                closeQuietly(entry.connection);
+                return;
+            }
+            if (!entry.connection.getAutoCommit()) {
+                entry.connection.rollback();
+                entry.connection.setAutoCommit(true);
+            }
+            entry.lastReturned = System.nanoTime();
+            idleConnections.offerFirst(entry);
+        } catch (SQLException e) {
+            closeQuietly(entry.connection);
+        } finally {
+            permits.release();
+        }
+    }
+    /**
+     * Closes connections that have been idle for longer than the idle timeout,
+     * keeping at least the minimum idle count open.
+     */
+    private void evictIdleConnections() {
+        long now = System.nanoTime();
+        Iterator<PooledEntry> iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext() && idleConnections.size() > minimumIdle) {
+            PooledEntry entry = iterator.next();
+            if (now - entry.lastReturned > idleTimeoutNanos && idleConnections.remove(entry)) {
+                closeQuietly(entry.connection);
+            }
+        }
+    }
+    /**
+     * Checks whether a connection is still alive.
+     *
+     * @param connection The connection to check.
+     * @return True if the connection is usable.
+     */
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    /**
+     * Closes a connection, ignoring any errors.
+     *
+     * @param connection The connection to close.
+     */
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+    /**
+     * Closes the pool and every idle connection. Borrowed connections are closed when returned.
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idleConnections.pollFirst()) != null) {
+            closeQuietly(entry.connection);
+        }
+    }
+    /**
+     * Gets the number of borrowed connections.
+     *
+     * @return The active connection count.
+     */
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+    /**
+     * Gets the number of idle connections.
+     *
+     * @return The idle connection count.
+     */
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+    /**
+     * Gets the maximum pool size.
+     *
+     * @return The maximum pool size.
+     */
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+    /**
+     * Gets the pool's wait time metrics.
+     *
+     * @return The metrics.
+     */
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Opens new physical connections for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * A physical connection, its statement cache and the time it was last returned.
+     */
+    private static final class PooledEntry {
+        private final Connection connection;
+        private final StatementCache statementCache;
+        private volatile long lastReturned;
+
+        private PooledEntry(Connection connection, StatementCache statementCache) {
+            this.connection = connection;
+            this.statementCache = statementCache;
+            this.lastReturned = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package me.fergs.phantomvoting.database.pool;
+
+import me.fergs.phantomvoting.database.interfaces.ConnectionProvider;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Provides MySQL connections from a bounded, validated pool.
+ * Reads and writes share the same pool, as the server handles concurrency itself.
+ * Statements are prepared on the server, so each connection's cached statements are parsed and planned
+ * once, and later executions only send their parameters.
+ */
+public class MySQLConnectionProvider implements ConnectionProvider {
+    private final ConnectionPool pool;
+    /**
+     * Creates a new MySQL connection provider.
+     *
+     * @param databaseUrl The JDBC url.
+     * @param username The database username.
+     * @param password The database password.
+     * @param poolSection The pool settings, may be null for defaults.
+     */
+    public MySQLConnectionProvider(String databaseUrl, String username, String password, ConfigurationSection poolSection) {
+        int statementCacheSize = poolSection != null ? poolSection.getInt("statement-cache-size", 64) : 64;
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        properties.setProperty("useServerPrepStmts", String.valueOf(poolSection == null || poolSection.getBoolean("server-prepared-statements", true)));
+        properties.setProperty("cachePrepStmts", "true");
+        properties.setProperty("prepStmtCacheSize", String.valueOf(Math.max(25, statementCacheSize)));
+        properties.setProperty("prepStmtCacheSqlLimit", "2048");
+        this.pool = new ConnectionPool("MySQL",
+                () -> DriverManager.getConnection(databaseUrl, properties),
+                poolSection != null ? poolSection.getInt("maximum-pool-size", 10) : 10,
+                poolSection != null ? poolSection.getInt("minimum-idle", 2) : 2,
+                poolSection != null ? poolSection.getLong("connection-timeout", 5000L) : 5000L,
+                poolSection != null ? poolSection.getLong("idle-timeout", 600000L) : 600000L,
+                poolSection != null ? poolSection.getInt("validation-timeout", 3) : 3,
+                statementCacheSize);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    @Override
+    public Connection getReadConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return pool.getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return pool.getIdleConnections();
+    }
+
+    @Override
+    public double getAverageWaitMillis() {
+        return pool.getMetrics().getAverageWaitMillis();
+    }
+
+    @Override
+    public double getMaxWaitMillis() {
+        return pool.getMetrics().getMaxWaitMillis();
+    }
+
+    @Override
+    public double getStatementHitRatio() {
+        return pool.getMetrics().getStatementHitRatio();
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
@@ -0,0 +1,87 @@
+package me.fergs.phantomvoting.database.pool;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long callers wait to borrow a connection and how often prepared statements are reused.
+ */
+public class PoolMetrics {
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0L);
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    /**
+     * Records a successful borrow.
+     *
+     * @param waitNanos The time spent waiting, in nanoseconds.
+     */
+    public void recordBorrow(long waitNanos) {
+        borrowCount.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+    }
+    /**
+     * Records a borrow that timed out.
+     */
+    public void recordTimeout() {
+        timeoutCount.increment();
+    }
+    /**
+     * Records a prepared statement reused from a connection's statement cache.
+     */
+    public void recordStatementHit() {
+        statementHits.increment();
+    }
+    /**
+     * Records a prepared statement that had to be prepared.
+     */
+    public void recordStatementMiss() {
+        statementMisses.increment();
+    }
+    /**
+     * Gets the number of successful borrows.
+     *
+     * @return The borrow count.
+     */
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+    /**
+     * Gets the number of borrows that timed out.
+     *
+     * @return The timeout count.
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+    /**
+     * Gets the average wait time.
+     *
+     * @return The average wait time in milliseconds.
+     */
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.sum();
+        return borrows == 0 ? 0 : totalWaitNanos.sum() / (double) borrows / 1_000_000D;
+    }
+    /**
+     * Gets the maximum wait time.
+     *
+     * @return The maximum wait time in milliseconds.
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000D;
+    }
+    /**
+     * Gets the share of prepared statements reused from a statement cache.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if no statement has been prepared.
+     */
+    public double getStatementHitRatio() {
+        long hits = statementHits.sum();
+        long total = hits + statementMisses.sum();
+        return total == 0 ? 0 : hits / (double) total;
+    }
+}
@@ -0,0 +1,78 @@
+package me.fergs.phantomvoting.database.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps a physical connection so that closing it hands it back to its owner instead,
+ * and so that statements are prepared through the connection's statement cache.
+ */
+class PooledConnectionHandler implements InvocationHandler {
+    private final Connection delegate;
+    private final StatementCache statementCache;
+    private final Runnable releaseAction;
+    private boolean released;
+    /**
+     * Creates a new handler.
+     *
+     * @param delegate The physical connection.
+     * @param statementCache The connection's statement cache, or null to prepare every statement.
+     * @param releaseAction The action to run once the connection is closed.
+     */
+    private PooledConnectionHandler(Connection delegate, StatementCache statementCache, Runnable releaseAction) {
+        this.delegate = delegate;
+        this.statementCache = statementCache;
+        this.releaseAction = releaseAction;
+    }
+    /**
+     * Wraps a physical connection in a releasing proxy.
+     *
+     * @param delegate The physical connection.
+     * @param statementCache The connection's statement cache, or null to prepare every statement.
+     * @param releaseAction The action to run once the proxy is closed.
+     * @return The proxied connection.
+     */
+    static Connection wrap(Connection delegate, StatementCache statementCache, Runnable releaseAction) {
+        return (Connection) Proxy.newProxyInstance(
+                PooledConnectionHandler.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(delegate, statementCache, releaseAction));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                if (!released) {
+                    released = true;
+                    releaseAction.run();
+                }
+                return null;
+            case "isClosed":
+                return released || delegate.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Pooled" + delegate;
+            default:
+                break;
+        }
+        if (released) {
+            throw new SQLException("Connection has already been returned to the pool.");
+        }
+        if (statementCache != null && method.getName().equals("prepareStatement") && args.length == 1) {
+            return statementCache.prepare((String) args[0]);
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
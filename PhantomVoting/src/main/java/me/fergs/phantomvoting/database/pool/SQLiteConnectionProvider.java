@@ -0,0 +1,176 @@
+package me.fergs.phantomvoting.database.pool;
+
+import me.fergs.phantomvoting.database.interfaces.ConnectionProvider;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Provides SQLite connections as one serialized writer plus a small pool of read-only readers.
+ * SQLite only allows a single writer at a time, so writes queue on a fair lock in-process
+ * rather than contending for the database file lock.
+ */
+public class SQLiteConnectionProvider implements ConnectionProvider {
+    /**
+     * The sqlite-jdbc open mode flag for a read-only connection.
+     */
+    private static final String OPEN_READONLY = "1";
+    private final String databaseUrl;
+    private final long connectionTimeoutMillis;
+    private final SQLiteProfile profile;
+    private final SQLiteMaintenance maintenance;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private final PoolMetrics metrics = new PoolMetrics();
+    private final ConnectionPool readerPool;
+    private final int statementCacheSize;
+    private Connection writerConnection;
+    private StatementCache writerStatementCache;
+    private volatile boolean closed;
+    /**
+     * Creates a new SQLite connection provider.
+     *
+     * @param databaseUrl The JDBC url.
+     * @param poolSection The pool settings, may be null for defaults.
+     * @param sqliteSection The SQLite settings, may be null for defaults.
+     */
+    public SQLiteConnectionProvider(String databaseUrl, ConfigurationSection poolSection, ConfigurationSection sqliteSection) {
+        this.databaseUrl = databaseUrl;
+        this.connectionTimeoutMillis = poolSection != null ? poolSection.getLong("connection-timeout", 5000L) : 5000L;
+        this.profile = new SQLiteProfile(sqliteSection, (int) connectionTimeoutMillis);
+        this.statementCacheSize = poolSection != null ? poolSection.getInt("statement-cache-size", 64) : 64;
+        this.readerPool = new ConnectionPool("SQLite-Reader", this::openReader, metrics,
+                poolSection != null ? poolSection.getInt("reader-connections", 4) : 4,
+                poolSection != null ? poolSection.getInt("minimum-idle", 2) : 2,
+                connectionTimeoutMillis,
+                poolSection != null ? poolSection.getLong("idle-timeout", 600000L) : 600000L,
+                poolSection != null ? poolSection.getInt("validation-timeout", 3) : 3,
+                statementCacheSize);
+        this.maintenance = new SQLiteMaintenance(this, profile);
+    }
+    /**
+     * Borrows the writer connection, waiting for any other writer to finish first.
+     * The lock is re-entrant, so a thread already holding the writer gets the same connection back.
+     *
+     * @return The writer connection, which releases the lock when closed.
+     * @throws SQLException If the writer could not be obtained in time.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("The SQLite connection provider has been closed.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                metrics.recordTimeout();
+                throw new SQLTimeoutException("Timed out after " + connectionTimeoutMillis + "ms waiting for the SQLite writer.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the SQLite writer.", e);
+        }
+
+        try {
+            if (writerConnection == null || writerConnection.isClosed()) {
+                writerConnection = openWriter();
+                writerStatementCache = statementCacheSize > 0 ? new StatementCache(writerConnection, statementCacheSize, metrics) : null;
+            }
+            metrics.recordBorrow(System.nanoTime() - start);
+            return PooledConnectionHandler.wrap(writerConnection, writerStatementCache, this::releaseWriter);
+        } catch (SQLException | RuntimeException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getReadConnection() throws SQLException {
+        return readerPool.borrow();
+    }
+    /**
+     * Releases the writer lock, restoring auto-commit once the outermost holder is done.
+     */
+    private void releaseWriter() {
+        try {
+            if (writerLock.getHoldCount() == 1 && !writerConnection.isClosed() && !writerConnection.getAutoCommit()) {
+                writerConnection.rollback();
+                writerConnection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+    /**
+     * Opens the writer connection.
+     *
+     * @return The physical writer connection.
+     * @throws SQLException If the connection could not be opened.
+     */
+    private Connection openWriter() throws SQLException {
+        Properties properties = new Properties();
+        profile.applyToWriter(properties);
+        return DriverManager.getConnection(databaseUrl, properties);
+    }
+    /**
+     * Opens a read-only reader connection.
+     *
+     * @return The physical reader connection.
+     * @throws SQLException If the connection could not be opened.
+     */
+    private Connection openReader() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("open_mode", OPEN_READONLY);
+        profile.applyToReader(properties);
+        return DriverManager.getConnection(databaseUrl, properties);
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return readerPool.getActiveConnections() + (writerLock.isLocked() ? 1 : 0);
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return readerPool.getIdleConnections() + (writerLock.isLocked() || writerConnection == null ? 0 : 1);
+    }
+
+    @Override
+    public double getAverageWaitMillis() {
+        return metrics.getAverageWaitMillis();
+    }
+
+    @Override
+    public double getMaxWaitMillis() {
+        return metrics.getMaxWaitMillis();
+    }
+
+    @Override
+    public double getStatementHitRatio() {
+        return metrics.getStatementHitRatio();
+    }
+
+    @Override
+    public void close() {
+        maintenance.close();
+        closed = true;
+        readerPool.close();
+        writerLock.lock();
+        try {
+            if (writerConnection != null && !writerConnection.isClosed()) {
+                writerConnection.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+}
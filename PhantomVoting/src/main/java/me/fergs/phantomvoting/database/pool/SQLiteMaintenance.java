@@ -0,0 +1,79 @@
+package me.fergs.phantomvoting.database.pool;
+
+import me.fergs.phantomvoting.database.interfaces.ConnectionProvider;
+import org.bukkit.Bukkit;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs SQLite's housekeeping from a background thread. WAL checkpoints copy the write-ahead log back into
+ * the database file and truncate it, so the log does not grow during vote rushes and readers do not have to
+ * search a long log. PRAGMA optimize refreshes the query planner's statistics for tables that have changed.
+ * Both run on the writer connection, so they wait for, rather than interrupt, a vote being written.
+ */
+public class SQLiteMaintenance {
+    private final ConnectionProvider connectionProvider;
+    private final ScheduledExecutorService executor;
+    /**
+     * Creates a new maintenance task and starts it.
+     *
+     * @param connectionProvider The provider to borrow the writer from.
+     * @param profile The SQLite profile with the maintenance intervals.
+     */
+    public SQLiteMaintenance(ConnectionProvider connectionProvider, SQLiteProfile profile) {
+        this.connectionProvider = connectionProvider;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PhantomVoting-SQLite-Maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkpointInterval = profile.getCheckpointIntervalMillis();
+        if (profile.isWal() && checkpointInterval > 0) {
+            executor.scheduleWithFixedDelay(this::checkpoint, checkpointInterval, checkpointInterval, TimeUnit.MILLISECONDS);
+        }
+        long optimizeInterval = profile.getOptimizeIntervalMillis();
+        if (optimizeInterval > 0) {
+            executor.scheduleWithFixedDelay(this::optimize, optimizeInterval, optimizeInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+    /**
+     * Checkpoints the WAL and truncates it. If a reader is still using the log the checkpoint is only
+     * partial, and the rest is copied on the next one.
+     */
+    private void checkpoint() {
+        try (Connection connection = connectionProvider.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        } catch (SQLException e) {
+            Bukkit.getLogger().warning("[PhantomVoting] Failed to checkpoint the SQLite WAL: " + e.getMessage());
+        }
+    }
+    /**
+     * Refreshes the query planner's statistics where they are out of date.
+     */
+    private void optimize() {
+        try (Connection connection = connectionProvider.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA optimize");
+        } catch (SQLException e) {
+            Bukkit.getLogger().warning("[PhantomVoting] Failed to optimize the SQLite database: " + e.getMessage());
+        }
+    }
+    /**
+     * Stops the maintenance and runs a last PRAGMA optimize, as SQLite recommends before closing a connection.
+     */
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        optimize();
+    }
+}
@@ -0,0 +1,108 @@
+package me.fergs.phantomvoting.database.pool;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * The pragmas SQLite connections are opened with. The defaults favour throughput over durability of the
+ * very last commits: in WAL mode with synchronous=NORMAL a commit is appended to the WAL without an fsync,
+ * and the WAL is only synced when it is checkpointed, so a power loss can undo the last few votes but
+ * never corrupts the database. A process crash loses nothing.
+ */
+public class SQLiteProfile {
+    private static final List<String> JOURNAL_MODES = Arrays.asList("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final List<String> SYNCHRONOUS_MODES = Arrays.asList("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final List<String> TEMP_STORES = Arrays.asList("DEFAULT", "FILE", "MEMORY");
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+    private final long checkpointIntervalMillis;
+    private final long optimizeIntervalMillis;
+    /**
+     * Reads the profile from the SQLite settings.
+     *
+     * @param section The SQLite settings, may be null for defaults.
+     * @param defaultBusyTimeoutMillis The busy timeout to use when none is configured.
+     */
+    public SQLiteProfile(ConfigurationSection section, int defaultBusyTimeoutMillis) {
+        this.journalMode = option(section, "journal-mode", "WAL", JOURNAL_MODES);
+        this.synchronous = option(section, "synchronous", "NORMAL", SYNCHRONOUS_MODES);
+        this.mmapSize = section != null ? Math.max(0L, section.getLong("mmap-size", 268435456L)) : 268435456L;
+        this.cacheSize = section != null ? section.getInt("cache-size", -16384) : -16384;
+        this.tempStore = option(section, "temp-store", "MEMORY", TEMP_STORES);
+        this.busyTimeoutMillis = section != null ? section.getInt("busy-timeout", defaultBusyTimeoutMillis) : defaultBusyTimeoutMillis;
+        this.checkpointIntervalMillis = section != null ? section.getLong("checkpoint-interval", 300000L) : 300000L;
+        this.optimizeIntervalMillis = section != null ? section.getLong("optimize-interval", 3600000L) : 3600000L;
+    }
+    /**
+     * Reads one of a fixed set of values, falling back to the default for anything else.
+     *
+     * @param section The SQLite settings, may be null.
+     * @param key The setting.
+     * @param defaultValue The default value.
+     * @param allowed The allowed values, in upper case.
+     * @return The value in upper case.
+     */
+    private static String option(ConfigurationSection section, String key, String defaultValue, List<String> allowed) {
+        String value = section != null ? section.getString(key, defaultValue).toUpperCase(Locale.ROOT) : defaultValue;
+        if (!allowed.contains(value)) {
+            Bukkit.getLogger().warning("[PhantomVoting] Unknown SQLite " + key + " '" + value + "', using " + defaultValue + ". Expected one of " + allowed + ".");
+            return defaultValue;
+        }
+        return value;
+    }
+    /**
+     * Adds the pragmas for the writer connection. The journal mode is stored in the database file,
+     * so only the writer sets it and readers pick it up from the file.
+     *
+     * @param properties The connection properties.
+     */
+    public void applyToWriter(Properties properties) {
+        properties.setProperty("journal_mode", journalMode);
+        properties.setProperty("synchronous", synchronous);
+        applyToReader(properties);
+    }
+    /**
+     * Adds the pragmas for a reader connection.
+     *
+     * @param properties The connection properties.
+     */
+    public void applyToReader(Properties properties) {
+        properties.setProperty("mmap_size", String.valueOf(mmapSize));
+        properties.setProperty("cache_size", String.valueOf(cacheSize));
+        properties.setProperty("temp_store", tempStore);
+        properties.setProperty("busy_timeout", String.valueOf(busyTimeoutMillis));
+    }
+    /**
+     * Gets whether the database uses a write-ahead log, which needs checkpointing.
+     *
+     * @return True in WAL mode.
+     */
+    public boolean isWal() {
+        return journalMode.equals("WAL");
+    }
+    /**
+     * Gets how often the WAL is checkpointed and truncated.
+     *
+     * @return The interval in milliseconds, 0 or less to disable.
+     */
+    public long getCheckpointIntervalMillis() {
+        return checkpointIntervalMillis;
+    }
+    /**
+     * Gets how often PRAGMA optimize runs.
+     *
+     * @return The interval in milliseconds, 0 or less to disable.
+     */
+    public long getOptimizeIntervalMillis() {
+        return optimizeIntervalMillis;
+    }
+}
@@ -0,0 +1,160 @@
+package me.fergs.phantomvoting.database.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a physical connection's prepared statements open between uses, keyed by their SQL, so each statement
+ * is parsed and planned once per connection rather than on every call.
+ * <p>
+ * Callers keep using the plain JDBC pattern of preparing and closing a statement. Closing a cached statement
+ * closes its result set and clears its parameters instead, ready for the next caller. A connection is only ever
+ * used by the thread that borrowed it, so the cache is not synchronized. A statement that is still in use when
+ * the same SQL is prepared again, as on a re-entrant SQLite writer, is prepared uncached.
+ */
+class StatementCache {
+    private final Connection connection;
+    private final PoolMetrics metrics;
+    private final Map<String, CachedStatement> statements;
+    /**
+     * Creates a new statement cache.
+     *
+     * @param connection The physical connection.
+     * @param maximumSize The most statements kept open, the least recently used is closed beyond this.
+     * @param metrics The metrics to record hits and misses into.
+     */
+    StatementCache(Connection connection, int maximumSize, PoolMetrics metrics) {
+        this.connection = connection;
+        this.metrics = metrics;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maximumSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+    /**
+     * Gets the cached statement for the SQL, preparing it on first use.
+     *
+     * @param sql The SQL.
+     * @return The statement, which is returned to the cache when closed.
+     * @throws SQLException If the statement could not be prepared.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            metrics.recordStatementHit();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+        metrics.recordStatementMiss();
+        if (cached != null) {
+            return connection.prepareStatement(sql);
+        }
+        cached = new CachedStatement(sql, connection.prepareStatement(sql));
+        cached.inUse = true;
+        statements.put(sql, cached);
+        return cached.proxy;
+    }
+
+    /**
+     * A prepared statement held open by the cache, and the proxy callers use in its place.
+     */
+    private final class CachedStatement implements InvocationHandler {
+        private final String sql;
+        private final PreparedStatement delegate;
+        private final PreparedStatement proxy;
+        private boolean inUse;
+        private boolean evicted;
+        private ResultSet resultSet;
+
+        private CachedStatement(String sql, PreparedStatement delegate) {
+            this.sql = sql;
+            this.delegate = delegate;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return !inUse || delegate.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + delegate;
+                default:
+                    break;
+            }
+            if (!inUse) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            try {
+                Object result = method.invoke(delegate, args);
+                if (result instanceof ResultSet) {
+                    resultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        /**
+         * Resets the statement for the next caller, closing it instead if it was evicted or cannot be reset.
+         */
+        private void release() {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                    resultSet = null;
+                }
+                delegate.clearParameters();
+                delegate.clearBatch();
+            } catch (SQLException e) {
+                statements.remove(sql, this);
+                evicted = true;
+            }
+            if (evicted) {
+                closeQuietly();
+            }
+        }
+        /**
+         * Closes the statement once it has been dropped from the cache, or when it is next released if it is in use.
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                delegate.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package me.fergs.phantomvoting.database.statement;
+
+/**
+ * The statements the vote storage runs while the server is up. Their SQL is built once per database
+ * by {@link StatementRegistry} and the storage backend, and each parameter list is listed here.
+ */
+public enum SqlStatement {
+    /**
+     * Inserts a player's first vote, or applies a vote to their existing record, in one statement.
+     * Parameters: uuid, the four period timestamps, today's epoch day, the four period cutoffs twice, then yesterday's epoch day twice.
+     */
+    UPSERT_VOTE,
+    /**
+     * {@link #UPSERT_VOTE} returning the player's row, on databases that support RETURNING.
+     */
+    UPSERT_VOTE_RETURNING,
+    /**
+     * Adds several votes to an existing record without touching the streak.
+     * Parameters: each period's cutoff and the amount twice, each period's cutoff and the new timestamp, the all time amount, then the uuid.
+     */
+    ADD_VOTES,
+    /**
+     * Removes votes from a player's all time count. Parameters: the amount, then the uuid.
+     */
+    REMOVE_VOTES,
+    /**
+     * Reads a player's record. Parameters: the uuid.
+     */
+    SELECT_PROFILE,
+    /**
+     * Reads every player's record.
+     */
+    SELECT_ALL_PROFILES,
+    /**
+     * Inserts a record for a player's first streak vote.
+     * Parameters: the uuid, today's epoch day, then the four period timestamps.
+     */
+    INSERT_STREAK_PROFILE,
+    /**
+     * Sets a player's streak. Parameters: the streak, then the uuid.
+     */
+    SET_STREAK,
+    /**
+     * Sets a player's streak and last vote date. Parameters: the streak, the epoch day, then the uuid.
+     */
+    UPDATE_STREAK,
+    /**
+     * Adds to a player's streak. Parameters: the amount, then the uuid.
+     */
+    ADD_STREAK,
+    /**
+     * Restarts a player's streak at 1. Parameters: the epoch day, then the uuid.
+     */
+    RESET_STREAK,
+    /**
+     * Sets a player's last vote date. Parameters: the epoch day, then the uuid.
+     */
+    UPDATE_VOTE_DATE,
+    /**
+     * Reads a player's streak. Parameters: the uuid.
+     */
+    SELECT_STREAK,
+    /**
+     * Saves the vote party count. Parameters: the count.
+     */
+    UPSERT_VOTE_PARTY,
+    /**
+     * Reads the vote party count.
+     */
+    SELECT_VOTE_PARTY,
+    /**
+     * Saves a milestone claim. Parameters: the uuid, then the milestone id.
+     */
+    UPSERT_MILESTONE_CLAIM,
+    /**
+     * Reads a player's claimed milestones. Parameters: the uuid.
+     */
+    SELECT_MILESTONE_CLAIMS,
+    /**
+     * Saves a streak claim. Parameters: the uuid, then the streak id.
+     */
+    UPSERT_STREAK_CLAIM,
+    /**
+     * Reads a player's claimed streaks. Parameters: the uuid.
+     */
+    SELECT_STREAK_CLAIMS,
+    /**
+     * Stores a vote for an offline player. Parameters: the uuid or null, the lower-cased name, then the epoch milliseconds.
+     */
+    INSERT_PENDING_VOTE,
+    /**
+     * Reads a player's pending votes, oldest first. Parameters: the uuid, then the lower-cased name.
+     */
+    SELECT_PENDING_VOTES,
+    /**
+     * Deletes a player's pending votes up to an id. Parameters: the uuid, the lower-cased name, then the highest id.
+     */
+    DELETE_PENDING_VOTES,
+    /**
+     * Deletes pending votes older than a time. Parameters: the epoch milliseconds.
+     */
+    DELETE_EXPIRED_PENDING_VOTES,
+    /**
+     * Reads the lower-cased name of every player with a pending vote.
+     */
+    SELECT_PENDING_VOTE_NAMES,
+    /**
+     * Reads the uuid of every player with a pending vote, where it is known.
+     */
+    SELECT_PENDING_VOTE_UUIDS,
+    /**
+     * Records the highest journal segment written to the database. Parameters: the journal id, then the sequence.
+     */
+    UPSERT_JOURNAL_CHECKPOINT,
+    /**
+     * Reads the highest journal segment written to the database. Parameters: the journal id.
+     */
+    SELECT_JOURNAL_CHECKPOINT
+}
@@ -0,0 +1,139 @@
+package me.fergs.phantomvoting.database.statement;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds the SQL of every {@link SqlStatement} for one database, built once when its storage backend starts.
+ * Callers prepare statements by key, so the same SQL string reaches the connection's statement cache every time
+ * and no SQL is assembled or chosen per call.
+ */
+public class StatementRegistry {
+    private static final String[] PERIODS = {"daily", "weekly", "monthly", "yearly"};
+    private final Map<SqlStatement, String> statements = new EnumMap<>(SqlStatement.class);
+    /**
+     * Builds the statements every database runs as they are. Each storage backend then registers the
+     * statements its database writes in its own way, such as upserts.
+     */
+    public StatementRegistry() {
+        statements.put(SqlStatement.ADD_VOTES, "UPDATE player_votes SET " +
+                periodCountCases("?", "?") +
+                periodTimestampCases("?") +
+                "all_time_count = all_time_count + ? WHERE uuid = ?");
+        statements.put(SqlStatement.REMOVE_VOTES, "UPDATE player_votes SET all_time_count = all_time_count - ? WHERE uuid = ?");
+        statements.put(SqlStatement.SELECT_PROFILE, "SELECT * FROM player_votes WHERE uuid = ?");
+        statements.put(SqlStatement.SELECT_ALL_PROFILES, "SELECT * FROM player_votes");
+        statements.put(SqlStatement.INSERT_STREAK_PROFILE, "INSERT INTO player_votes (uuid, daily_count, weekly_count, monthly_count, yearly_count, " +
+                "all_time_count, streak_count, last_vote_date, daily_timestamp, weekly_timestamp, monthly_timestamp, yearly_timestamp) " +
+                "VALUES (?, 1, 1, 1, 1, 1, 1, ?, ?, ?, ?, ?)");
+        statements.put(SqlStatement.SET_STREAK, "UPDATE player_votes SET streak_count = ? WHERE uuid = ?");
+        statements.put(SqlStatement.UPDATE_STREAK, "UPDATE player_votes SET streak_count = ?, last_vote_date = ? WHERE uuid = ?");
+        statements.put(SqlStatement.ADD_STREAK, "UPDATE player_votes SET streak_count = streak_count + ? WHERE uuid = ?");
+        statements.put(SqlStatement.RESET_STREAK, "UPDATE player_votes SET streak_count = 1, last_vote_date = ? WHERE uuid = ?");
+        statements.put(SqlStatement.UPDATE_VOTE_DATE, "UPDATE player_votes SET last_vote_date = ? WHERE uuid = ?");
+        statements.put(SqlStatement.SELECT_STREAK, "SELECT streak_count FROM player_votes WHERE uuid = ?");
+        statements.put(SqlStatement.SELECT_VOTE_PARTY, "SELECT current_vote_count FROM vote_party");
+        statements.put(SqlStatement.SELECT_MILESTONE_CLAIMS, "SELECT milestone_id FROM player_milestones WHERE uuid = ? AND claimed = TRUE");
+        statements.put(SqlStatement.SELECT_STREAK_CLAIMS, "SELECT streak_id FROM player_streaks WHERE uuid = ? AND claimed = TRUE");
+        statements.put(SqlStatement.INSERT_PENDING_VOTE, "INSERT INTO pending_votes (uuid, username, created_at) VALUES (?, ?, ?)");
+        statements.put(SqlStatement.SELECT_PENDING_VOTES, "SELECT id, created_at FROM pending_votes WHERE uuid = ? OR username = ? ORDER BY id");
+        statements.put(SqlStatement.DELETE_PENDING_VOTES, "DELETE FROM pending_votes WHERE (uuid = ? OR username = ?) AND id <= ?");
+        statements.put(SqlStatement.DELETE_EXPIRED_PENDING_VOTES, "DELETE FROM pending_votes WHERE created_at < ?");
+        statements.put(SqlStatement.SELECT_PENDING_VOTE_NAMES, "SELECT DISTINCT username FROM pending_votes");
+        statements.put(SqlStatement.SELECT_PENDING_VOTE_UUIDS, "SELECT DISTINCT uuid FROM pending_votes WHERE uuid IS NOT NULL");
+        statements.put(SqlStatement.SELECT_JOURNAL_CHECKPOINT, "SELECT flushed_sequence FROM journal_checkpoints WHERE journal_id = ?");
+    }
+    /**
+     * Registers the SQL of a statement, replacing any registered before.
+     *
+     * @param statement The statement.
+     * @param sql The SQL.
+     * @return This registry.
+     */
+    public StatementRegistry register(SqlStatement statement, String sql) {
+        statements.put(statement, sql);
+        return this;
+    }
+    /**
+     * Builds the insert half of the vote upsert, for a player's first vote. The backend appends its database's
+     * conflict clause followed by {@link #applyVoteSql(String)}.
+     *
+     * @return The SQL, ending in a space.
+     */
+    public static String insertVoteSql() {
+        return "INSERT INTO player_votes (uuid, daily_count, weekly_count, monthly_count, yearly_count, " +
+                "all_time_count, daily_timestamp, weekly_timestamp, monthly_timestamp, yearly_timestamp, streak_count, last_vote_date) " +
+                "VALUES (?, 1, 1, 1, 1, 1, ?, ?, ?, ?, 1, ?) ";
+    }
+    /**
+     * Builds the update half of the vote upsert, which applies a vote to an existing record.
+     * Counts are assigned before timestamps because MySQL evaluates the assignments left to right.
+     *
+     * @param insertedValue How the database refers to a value of the row that was to be inserted, where %s is replaced with the column
+     * @return The assignments
+     */
+    public static String applyVoteSql(String insertedValue) {
+        return periodCountCases("1", "1") +
+                "all_time_count = all_time_count + 1, " +
+                periodTimestampCases(String.format(insertedValue, "%s_timestamp")) +
+                "streak_count = CASE WHEN last_vote_date IS NULL OR streak_count IS NULL THEN 1 " +
+                "WHEN last_vote_date = ? THEN streak_count + 1 " +
+                "WHEN last_vote_date < ? THEN 1 " +
+                "ELSE streak_count END, " +
+                "last_vote_date = " + String.format(insertedValue, "last_vote_date");
+    }
+    /**
+     * Gets the SQL of a statement.
+     *
+     * @param statement The statement.
+     * @return The SQL.
+     * @throws IllegalStateException If the dialect does not support the statement.
+     */
+    public String get(SqlStatement statement) {
+        String sql = statements.get(statement);
+        if (sql == null) {
+            throw new IllegalStateException(statement + " is not supported by this database.");
+        }
+        return sql;
+    }
+    /**
+     * Checks whether the dialect supports a statement.
+     *
+     * @param statement The statement.
+     * @return True if the statement has SQL for this dialect.
+     */
+    public boolean supports(SqlStatement statement) {
+        return statements.containsKey(statement);
+    }
+    /**
+     * Builds the count assignments for every period, resetting a period once its timestamp is older than the bound cutoff.
+     *
+     * @param resetValue The value to reset an expired count to
+     * @param increment The amount to add to a count that has not expired
+     * @return The assignments, each followed by a comma
+     */
+    private static String periodCountCases(String resetValue, String increment) {
+        StringBuilder builder = new StringBuilder();
+        for (String period : PERIODS) {
+            builder.append(period).append("_count = CASE WHEN ").append(period).append("_timestamp IS NULL OR ")
+                    .append(period).append("_timestamp < ? THEN ").append(resetValue)
+                    .append(" ELSE ").append(period).append("_count + ").append(increment).append(" END, ");
+        }
+        return builder.toString();
+    }
+    /**
+     * Builds the timestamp assignments for every period, moving a period's timestamp forward once it is older than the bound cutoff.
+     *
+     * @param newTimestamp The expression for the new timestamp, where %s is replaced with the period
+     * @return The assignments, each followed by a comma
+     */
+    private static String periodTimestampCases(String newTimestamp) {
+        StringBuilder builder = new StringBuilder();
+        for (String period : PERIODS) {
+            builder.append(period).append("_timestamp = CASE WHEN ").append(period).append("_timestamp IS NULL OR ")
+                    .append(period).append("_timestamp < ? THEN ").append(String.format(newTimestamp, period))
+                    .append(" ELSE ").append(period).append("_timestamp END, ");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,167 @@
+package me.fergs.phantomvoting.enums;
+
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+
+import java.time.LocalDateTime;
+
+public enum LeaderboardPeriod {
+    /**
+     * Votes cast today. Unlike the other periods, the daily window ends at midnight.
+     */
+    DAILY("daily") {
+        @Override
+        public LocalDateTime getExpiry(LocalDateTime start) {
+            return start.toLocalDate().plusDays(1).atStartOfDay();
+        }
+
+        @Override
+        public int getCount(PlayerVoteProfile profile) {
+            return profile.getDailyCount();
+        }
+
+        @Override
+        public LocalDateTime getTimestamp(PlayerVoteProfile profile) {
+            return profile.getDailyTimestamp();
+        }
+    },
+    /**
+     * Votes in the player's current weekly window.
+     */
+    WEEKLY("weekly") {
+        @Override
+        public LocalDateTime getExpiry(LocalDateTime start) {
+            return start.plusWeeks(1);
+        }
+
+        @Override
+        public int getCount(PlayerVoteProfile profile) {
+            return profile.getWeeklyCount();
+        }
+
+        @Override
+        public LocalDateTime getTimestamp(PlayerVoteProfile profile) {
+            return profile.getWeeklyTimestamp();
+        }
+    },
+    /**
+     * Votes in the player's current monthly window.
+     */
+    MONTHLY("monthly") {
+        @Override
+        public LocalDateTime getExpiry(LocalDateTime start) {
+            return start.plusMonths(1);
+        }
+
+        @Override
+        public int getCount(PlayerVoteProfile profile) {
+            return profile.getMonthlyCount();
+        }
+
+        @Override
+        public LocalDateTime getTimestamp(PlayerVoteProfile profile) {
+            return profile.getMonthlyTimestamp();
+        }
+    },
+    /**
+     * Votes in the player's current yearly window.
+     */
+    YEARLY("yearly") {
+        @Override
+        public LocalDateTime getExpiry(LocalDateTime start) {
+            return start.plusYears(1);
+        }
+
+        @Override
+        public int getCount(PlayerVoteProfile profile) {
+            return profile.getYearlyCount();
+        }
+
+        @Override
+        public LocalDateTime getTimestamp(PlayerVoteProfile profile) {
+            return profile.getYearlyTimestamp();
+        }
+    },
+    /**
+     * Every vote the player has cast.
+     */
+    ALL_TIME("all_time") {
+        @Override
+        public LocalDateTime getExpiry(LocalDateTime start) {
+            return null;
+        }
+
+        @Override
+        public int getCount(PlayerVoteProfile profile) {
+            return profile.getAllTimeCount();
+        }
+
+        @Override
+        public LocalDateTime getTimestamp(PlayerVoteProfile profile) {
+            return null;
+        }
+    };
+    /**
+     * The identifier for the period, matching the column prefix in the database.
+     */
+    private final String identifier;
+    /**
+     * Creates a new leaderboard period.
+     *
+     * @param identifier The identifier for the period.
+     */
+    LeaderboardPeriod(String identifier) {
+        this.identifier = identifier;
+    }
+    /**
+     * Gets the identifier for the period.
+     *
+     * @return The identifier.
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+    /**
+     * Gets when a window of this period that started at the given time runs out.
+     *
+     * @param start The start of the window.
+     * @return The end of the window, or null if the period never runs out.
+     */
+    public abstract LocalDateTime getExpiry(LocalDateTime start);
+    /**
+     * Gets the stored count for this period from a player's record.
+     *
+     * @param profile The player's record.
+     * @return The stored count, which may have expired.
+     */
+    public abstract int getCount(PlayerVoteProfile profile);
+    /**
+     * Gets the start of the player's current window for this period.
+     *
+     * @param profile The player's record.
+     * @return The start of the window, or null if the player has no window or the period never runs out.
+     */
+    public abstract LocalDateTime getTimestamp(PlayerVoteProfile profile);
+    /**
+     * Gets the period after this one, wrapping around, for cycling through periods in menus.
+     *
+     * @return The next period.
+     */
+    public LeaderboardPeriod next() {
+        LeaderboardPeriod[] periods = values();
+        return periods[(ordinal() + 1) % periods.length];
+    }
+    /**
+     * Gets the period from an identifier.
+     *
+     * @param identifier The identifier to get the period for.
+     * @return The period, or null if not found.
+     */
+    public static LeaderboardPeriod fromIdentifier(String identifier) {
+        for (LeaderboardPeriod period : values()) {
+            if (period.getIdentifier().equalsIgnoreCase(identifier)) {
+                return period;
+            }
+        }
+        return null;
+    }
+}
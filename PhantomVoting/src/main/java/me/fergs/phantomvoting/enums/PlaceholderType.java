@@ -6,11 +6,14 @@ import me.fergs.phantomvoting.objects.PlayerVoteData;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum PlaceholderType {
     /**
      * The placeholder type for the player's total vote count.
      */
-    DAILY_VOTES("daily_votes") {
+    DAILY_VOTES("daily_votes", true) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(voteStorage.getPlayerVoteCount(player.getUniqueId(), "daily"));
@@ -19,7 +22,7 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the player's weekly vote count.
      */
-    WEEKLY_VOTES("weekly_votes") {
+    WEEKLY_VOTES("weekly_votes", true) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(voteStorage.getPlayerVoteCount(player.getUniqueId(), "weekly"));
@@ -28,7 +31,7 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the player's monthly vote count.
      */
-    MONTHLY_VOTES("monthly_votes") {
+    MONTHLY_VOTES("monthly_votes", true) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(voteStorage.getPlayerVoteCount(player.getUniqueId(), "monthly"));
@@ -37,7 +40,7 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the player's yearly vote count.
      */
-    YEARLY_VOTES("yearly_votes") {
+    YEARLY_VOTES("yearly_votes", true) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(voteStorage.getPlayerVoteCount(player.getUniqueId(), "yearly"));
@@ -46,7 +49,7 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the player's all-time vote count.
      */
-    ALL_TIME_VOTES("all_time_votes") {
+    ALL_TIME_VOTES("all_time_votes", true) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(voteStorage.getPlayerVoteCount(player.getUniqueId(), "all_time"));
@@ -55,7 +58,7 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the current global vote count.
      */
-    VOTE_PARTY_COUNT("vote_party_count") {
+    VOTE_PARTY_COUNT("vote_party_count", false) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(votePartyManager.getCurrentVoteCount());
@@ -64,7 +67,7 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the player's vote streak.
      */
-    VOTE_STREAK("vote_streak") {
+    VOTE_STREAK("vote_streak", true) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(voteStorage.getPlayerStreak(player.getUniqueId()));
@@ -73,16 +76,52 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the player's vote party position.
      */
-    PLAYER_POSITION("player_position") {
+    PLAYER_POSITION("player_position", true) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(voteStorage.getPlayerPosition(player.getUniqueId()));
         }
     },
+    /**
+     * The placeholder type for the player's position on the daily leaderboard.
+     */
+    DAILY_POSITION("daily_position", true) {
+        @Override
+        public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
+            return String.valueOf(voteStorage.getPlayerPosition(player.getUniqueId(), LeaderboardPeriod.DAILY));
+        }
+    },
+    /**
+     * The placeholder type for the player's position on the weekly leaderboard.
+     */
+    WEEKLY_POSITION("weekly_position", true) {
+        @Override
+        public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
+            return String.valueOf(voteStorage.getPlayerPosition(player.getUniqueId(), LeaderboardPeriod.WEEKLY));
+        }
+    },
+    /**
+     * The placeholder type for the player's position on the monthly leaderboard.
+     */
+    MONTHLY_POSITION("monthly_position", true) {
+        @Override
+        public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
+            return String.valueOf(voteStorage.getPlayerPosition(player.getUniqueId(), LeaderboardPeriod.MONTHLY));
+        }
+    },
+    /**
+     * The placeholder type for the player's position on the yearly leaderboard.
+     */
+    YEARLY_POSITION("yearly_position", true) {
+        @Override
+        public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
+            return String.valueOf(voteStorage.getPlayerPosition(player.getUniqueId(), LeaderboardPeriod.YEARLY));
+        }
+    },
     /**
      * The placeholder type for the vote party threshold.
      */
-    VOTE_PARTY_THRESHOLD("vote_party_threshold") {
+    VOTE_PARTY_THRESHOLD("vote_party_threshold", false) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(votePartyManager.getVoteThreshold());
@@ -91,22 +130,22 @@ public enum PlaceholderType {
     /**
      * The placeholder type for the remaining votes until the vote party.
      */
-    VOTE_UNTIL_PARTY("vote_until_party") {
+    VOTE_UNTIL_PARTY("vote_until_party", false) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             return String.valueOf(votePartyManager.getVoteThreshold() - votePartyManager.getCurrentVoteCount());
         }
     },
     /**
-     * The placeholder type for the top player's name at a specific position.
+     * The placeholder type for the top player's name at a specific position,
+     * optionally prefixed with a period such as "daily_3".
      */
-    TOP_PLAYER("top_player") {
+    TOP_PLAYER("top_player", false) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             if (extra == null) return "None";
             try {
-                int position = Integer.parseInt(extra);
-                PlayerVoteData data = voteStorage.getTopPlayerAt(position);
+                PlayerVoteData data = getTopPlayerAt(voteStorage, extra);
                 return data != null ? Bukkit.getOfflinePlayer(data.getUuid()).getName() : "None";
             } catch (NumberFormatException e) {
                 return "None";
@@ -114,32 +153,48 @@ public enum PlaceholderType {
         }
     },
     /**
-     * The placeholder type for the top player's vote count at a specific position.
+     * The placeholder type for the top player's vote count at a specific position,
+     * optionally prefixed with a period such as "daily_3".
      */
-    TOP_VOTES("top_votes") {
+    TOP_VOTES("top_votes", false) {
         @Override
         public String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra) {
             if (extra == null) return "None";
             try {
-                int position = Integer.parseInt(extra);
-                PlayerVoteData data = voteStorage.getTopPlayerAt(position);
+                PlayerVoteData data = getTopPlayerAt(voteStorage, extra);
                 return data != null ? String.valueOf(data.getVoteCount()) : "0";
             } catch (NumberFormatException e) {
                 return "0";
             }
         }
     };
+    /**
+     * The placeholder types by identifier, for lookups without scanning.
+     */
+    private static final Map<String, PlaceholderType> BY_IDENTIFIER = new HashMap<>();
+
+    static {
+        for (PlaceholderType type : values()) {
+            BY_IDENTIFIER.put(type.identifier, type);
+        }
+    }
     /**
      * The identifier for the placeholder.
      */
     private final String identifier;
+    /**
+     * Whether the value depends on the player it is requested for.
+     */
+    private final boolean playerSpecific;
     /**
      * Creates a new placeholder type.
      *
-     * @param identifier The identifier for the placeholder.
+     * @param identifier     The identifier for the placeholder.
+     * @param playerSpecific Whether the value depends on the player.
      */
-    PlaceholderType(String identifier) {
+    PlaceholderType(String identifier, boolean playerSpecific) {
         this.identifier = identifier;
+        this.playerSpecific = playerSpecific;
     }
     /**
      * Gets the identifier for the placeholder.
@@ -149,6 +204,14 @@ public enum PlaceholderType {
     public String getIdentifier() {
         return identifier;
     }
+    /**
+     * Checks whether the value depends on the player it is requested for.
+     *
+     * @return True if the value is per player, false if every player sees the same value.
+     */
+    public boolean isPlayerSpecific() {
+        return playerSpecific;
+    }
     /**
      * Gets the value for the placeholder.
      *
@@ -159,6 +222,25 @@ public enum PlaceholderType {
      * @return The value for the placeholder.
      */
     public abstract String getValue(VoteStorage voteStorage, VotePartyManager votePartyManager, Player player, String extra);
+    /**
+     * Gets the top player for a position argument, which is either a position or a period and a position.
+     *
+     * @param voteStorage The vote storage instance.
+     * @param extra       The position argument, such as "3" or "daily_3".
+     * @return The player at the position, or null if out of bounds.
+     * @throws NumberFormatException If the position is not a number.
+     */
+    private static PlayerVoteData getTopPlayerAt(VoteStorage voteStorage, String extra) {
+        int separator = extra.lastIndexOf('_');
+        if (separator < 0) {
+            return voteStorage.getTopPlayerAt(Integer.parseInt(extra));
+        }
+        LeaderboardPeriod period = LeaderboardPeriod.fromIdentifier(extra.substring(0, separator));
+        if (period == null) {
+            return null;
+        }
+        return voteStorage.getTopPlayerAt(Integer.parseInt(extra.substring(separator + 1)), period);
+    }
     /**
      * Gets the placeholder type from an identifier.
      *
@@ -166,11 +248,6 @@ public enum PlaceholderType {
      * @return The placeholder type, or null if not found.
      */
     public static PlaceholderType fromIdentifier(String identifier) {
-        for (PlaceholderType type : values()) {
-            if (type.getIdentifier().equals(identifier)) {
-                return type;
-            }
-        }
-        return null;
+        return BY_IDENTIFIER.get(identifier);
     }
 }
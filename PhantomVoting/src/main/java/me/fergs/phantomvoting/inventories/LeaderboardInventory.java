@@ -2,6 +2,7 @@ package me.fergs.phantomvoting.inventories;
 
 import me.fergs.phantomvoting.PhantomVoting;
 import me.fergs.phantomvoting.config.YamlConfigFile;
+import me.fergs.phantomvoting.enums.LeaderboardPeriod;
 import me.fergs.phantomvoting.inventories.holders.LeaderboardInventoryHolder;
 import me.fergs.phantomvoting.inventories.interfaces.InventoryInterface;
 import me.fergs.phantomvoting.objects.InventoryFiller;
@@ -31,7 +32,8 @@ public class LeaderboardInventory<T extends PhantomVoting> implements InventoryI
     private List<InventoryFiller> fillers = new ArrayList<>();
     private ItemStack nullHeadItem;
     private YamlConfigFile config;
-    private List<PlayerVoteData> cachedTopPlayers = new ArrayList<>();
+    private int periodSelectorSlot;
+    private Map<LeaderboardPeriod, List<PlayerVoteData>> cachedTopPlayers = new EnumMap<>(LeaderboardPeriod.class);
     private final Map<UUID, String> playerNameCache = new HashMap<>();
     /**
      * Creates a new leaderboard inventory.
@@ -53,19 +55,33 @@ public class LeaderboardInventory<T extends PhantomVoting> implements InventoryI
         this.inventorySize = config.getInt("Leaderboard.size", 27);
         this.inventoryTitle = Color.hex(config.getString("Leaderboard.title", "&8Vote Top Leaderboard"));
         this.nullHeadItem = InventoryUtil.createItem(config, "Leaderboard.null-head");
+        this.periodSelectorSlot = config.getInt("Leaderboard.period-selector.slot", -1);
 
         loadFillers();
     }
     /**
-     * Creates the inventory.
+     * Creates the inventory, showing the all-time leaderboard.
      *
      * @param player The player.
      * @return The inventory.
      */
     @Override
     public Inventory createInventory(Player player) {
-        LeaderboardInventoryHolder holder = new LeaderboardInventoryHolder(inventoryTitle);
-        Inventory inventory = Bukkit.createInventory(holder, inventorySize, inventoryTitle);
+        return createInventory(player, LeaderboardPeriod.ALL_TIME);
+    }
+    /**
+     * Creates the inventory for a period.
+     *
+     * @param player The player.
+     * @param period The period to show.
+     * @return The inventory.
+     */
+    public Inventory createInventory(Player player, LeaderboardPeriod period) {
+        String periodName = getPeriodName(period);
+        String title = inventoryTitle.replace("%period%", periodName);
+        LeaderboardInventoryHolder holder = new LeaderboardInventoryHolder(title, period);
+        Inventory inventory = Bukkit.createInventory(holder, inventorySize, title);
+        List<PlayerVoteData> topPlayers = cachedTopPlayers.getOrDefault(period, Collections.emptyList());
         fillers.forEach(filler -> {
             filler.getSlots().forEach(slots -> {
                 slots.forEach(slot -> inventory.setItem(slot, filler.getItem()));
@@ -75,9 +91,9 @@ public class LeaderboardInventory<T extends PhantomVoting> implements InventoryI
         for (String slotRange : playerSlots) {
             List<Integer> slots = InventoryUtil.parseSlotRange(slotRange);
             for (Integer slot : slots) {
-                if (slotIndex < cachedTopPlayers.size()) {
-                    PlayerVoteData playerData = cachedTopPlayers.get(slotIndex);
-                    ItemStack playerItem = createPlayerItem(playerData);
+                if (slotIndex < topPlayers.size()) {
+                    PlayerVoteData playerData = topPlayers.get(slotIndex);
+                    ItemStack playerItem = createPlayerItem(playerData, slotIndex + 1);
                     inventory.setItem(slot, playerItem);
                 } else {
                     inventory.setItem(slot, nullHeadItem != null ? nullHeadItem : new ItemStack(Material.BEDROCK));
@@ -85,14 +101,22 @@ public class LeaderboardInventory<T extends PhantomVoting> implements InventoryI
                 slotIndex++;
             }
         }
-        int playerPosition = plugin.getVoteStorage().getPlayerPosition(player.getUniqueId());
+        int playerPosition = plugin.getVoteStorage().getPlayerPosition(player.getUniqueId(), period);
         ItemStack positionItem = InventoryUtil.createItem(
                 config,
                 "Leaderboard.player-position",
                 "%position%", String.valueOf(playerPosition),
                 "%refresh_time%", FormatUtil.formatTimeStamp((getNextRefreshTime() - (System.currentTimeMillis() / 1000))),
-                "%player%", getPlayerName(player.getUniqueId()));
+                "%player%", getPlayerName(player.getUniqueId()),
+                "%period%", periodName);
         inventory.setItem(config.getInt("Leaderboard.player-position.slot"), positionItem);
+        if (periodSelectorSlot >= 0) {
+            inventory.setItem(periodSelectorSlot, InventoryUtil.createItem(
+                    config,
+                    "Leaderboard.period-selector",
+                    "%period%", periodName,
+                    "%next_period%", getPeriodName(period.next())));
+        }
         return inventory;
     }
     /**
@@ -107,10 +131,15 @@ public class LeaderboardInventory<T extends PhantomVoting> implements InventoryI
         }.runTaskTimerAsynchronously(plugin, 0L, refreshInterval * 20L);
     }
     /**
-     * Refreshes the leaderboard data and updates the cached top players.
+     * Refreshes the leaderboard data and updates the cached top players for every period.
+     * The rankings are held in memory by the vote storage, so this does not touch the database.
      */
     private void refreshLeaderboardData() {
-        cachedTopPlayers = plugin.getVoteStorage().getTopPlayers();
+        Map<LeaderboardPeriod, List<PlayerVoteData>> topPlayers = new EnumMap<>(LeaderboardPeriod.class);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            topPlayers.put(period, plugin.getVoteStorage().getTopPlayers(period));
+        }
+        cachedTopPlayers = topPlayers;
         plugin.getMessageManager().broadcastMessage("LEADERBOARD_REFRESH");
         lastRefreshTime = System.currentTimeMillis();
     }
@@ -118,12 +147,12 @@ public class LeaderboardInventory<T extends PhantomVoting> implements InventoryI
      * Creates a player item for the leaderboard.
      *
      * @param playerData The player data.
+     * @param position The player's position on the leaderboard.
      * @return The player item.
      */
-    private ItemStack createPlayerItem(PlayerVoteData playerData) {
+    private ItemStack createPlayerItem(PlayerVoteData playerData, int position) {
         UUID uuid = playerData.getUuid();
         String playerName = getPlayerName(uuid);
-        int position = cachedTopPlayers.indexOf(playerData) + 1;
         int votes    = playerData.getVoteCount();
 
         ItemStack head = new ItemStack(Material.PLAYER_HEAD);
@@ -203,6 +232,23 @@ public class LeaderboardInventory<T extends PhantomVoting> implements InventoryI
             return offlinePlayer.getName();
         });
     }
+    /**
+     * Gets the display name of a period from the configuration.
+     *
+     * @param period The period.
+     * @return The display name.
+     */
+    private String getPeriodName(LeaderboardPeriod period) {
+        return config.getString("Leaderboard.period-selector.names." + period.getIdentifier(), period.getIdentifier());
+    }
+    /**
+     * Gets the slot of the period selector.
+     *
+     * @return The slot, or -1 if the selector is disabled.
+     */
+    public int getPeriodSelectorSlot() {
+        return periodSelectorSlot;
+    }
     /**
      * Gets the next refresh time.
      *
@@ -1,18 +1,22 @@
 package me.fergs.phantomvoting.inventories.holders;
 
+import me.fergs.phantomvoting.enums.LeaderboardPeriod;
 import org.bukkit.event.Listener;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 
 public class LeaderboardInventoryHolder implements InventoryHolder, Listener {
     private final String title;
+    private final LeaderboardPeriod period;
     /**
      * Creates a new leaderboard inventory holder.
      *
      * @param title The title of the inventory.
+     * @param period The period the leaderboard is showing.
      */
-    public LeaderboardInventoryHolder(String title) {
+    public LeaderboardInventoryHolder(String title, LeaderboardPeriod period) {
         this.title = title;
+        this.period = period;
     }
     /**
      * Gets the title of the inventory.
@@ -23,4 +27,12 @@ public class LeaderboardInventoryHolder implements InventoryHolder, Listener {
     public Inventory getInventory() {
         return null;
     }
+    /**
+     * Gets the period the leaderboard is showing.
+     *
+     * @return The period.
+     */
+    public LeaderboardPeriod getPeriod() {
+        return period;
+    }
 }
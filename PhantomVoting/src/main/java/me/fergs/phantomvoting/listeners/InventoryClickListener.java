@@ -4,7 +4,6 @@ import me.fergs.phantomvoting.PhantomVoting;
 import me.fergs.phantomvoting.inventories.holders.LeaderboardInventoryHolder;
 import me.fergs.phantomvoting.inventories.holders.MilestonesInventoryHolder;
 import me.fergs.phantomvoting.inventories.holders.StreaksInventoryHolder;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.configuration.ConfigurationSection;
@@ -14,7 +13,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 
-import java.sql.SQLException;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -28,6 +26,7 @@ public class InventoryClickListener implements Listener {
     public void onInventoryClick(InventoryClickEvent event) {
         if (event.getView().getTopInventory().getHolder() instanceof LeaderboardInventoryHolder) {
             event.setCancelled(true);
+            handleLeaderboardClick(event);
             return;
         }
 
@@ -40,6 +39,20 @@ public class InventoryClickListener implements Listener {
             handleStreakClick(event);
         }
     }
+    /**
+     * Handles clicks in the Leaderboard inventory, cycling the period when the selector is clicked.
+     *
+     * @param event The InventoryClickEvent.
+     */
+    private void handleLeaderboardClick(InventoryClickEvent event) {
+        int selectorSlot = PhantomVoting.getInstance().getLeaderboardInventory().getPeriodSelectorSlot();
+        if (selectorSlot < 0 || event.getRawSlot() != selectorSlot) return;
+
+        LeaderboardInventoryHolder holder = (LeaderboardInventoryHolder) event.getView().getTopInventory().getHolder();
+        final Player player = (Player) event.getWhoClicked();
+        player.openInventory(PhantomVoting.getInstance().getLeaderboardInventory().createInventory(player, holder.getPeriod().next()));
+        player.playSound(player, Sound.BLOCK_LEVER_CLICK, 0.7f, 0.5f);
+    }
     /**
      * Handles clicks in the Milestones inventory.
      *
@@ -85,31 +98,26 @@ public class InventoryClickListener implements Listener {
                 .filter(milestoneConfig -> milestoneConfig.getInt("slot", -1) == clickedSlot)
                 .findFirst()
                 .ifPresent(milestoneConfig -> {
-                    try {
-                        int requiredVotes = milestoneConfig.getInt("required-votes");
-                        int milestoneIndex = Integer.parseInt(milestoneConfig.getName().substring(1));
-                        boolean isClaimed = plugin.getVoteStorage().isMilestoneClaimed(playerUUID, milestoneIndex);
-                        if (isClaimed) {
-                            plugin.getMessageManager().sendMessage(player, "MILESTONE_ALREADY_CLAIMED");
-                        } else if (playerVotes < requiredVotes) {
-                            plugin.getMessageManager().sendMessage(player, "MILESTONE_NOT_ENOUGH_VOTES", "%required_votes%", String.valueOf(requiredVotes));
-                        } else {
-                            milestoneConfig.getStringList("Available.commands").forEach(command ->
-                                    plugin.getServer().dispatchCommand(
-                                            plugin.getServer().getConsoleSender(),
-                                            command.replace("%player%", player.getName())
-                                    )
-                            );
-
-                            plugin.getVoteStorage().claimMilestone(playerUUID, milestoneIndex);
-
-                            player.openInventory(plugin.getMilestonesInventory().createInventory(player));
-
-                            plugin.getMessageManager().sendMessage(player, "MILESTONE_CLAIMED");
-                        }
-                    } catch (SQLException e) {
-                        Bukkit.getLogger().warning("An error occurred for player " + player.getName() + " while claiming a milestone");
-                        e.printStackTrace();
+                    int requiredVotes = milestoneConfig.getInt("required-votes");
+                    int milestoneIndex = Integer.parseInt(milestoneConfig.getName().substring(1));
+                    boolean isClaimed = plugin.getVoteStorage().isMilestoneClaimed(playerUUID, milestoneIndex);
+                    if (isClaimed) {
+                        plugin.getMessageManager().sendMessage(player, "MILESTONE_ALREADY_CLAIMED");
+                    } else if (playerVotes < requiredVotes) {
+                        plugin.getMessageManager().sendMessage(player, "MILESTONE_NOT_ENOUGH_VOTES", "%required_votes%", String.valueOf(requiredVotes));
+                    } else {
+                        milestoneConfig.getStringList("Available.commands").forEach(command ->
+                                plugin.getServer().dispatchCommand(
+                                        plugin.getServer().getConsoleSender(),
+                                        command.replace("%player%", player.getName())
+                                )
+                        );
+
+                        plugin.getVoteStorage().claimMilestone(playerUUID, milestoneIndex);
+
+                        player.openInventory(plugin.getMilestonesInventory().createInventory(player));
+
+                        plugin.getMessageManager().sendMessage(player, "MILESTONE_CLAIMED");
                     }
                 });
     }
@@ -15,6 +15,7 @@ public class PlayerListener implements Listener {
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         PhantomVoting.getInstance().getPlayerManager().addPlayer(event.getPlayer());
+        PhantomVoting.getInstance().getVoteIngestionManager().claimPendingVotes(event.getPlayer());
     }
     /**
      * Event handler for when a player leaves the server.
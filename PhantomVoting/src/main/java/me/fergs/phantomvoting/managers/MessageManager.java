@@ -1,71 +1,80 @@
 package me.fergs.phantomvoting.managers;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import me.fergs.phantomvoting.PhantomVoting;
 import me.fergs.phantomvoting.config.ConfigurationManager;
-import me.fergs.phantomvoting.utils.Color;
-import me.fergs.phantomvoting.utils.MessageParser;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.event.ClickEvent;
-import net.kyori.adventure.text.event.HoverEvent;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import me.fergs.phantomvoting.objects.messages.Broadcast;
+import me.fergs.phantomvoting.objects.messages.CompiledMessage;
+import me.fergs.phantomvoting.objects.messages.ComponentTemplate;
 import org.bukkit.Bukkit;
-import org.bukkit.Sound;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 public class MessageManager<T extends PhantomVoting> {
     private final ConfigurationManager<?> configurationManager;
     private final T plugin;
-    private final Pattern CLICKABLE_PATTERN = Pattern.compile("\\((.*?)\\)\\[(.*?)]");
+    private volatile Map<String, CompiledMessage> messages = Collections.emptyMap();
+    private volatile int broadcastPlayersPerTick;
 
     public MessageManager(T plugin, ConfigurationManager<?> config) {
         this.configurationManager = config;
         this.plugin = plugin;
+        reload();
+    }
+    /**
+     * Compiles every message in messages.yml and reads the broadcast settings. Call after the files are reloaded.
+     */
+    public void reload() {
+        broadcastPlayersPerTick = configurationManager.getConfig("config").getInt("Broadcasts.Players-Per-Tick", 0);
+        Map<String, CompiledMessage> compiled = new HashMap<>();
+        ConfigurationSection section = configurationManager.getConfig("messages").getConfigurationSection("Messages");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                ConfigurationSection messageSection = section.getConfigurationSection(key);
+                if (messageSection != null) {
+                    compiled.put(key, CompiledMessage.compile(key, messageSection));
+                }
+            }
+        }
+        this.messages = compiled;
     }
 
     public void sendMessage(CommandSender executor, String key, String... placeholders) {
-        Optional<List<String>> message = getMessage(key);
-        Optional<String> sound = getSound(key);
+        CompiledMessage message = messages.get(key);
+        if (message == null) {
+            return;
+        }
 
-        if (message.isPresent() && isMessageEnabled(key)) {
+        if (!message.getLines().isEmpty()) {
             if (executor instanceof Player) {
                 Player player = (Player) executor;
 
                 if (key.equalsIgnoreCase("VOTE_LIST")) {
-                    sendVoteMessage(player, message.get(), placeholders);
+                    sendVoteMessage(player, message.getComponentLines(), placeholders);
                 } else {
-                    message.get().forEach(line -> {
-                        String formattedMessage = MessageParser.parse(line, placeholders);
-                        executor.sendMessage(Color.hex(PlaceholderAPI.setPlaceholders(player, formattedMessage)));
-                    });
+                    message.getLines().forEach(line -> executor.sendMessage(line.render(player, true, placeholders)));
                 }
             } else {
-                message.get().forEach(line -> {
-                    String formattedMessage = MessageParser.parse(line, placeholders);
-                    executor.sendMessage(Color.hex(formattedMessage));
-                });
+                message.getLines().forEach(line -> executor.sendMessage(line.render(null, false, placeholders)));
             }
         }
 
-        if (isTitleEnabled(key) && executor instanceof Player) {
-            Optional<String> title = getTitle(key);
-            Optional<String> subtitle = getSubtitle(key);
-            title.ifPresent(titleString -> ((Player) executor).sendTitle(
-                    Color.hex(MessageParser.parseKeyedValues(titleString, placeholders)),
-                    subtitle.map(s -> Color.hex(MessageParser.parse(s, placeholders))).orElse(null)
-            ));
+        if (message.getTitle() != null && executor instanceof Player) {
+            ((Player) executor).sendTitle(
+                    message.getTitle().render(null, false, placeholders),
+                    message.getSubtitle() != null ? message.getSubtitle().render(null, false, placeholders) : null
+            );
         }
 
-        if (sound.isPresent() && isSoundEnabled(key) && executor instanceof Player) {
-            playSound((Player) executor, sound.get());
+        if (executor instanceof Player) {
+            message.playSound((Player) executor);
         }
     }
     /**
@@ -75,160 +84,58 @@ public class MessageManager<T extends PhantomVoting> {
      * @param lines The lines of the message.
      * @param placeholders The placeholders to replace in the message.
      */
-    private void sendVoteMessage(Player player, List<String> lines, String... placeholders) {
-        LegacyComponentSerializer legacySerializer = LegacyComponentSerializer.builder().hexColors().build();
-        for (String line : lines) {
+    private void sendVoteMessage(Player player, List<ComponentTemplate> lines, String... placeholders) {
+        for (ComponentTemplate line : lines) {
             if (line.isEmpty()) continue;
-            String processedLine = Color.hex(PlaceholderAPI.setPlaceholders(player, MessageParser.parse(line, placeholders)));
-            Component messageComponent = parseLine(processedLine, legacySerializer);
             try {
-                player.sendMessage(messageComponent);
+                player.sendMessage(line.render(player, placeholders));
             } catch (NoSuchMethodError e) {
                 // this means the server is running a version of Spigot that doesn't support hex colors or components
-                player.sendMessage(processedLine);
-            }
-        }
-    }
-    /**
-     * Parses a single line, converting clickable segments defined in the format (Clickable Text)[URL]
-     * into clickable components using the provided legacy serializer.
-     *
-     * @param line The processed line with placeholders replaced.
-     * @param legacySerializer The serializer with hex color support.
-     * @return A Component representing the parsed line.
-     */
-    public Component parseLine(String line, LegacyComponentSerializer legacySerializer) {
-        Matcher matcherTest = CLICKABLE_PATTERN.matcher(line);
-        if (!matcherTest.find()) {
-            return legacySerializer.deserialize(line);
-        }
-
-        TextComponent.Builder builder = Component.text();
-        int lastIndex = 0;
-        Matcher matcher = CLICKABLE_PATTERN.matcher(line);
-        while (matcher.find()) {
-            int start = matcher.start();
-            if (start > lastIndex) {
-                builder.append(legacySerializer.deserialize(line.substring(lastIndex, start)));
+                player.sendMessage(line.renderLegacy(player, placeholders));
             }
-            String clickableText = matcher.group(1);
-            String url = matcher.group(2);
-            Component clickableComponent = legacySerializer.deserialize(clickableText)
-                    .hoverEvent(HoverEvent.showText(Component.text("Click Me!")))
-                    .clickEvent(ClickEvent.openUrl(url));
-            builder.append(clickableComponent);
-            lastIndex = matcher.end();
         }
-        if (lastIndex < line.length()) {
-            builder.append(legacySerializer.deserialize(line.substring(lastIndex)));
-        }
-        return builder.build();
     }
     /**
      * Broadcast a message to all players if enabled in the config.
+     * Parts that are the same for everyone are rendered once, and with a players-per-tick limit set,
+     * large audiences are sent to over several ticks.
      * @param key The key for the message in the config.
      * @param placeholders A map of placeholders to replace in the message.
      */
     public void broadcastMessage(String key, String... placeholders) {
-        Optional<List<String>> message = getMessage(key);
-        Optional<String> sound = getSound(key);
-
-        if (message.isPresent() && isMessageEnabled(key)) {
-            message.get().forEach(line -> {
-                String formattedMessage = MessageParser.parse(line, placeholders);
-                Bukkit.getServer().broadcastMessage(Color.hex(PlaceholderAPI.setPlaceholders(null, formattedMessage)));
-            });
+        CompiledMessage message = messages.get(key);
+        if (message == null) {
+            return;
         }
-
-        if (isTitleEnabled(key)) {
-            Optional<String> title = getTitle(key);
-            Optional<String> subtitle = getSubtitle(key);
-
-            plugin.getPlayerManager().getPlayers().forEach(player -> {
-                title.ifPresent(titleString -> player.sendTitle(Color.hex(MessageParser.parseKeyedValues(titleString, placeholders)), subtitle.map(s -> Color.hex(MessageParser.parse(s, placeholders))).orElse(null)));
-            });
+        Broadcast broadcast = new Broadcast(message, placeholders);
+        if (broadcast.isEmpty()) {
+            return;
         }
 
-        if (sound.isPresent() && isSoundEnabled(key)) {
-            plugin.getPlayerManager().getPlayers().forEach(player -> playSound(player, sound.get()));
+        broadcast.deliver(Bukkit.getConsoleSender());
+        List<Player> recipients = new ArrayList<>(plugin.getPlayerManager().getPlayers());
+        int perTick = broadcastPlayersPerTick;
+        if (perTick <= 0 || recipients.size() <= perTick) {
+            recipients.forEach(broadcast::deliver);
+            return;
         }
-    }
-    /**
-     * Get the message from the config.
-     * @param key The key for the message in the config.
-     * @return The message from the config, if available.
-     */
-    private Optional<List<String>> getMessage(String key) {
-        List<String> messages = configurationManager.getConfig("messages").getStringList("Messages." + key + ".Message.Value");
-        if (!messages.isEmpty()) {
-            return Optional.of(messages);
-        } else {
-            return Optional.ofNullable(configurationManager.getConfig("messages").getString("Messages." + key + ".Message.Value"))
-                    .map(Collections::singletonList);
-        }
-    }
-    /**
-     * Get the sound from the config.
-     * @param key The key for the sound in the config.
-     * @return The sound from the config, if available.
-     */
-    private Optional<String> getSound(String key) {
-        return Optional.ofNullable(configurationManager.getConfig("messages").getString("Messages." + key + ".Sound.Value"));
-    }
-    /**
-     * Get the title from the config.
-     * @param key The key for the title in the config.
-     * @return The title from the config, if available.
-     */
-    private Optional<String> getTitle(String key) {
-        return Optional.ofNullable(configurationManager.getConfig("messages").getString("Messages." + key + ".Title.Title"));
-    }
-    /**
-     * Get the subtitle from the config.
-     * @param key The key for the subtitle in the config.
-     * @return The subtitle from the config, if available.
-     */
-    private Optional<String> getSubtitle(String key) {
-        return Optional.ofNullable(configurationManager.getConfig("messages").getString("Messages." + key + ".Title.Subtitle"));
-    }
-    /**
-     * Check if the message is enabled.
-     * @param key The key for the message in the config.
-     * @return True if the message is enabled, false otherwise.
-     */
-    private boolean isMessageEnabled(String key) {
-        return configurationManager.getConfig("messages").getBoolean("Messages." + key + ".Message.Enable", false);
-    }
-    /**
-     * Check if the sound is enabled.
-     * @param key The key for the sound in the config.
-     * @return True if the sound is enabled, false otherwise.
-     */
-    private boolean isSoundEnabled(String key) {
-        return configurationManager.getConfig("messages").getBoolean("Messages." + key + ".Sound.Enable", false);
-    }
-    /**
-     * Check if the title is enabled.
-     * @param key The key for the title in the config.
-     * @return True if the title is enabled, false otherwise.
-     */
-    private boolean isTitleEnabled(String key) {
-        return configurationManager.getConfig("messages").getBoolean("Messages." + key + ".Title.Enable", false);
-    }
-    /**
-     * Play the sound for the player.
-     * @param player The player to play the sound to.
-     * @param soundData The sound data in the format: "sound;volume;pitch".
-     */
-    private void playSound(Player player, String soundData) {
-        String[] parts = soundData.split(";");
-        if (parts.length >= 3) {
-            String soundName = parts[0];
-            float volume = Float.parseFloat(parts[1]);
-            float pitch = Float.parseFloat(parts[2]);
 
-            Sound sound = Sound.valueOf(soundName);
-            player.playSound(player, sound, volume, pitch);
-        }
+        new BukkitRunnable() {
+            private int next = 0;
+
+            @Override
+            public void run() {
+                int end = Math.min(next + perTick, recipients.size());
+                for (; next < end; next++) {
+                    Player player = recipients.get(next);
+                    if (player.isOnline()) {
+                        broadcast.deliver(player);
+                    }
+                }
+                if (next >= recipients.size()) {
+                    cancel();
+                }
+            }
+        }.runTaskTimer(plugin, 0L, 1L);
     }
 }
@@ -2,7 +2,7 @@ package me.fergs.phantomvoting.managers;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import me.fergs.phantomvoting.database.VoteStorage;
-import me.fergs.phantomvoting.enums.PlaceholderType;
+import me.fergs.phantomvoting.placeholders.PlaceholderResolver;
 import me.fergs.phantomvoting.utils.ConsoleUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -10,17 +10,16 @@ import org.jetbrains.annotations.NotNull;
 
 public class PlaceholderManager extends PlaceholderExpansion {
 
-    private final VoteStorage voteStorage;
-    private final VotePartyManager votePartyManager;
+    private final PlaceholderResolver resolver;
     /**
      * Creates a new PlaceholderManager.
      *
      * @param voteStorage      The vote storage.
      * @param votePartyManager The vote party manager.
+     * @param cacheMillis      How long a resolved value is reused for, in milliseconds.
      */
-    public PlaceholderManager(VoteStorage voteStorage, VotePartyManager votePartyManager) {
-        this.voteStorage = voteStorage;
-        this.votePartyManager = votePartyManager;
+    public PlaceholderManager(VoteStorage voteStorage, VotePartyManager votePartyManager, long cacheMillis) {
+        this.resolver = new PlaceholderResolver(voteStorage, votePartyManager, cacheMillis);
     }
     /**
      * Registers the placeholders.
@@ -77,19 +76,14 @@ public class PlaceholderManager extends PlaceholderExpansion {
      */
     @Override
     public String onPlaceholderRequest(Player player, @NotNull String identifier) {
-        if (identifier.contains("top_player")) {
-            return PlaceholderType.TOP_PLAYER.getValue(voteStorage, votePartyManager, player, identifier.substring(identifier.lastIndexOf("_") + 1));
-        }
-
-        if (identifier.contains("top_votes")) {
-            return PlaceholderType.TOP_VOTES.getValue(voteStorage, votePartyManager, player, identifier.substring(identifier.lastIndexOf("_") + 1));
-        }
-
-        PlaceholderType type = PlaceholderType.fromIdentifier(identifier);
-        if (type == null) {
-            return "0";
-        }
-
-        return type.getValue(voteStorage, votePartyManager, player, null);
+        return resolver.resolve(player, identifier);
+    }
+    /**
+     * Gets the resolver that compiles identifiers and caches values.
+     *
+     * @return The placeholder resolver.
+     */
+    public PlaceholderResolver getResolver() {
+        return resolver;
     }
 }
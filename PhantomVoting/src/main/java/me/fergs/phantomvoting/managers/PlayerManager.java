@@ -2,6 +2,7 @@ package me.fergs.phantomvoting.managers;
 
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import me.fergs.phantomvoting.PhantomVoting;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.Set;
@@ -9,30 +10,48 @@ import java.util.Set;
 public class PlayerManager<T extends PhantomVoting> {
     private final T plugin;
     private final Set<Player> players = new ObjectOpenHashSet<>();
+    private final long evictionGraceTicks;
     /**
-     * Constructs a PlayerManager for managing players.
+     * Constructs a PlayerManager for managing players, adding anyone already online.
      *
      * @param plugin the plugin instance used for player management
      */
     public PlayerManager(final T plugin) {
         this.plugin = plugin;
+        this.evictionGraceTicks = Math.max(0, plugin.getConfigurationManager().getConfig("config").getInt("Profile-Cache.Eviction-Grace", 60)) * 20L;
+        Bukkit.getOnlinePlayers().forEach(this::addPlayer);
     }
 
     /**
-     * Adds a player to the set of players.
+     * Adds a player to the set of players, resumes any vote party rewards waiting for them,
+     * and loads their vote record and claims into the cache off the server thread.
      *
      * @param player the player to add
      */
     public void addPlayer(final Player player) {
         this.players.add(player);
+        plugin.getVotePartyManager().getRewardDispatcher().release(player.getUniqueId());
+        plugin.getVoteStorage().beginLoadClaims(player.getUniqueId());
+        plugin.getVoteStorage().loadClaims(player.getUniqueId());
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> plugin.getVoteStorage().loadCachedProfile(player.getUniqueId()));
     }
     /**
-     * Removes a player from the set of players.
+     * Removes a player from the set of players, evicting their cached vote record and claims
+     * if they have not rejoined once the grace period is over.
      *
      * @param player the player to remove
      */
     public void removePlayer(final Player player) {
         this.players.remove(player);
+        if (plugin.getPlaceholderManager() != null) {
+            plugin.getPlaceholderManager().getResolver().invalidate(player.getUniqueId());
+        }
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (Bukkit.getPlayer(player.getUniqueId()) == null) {
+                plugin.getVoteStorage().evictCachedProfile(player.getUniqueId());
+                plugin.getVoteStorage().evictClaims(player.getUniqueId());
+            }
+        }, evictionGraceTicks);
     }
     /**
      * Retrieves the set of players.
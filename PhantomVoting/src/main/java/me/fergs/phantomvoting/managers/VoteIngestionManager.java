@@ -0,0 +1,492 @@
+package me.fergs.phantomvoting.managers;
+
+import me.fergs.phantomvoting.PhantomVoting;
+import me.fergs.phantomvoting.config.YamlConfigFile;
+import me.fergs.phantomvoting.database.PendingVoteStorage;
+import me.fergs.phantomvoting.objects.VoteRewardGroup;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Processes received votes in stages, so that the server thread only dispatches rewards.
+ * <p>
+ * Votes are stored and their rewards rolled on a bounded worker pool, then handed back to the
+ * server thread through a bounded dispatch queue that is drained a few votes per tick.
+ * Workers never wait for the database: a vote's rewards are queued when its write completes. Each vote holds
+ * a dispatch permit from the time its write is submitted until its rewards are dispatched, so the workers
+ * only block once the dispatch queue's capacity is taken up. When the worker queue is full the vote is never
+ * processed on the calling thread, which is usually the server thread. It is spilled to the offline vote
+ * storage from an async task instead, and rewarded when the player next joins.
+ *
+ * @param <T> The main plugin class.
+ */
+public class VoteIngestionManager<T extends PhantomVoting> {
+    private final T plugin;
+    private final ThreadPoolExecutor executor;
+    private final BlockingQueue<VoteDispatch> dispatchQueue;
+    private final Semaphore dispatchPermits;
+    private final int dispatchCapacity;
+    private final BukkitTask dispatchTask;
+    private final AtomicInteger spilledVotes = new AtomicInteger();
+    private final AtomicInteger droppedTasks = new AtomicInteger();
+    private final AtomicInteger lostOfflineVotes = new AtomicInteger();
+    private BukkitTask compactionTask;
+    private volatile int maxDispatchesPerTick;
+    private volatile boolean offlineVotesEnabled;
+    private volatile int offlineRewardsPerTick;
+    private volatile int offlineWriteRetries;
+    private volatile List<String> defaultCommands = Collections.emptyList();
+    private volatile List<VoteRewardGroup> rewardGroups = Collections.emptyList();
+    private volatile Sound voteSound;
+    /**
+     * Creates a new VoteIngestionManager instance and starts the dispatch task.
+     *
+     * @param plugin The main plugin instance.
+     */
+    public VoteIngestionManager(T plugin) {
+        this.plugin = plugin;
+        YamlConfigFile config = plugin.getConfigurationManager().getConfig("config");
+        int workerThreads = Math.max(1, config.getInt("Vote-Processing.Worker-Threads", 2));
+        int queueCapacity = Math.max(1, config.getInt("Vote-Processing.Queue-Capacity", 1000));
+        int dispatchCapacity = Math.max(1, config.getInt("Vote-Processing.Dispatch-Queue-Capacity", 1000));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "PhantomVoting-Vote-Worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new SpillPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.dispatchQueue = new ArrayBlockingQueue<>(dispatchCapacity);
+        this.dispatchPermits = new Semaphore(dispatchCapacity);
+        this.dispatchCapacity = dispatchCapacity;
+        reloadRewards();
+        this.dispatchTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> drainDispatchQueue(maxDispatchesPerTick), 1L, 1L);
+        scheduleCompaction();
+    }
+    /**
+     * Schedules the removal of offline votes older than the configured expiry.
+     */
+    private void scheduleCompaction() {
+        if (compactionTask != null) {
+            compactionTask.cancel();
+            compactionTask = null;
+        }
+        if (!offlineVotesEnabled) {
+            return;
+        }
+        YamlConfigFile config = plugin.getConfigurationManager().getConfig("config");
+        long maxAgeMillis = TimeUnit.DAYS.toMillis(Math.max(1, config.getLong("Offline-Votes.Expire-After-Days", 30)));
+        long interval = 20L * Math.max(60, config.getLong("Offline-Votes.Compaction-Interval", 3600));
+        compactionTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> plugin.getVoteStorage().getPendingVoteStorage().compact(maxAgeMillis)
+                .whenComplete((removed, error) -> {
+                    if (error != null) {
+                        Bukkit.getLogger().warning("[PhantomVoting] Could not remove expired offline votes: " + error.getMessage());
+                    } else if (removed > 0) {
+                        Bukkit.getLogger().info("[PhantomVoting] Removed " + removed + " expired offline vote(s).");
+                    }
+                }), 20L * 60, interval);
+    }
+    /**
+     * Caches the vote rewards, sound and per-tick dispatch limit from the configuration.
+     */
+    public void reloadRewards() {
+        YamlConfigFile config = plugin.getConfigurationManager().getConfig("config");
+        maxDispatchesPerTick = Math.max(1, config.getInt("Vote-Processing.Max-Dispatches-Per-Tick", 20));
+        offlineVotesEnabled = config.getBoolean("Offline-Votes.Enabled", true);
+        offlineRewardsPerTick = Math.max(1, config.getInt("Offline-Votes.Rewards-Per-Tick", 2));
+        offlineWriteRetries = Math.max(0, config.getInt("Offline-Votes.Write-Retries", 3));
+        if (dispatchTask != null) {
+            scheduleCompaction();
+        }
+        defaultCommands = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(config.getStringList("Rewards.Default.Commands"))));
+
+        List<VoteRewardGroup> groups = new ArrayList<>();
+        ConfigurationSection voteRewardsSection = config.getConfigurationSection("Rewards.VoteRewards");
+        if (voteRewardsSection != null) {
+            for (String rewardKey : voteRewardsSection.getKeys(false)) {
+                ConfigurationSection rewardSection = voteRewardsSection.getConfigurationSection(rewardKey);
+                if (rewardSection == null) {
+                    continue;
+                }
+                String permission = rewardSection.contains("Permission") ? rewardSection.getString("Permission", "phantomvoting.default") : null;
+                groups.add(new VoteRewardGroup(rewardSection.getDouble("Chance", 100), permission, new ArrayList<>(new LinkedHashSet<>(rewardSection.getStringList("Commands")))));
+            }
+        }
+        rewardGroups = Collections.unmodifiableList(groups);
+
+        Sound sound = null;
+        String soundType = config.getString("Sound.soundType", "");
+        if (config.getBoolean("Sound.enabled") && soundType != null && !soundType.isEmpty()) {
+            try {
+                sound = Sound.valueOf(soundType);
+            } catch (IllegalArgumentException e) {
+                Bukkit.getLogger().warning("[PhantomVoting] Unknown vote sound: " + soundType);
+            }
+        }
+        voteSound = sound;
+    }
+    /**
+     * Queues a received vote for processing.
+     *
+     * @param playerUUID The UUID of the player who voted.
+     * @param playerName The name of the player who voted.
+     */
+    public void submit(UUID playerUUID, String playerName) {
+        executor.execute(new QueuedVote(playerUUID, playerName, System.currentTimeMillis(), false, () -> process(playerUUID, playerName)));
+    }
+    /**
+     * Stores a vote for a player who is offline, to be rewarded when they next join. The vote is announced and
+     * counted towards the vote party now, so only the player's own rewards wait for them to join.
+     * Must be called on the server thread.
+     *
+     * @param playerName The name of the player who voted.
+     */
+    public void submitOffline(String playerName) {
+        if (!offlineVotesEnabled) {
+            return;
+        }
+        final OfflinePlayer cached = Bukkit.getOfflinePlayerIfCached(playerName);
+        final UUID playerUUID = cached != null ? cached.getUniqueId() : null;
+        final long timestamp = System.currentTimeMillis();
+        final PendingVoteStorage pendingVoteStorage = plugin.getVoteStorage().getPendingVoteStorage();
+
+        pendingVoteStorage.markPending(playerUUID, playerName);
+        executor.execute(new QueuedVote(playerUUID, playerName, timestamp, true, () -> storeOfflineVote(playerUUID, playerName, timestamp, 0)));
+        announce(playerName);
+    }
+    /**
+     * Stores a vote the worker pool had no room for as an offline vote. The write runs on the storage backend's
+     * threads, so the calling thread never touches the database. The vote is announced and counted towards the
+     * vote party straight away, and the player's own rewards are given when they next join.
+     *
+     * @param playerUUID The UUID of the player who voted, or null if it is not known.
+     * @param playerName The name of the player who voted.
+     * @param timestamp The time of the vote, in epoch milliseconds.
+     * @param announce Whether the vote still has to be announced, false if it was already stored as an offline vote.
+     */
+    private void spill(UUID playerUUID, String playerName, long timestamp, boolean announce) {
+        plugin.getVoteStorage().getPendingVoteStorage().markPending(playerUUID, playerName);
+        storeOfflineVote(playerUUID, playerName, timestamp, 0);
+        if (announce && Bukkit.isPrimaryThread()) {
+            announce(playerName);
+        } else if (announce) {
+            Bukkit.getScheduler().runTask(plugin, () -> announce(playerName));
+        }
+        if (spilledVotes.incrementAndGet() == 1) {
+            Bukkit.getLogger().warning("[PhantomVoting] The vote queue is full, votes are being stored as offline votes and rewarded on the player's next join. Consider raising Vote-Processing.Queue-Capacity.");
+        }
+    }
+    /**
+     * Writes an offline vote to the pending votes. Never waits for the database. A write that fails is retried
+     * a few seconds later, up to the configured number of retries, and only then logged as lost.
+     *
+     * @param playerUUID The UUID of the player who voted, or null if it is not known.
+     * @param playerName The name of the player who voted.
+     * @param timestamp The time of the vote, in epoch milliseconds.
+     * @param attempt The number of earlier attempts.
+     */
+    private void storeOfflineVote(UUID playerUUID, String playerName, long timestamp, int attempt) {
+        plugin.getVoteStorage().getPendingVoteStorage().addPendingVote(playerUUID, playerName, timestamp).whenComplete((ignored, error) -> {
+            if (error == null) {
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (attempt < offlineWriteRetries && plugin.isEnabled()) {
+                plugin.getLogger().warning("Could not store an offline vote for " + playerName + ", retrying: " + cause.getMessage());
+                Bukkit.getScheduler().runTaskLater(plugin, () -> storeOfflineVote(playerUUID, playerName, timestamp, attempt + 1), 100L * (attempt + 1));
+                return;
+            }
+            lostOfflineVotes.incrementAndGet();
+            plugin.getLogger().log(Level.SEVERE, "Could not store an offline vote for " + playerName + " cast at " + timestamp + ", it will not be rewarded.", cause);
+        });
+    }
+    /**
+     * Claims and rewards any votes the player received while offline.
+     * The in-memory index is checked first, so players with nothing pending cost no database work.
+     * The votes were already announced and counted towards the vote party when they arrived, so only the
+     * player's own rewards are given, followed by one message saying how many votes they were for.
+     *
+     * @param player The player who joined.
+     */
+    public void claimPendingVotes(Player player) {
+        final UUID playerUUID = player.getUniqueId();
+        final String playerName = player.getName();
+        final PendingVoteStorage pendingVoteStorage = plugin.getVoteStorage().getPendingVoteStorage();
+        if (!pendingVoteStorage.hasPendingVotes(playerUUID, playerName)) {
+            return;
+        }
+
+        plugin.getVoteStorage().claimPendingVotes(playerUUID, playerName).thenAccept(timestamps -> {
+            if (timestamps.isEmpty()) {
+                return;
+            }
+
+            int perTick = offlineRewardsPerTick;
+            for (int i = 0; i < timestamps.size(); i++) {
+                VoteDispatch dispatch = new VoteDispatch(playerUUID, playerName, rollRewards());
+                Bukkit.getScheduler().runTaskLater(plugin, () -> reward(dispatch, false), 1L + i / perTick);
+            }
+            String votes = String.valueOf(timestamps.size());
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                Player online = Bukkit.getPlayer(playerUUID);
+                if (online != null) {
+                    plugin.getMessageManager().sendMessage(online, "OFFLINE_VOTES_CLAIMED", "%votes%", votes);
+                }
+            }, 1L + (timestamps.size() - 1) / perTick);
+        });
+    }
+    /**
+     * Rolls the chance of every reward group.
+     *
+     * @return The groups that were won, before permission checks.
+     */
+    private List<VoteRewardGroup> rollRewards() {
+        List<VoteRewardGroup> wonGroups = new ArrayList<>();
+        for (VoteRewardGroup group : rewardGroups) {
+            if (ThreadLocalRandom.current().nextInt(100) + 1 <= group.getChance()) {
+                wonGroups.add(group);
+            }
+        }
+        return wonGroups;
+    }
+    /**
+     * Submits a vote's write and rolls its chance-based rewards, then hands it to the server thread once the
+     * write completes. Blocks only while every dispatch permit is taken.
+     *
+     * @param playerUUID The UUID of the player who voted.
+     * @param playerName The name of the player who voted.
+     */
+    private void process(UUID playerUUID, String playerName) {
+        dispatchPermits.acquireUninterruptibly();
+        VoteDispatch dispatch = new VoteDispatch(playerUUID, playerName, rollRewards());
+        plugin.getVoteStorage().addVote(playerUUID).whenComplete((profile, error) -> handOff(dispatch));
+    }
+    /**
+     * Hands a processed vote to the server thread. Never blocks, because the vote holds a dispatch permit
+     * and there are no more permits than the dispatch queue has room for.
+     *
+     * @param dispatch The processed vote.
+     */
+    private void handOff(VoteDispatch dispatch) {
+        dispatchQueue.offer(dispatch);
+    }
+    /**
+     * Dispatches up to the given number of processed votes. Must be called on the server thread.
+     *
+     * @param limit The maximum number of votes to dispatch.
+     */
+    private void drainDispatchQueue(int limit) {
+        VoteDispatch dispatch;
+        for (int i = 0; i < limit && (dispatch = dispatchQueue.poll()) != null; i++) {
+            dispatchPermits.release();
+            dispatch(dispatch);
+        }
+    }
+    /**
+     * Broadcasts a processed vote, runs its rewards and counts it towards the vote party. Must be called on the
+     * server thread.
+     *
+     * @param dispatch The processed vote.
+     */
+    private void dispatch(VoteDispatch dispatch) {
+        plugin.getMessageManager().broadcastMessage("VOTE_RECEIVED", "%player%", dispatch.playerName);
+        reward(dispatch, true);
+        countVoteParty();
+    }
+    /**
+     * Broadcasts a vote that is stored for later and counts it towards the vote party. Must be called on the
+     * server thread.
+     *
+     * @param playerName The name of the player who voted.
+     */
+    private void announce(String playerName) {
+        plugin.getMessageManager().broadcastMessage("VOTE_RECEIVED", "%player%", playerName);
+        countVoteParty();
+    }
+    /**
+     * Runs a vote's default commands and the reward groups it won. Must be called on the server thread.
+     *
+     * @param dispatch The processed vote.
+     * @param playSound Whether to play the vote sound to the player.
+     */
+    private void reward(VoteDispatch dispatch, boolean playSound) {
+        final String playerName = dispatch.playerName;
+        final Player player = Bukkit.getPlayer(dispatch.playerUUID);
+
+        for (final String command : defaultCommands) {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.replace("%player%", playerName));
+        }
+
+        Sound sound = voteSound;
+        if (playSound && sound != null && player != null) {
+            player.playSound(player, sound, 1.0f, 1.0f);
+        }
+
+        for (final VoteRewardGroup group : dispatch.wonGroups) {
+            if (group.getPermission() != null && (player == null || !player.hasPermission(group.getPermission()))) {
+                continue;
+            }
+            for (final String command : group.getCommands()) {
+                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.replace("%player%", playerName));
+            }
+        }
+    }
+    /**
+     * Counts a vote towards the vote party and refreshes the bossbar. Must be called on the server thread.
+     */
+    private void countVoteParty() {
+        plugin.getVotePartyManager().addVote();
+        if (plugin.getConfigurationManager().isModuleEnabled("bossbar")) {
+            plugin.getBossbarManager().update();
+        }
+    }
+    /**
+     * Gets the number of votes waiting to be stored.
+     *
+     * @return The worker queue size.
+     */
+    public int getQueuedVotes() {
+        return executor.getQueue().size();
+    }
+    /**
+     * Gets the number of stored votes waiting to be dispatched.
+     *
+     * @return The dispatch queue size.
+     */
+    public int getQueuedDispatches() {
+        return dispatchQueue.size();
+    }
+    /**
+     * Gets the number of votes stored as offline votes because the worker queue was full.
+     *
+     * @return The number of spilled votes since startup.
+     */
+    public int getSpilledVotes() {
+        return spilledVotes.get();
+    }
+    /**
+     * Gets the number of offline votes that could not be written, even after retrying.
+     *
+     * @return The number of lost offline votes since startup.
+     */
+    public int getLostOfflineVotes() {
+        return lostOfflineVotes.get();
+    }
+    /**
+     * Gets the number of tasks that could not be queued or spilled, because the pool had shut down.
+     *
+     * @return The number of dropped tasks since startup.
+     */
+    public int getDroppedTasks() {
+        return droppedTasks.get();
+    }
+    /**
+     * Stops accepting votes and finishes every queued vote, including writes still in flight.
+     * Must be called on the server thread.
+     */
+    public void shutdown() {
+        dispatchTask.cancel();
+        if (compactionTask != null) {
+            compactionTask.cancel();
+        }
+        executor.shutdown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        try {
+            while (!executor.awaitTermination(50, TimeUnit.MILLISECONDS) && System.nanoTime() < deadline) {
+                drainDispatchQueue(Integer.MAX_VALUE);
+            }
+            while (dispatchPermits.availablePermits() < dispatchCapacity && System.nanoTime() < deadline) {
+                VoteDispatch dispatch = dispatchQueue.poll(50, TimeUnit.MILLISECONDS);
+                if (dispatch != null) {
+                    dispatchPermits.release();
+                    dispatch(dispatch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainDispatchQueue(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Keeps rejected work off the calling thread: votes are spilled to the offline vote storage, and anything
+     * else, or anything rejected after shutdown, is logged and counted.
+     */
+    private final class SpillPolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor pool) {
+            if (!pool.isShutdown() && plugin.isEnabled()) {
+                if (task instanceof QueuedVote) {
+                    QueuedVote vote = (QueuedVote) task;
+                    spill(vote.playerUUID, vote.playerName, vote.timestamp, !vote.announced);
+                    return;
+                }
+            }
+            droppedTasks.incrementAndGet();
+            Bukkit.getLogger().warning("[PhantomVoting] The vote queue is full or shut down, a task was dropped.");
+        }
+    }
+
+    /**
+     * A vote waiting for a worker to store it, keeping what is needed to spill it if the pool is full.
+     */
+    private static final class QueuedVote implements Runnable {
+        private final UUID playerUUID;
+        private final String playerName;
+        private final long timestamp;
+        private final boolean announced;
+        private final Runnable work;
+
+        private QueuedVote(UUID playerUUID, String playerName, long timestamp, boolean announced, Runnable work) {
+            this.playerUUID = playerUUID;
+            this.playerName = playerName;
+            this.timestamp = timestamp;
+            this.announced = announced;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.run();
+        }
+    }
+
+    /**
+     * A stored vote waiting for its rewards to be dispatched.
+     */
+    private static final class VoteDispatch {
+        private final UUID playerUUID;
+        private final String playerName;
+        private final List<VoteRewardGroup> wonGroups;
+
+        private VoteDispatch(UUID playerUUID, String playerName, List<VoteRewardGroup> wonGroups) {
+            this.playerUUID = playerUUID;
+            this.playerName = playerName;
+            this.wonGroups = wonGroups;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import me.fergs.phantomvoting.config.YamlConfigFile;
 import me.fergs.phantomvoting.database.VoteStorage;
 import me.fergs.phantomvoting.objects.voteparty.ChanceCommandGroup;
 import me.fergs.phantomvoting.objects.voteparty.PermissionCommandGroup;
+import me.fergs.phantomvoting.objects.voteparty.RewardJob;
+import me.fergs.phantomvoting.objects.voteparty.VotePartyCounter;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 
@@ -12,12 +14,13 @@ import java.util.*;
 
 
 public class VotePartyManager {
-    private int voteThreshold;
-    private int currentVoteCount = 0;
+    private volatile int voteThreshold;
+    private final VotePartyCounter currentVoteCount;
     private final VoteStorage voteStorage;
     private final PhantomVoting plugin;
     private final YamlConfigFile votepartyConfig;
-    private boolean votePartyEnabled;
+    private volatile boolean votePartyEnabled;
+    private final VotePartyRewardDispatcher rewardDispatcher;
 
     private final Set<String> cachedCommands = new HashSet<>();
     private final Map<String, PermissionCommandGroup> cachedPermissionCommands = new HashMap<>();
@@ -33,18 +36,12 @@ public class VotePartyManager {
         this.voteThreshold = votepartyConfig.getInt("Settings.Required", 100);
         this.plugin = plugin;
         this.voteStorage = plugin.getVoteStorage();
+        this.currentVoteCount = new VotePartyCounter(voteStorage.getGlobalVoteCounter());
         this.votePartyEnabled = votepartyConfig.getBoolean("Settings.Enabled", true);
-        loadVoteCount();
+        this.rewardDispatcher = new VotePartyRewardDispatcher(plugin, votepartyConfig.getLong("Settings.Reward-Dispatch.Time-Budget", 2000L));
         cacheCommands();
     }
 
-    /**
-     * Loads the current vote count from storage.
-     */
-    private void loadVoteCount() {
-        this.currentVoteCount = voteStorage.getCurrentGlobalVoteCount();
-    }
-
     /**
      * Caches the commands and command groups to improve performance.
      */
@@ -76,22 +73,55 @@ public class VotePartyManager {
 
     /**
      * Adds a vote to the count and triggers a vote party if the threshold is met.
+     * Safe to call from any thread, each threshold crossed triggers exactly one vote party.
      */
     public void addVote() {
         if (!votePartyEnabled) {
             return;
         }
-        currentVoteCount++;
-        voteStorage.setCurrentGlobalVoteCount(currentVoteCount);
+        addVotes(1);
+    }
 
-        if (currentVoteCount >= voteThreshold) {
+    /**
+     * Adds votes to the count without locking. Whoever's update crosses the threshold triggers the vote party,
+     * and votes past the threshold carry over to the next one.
+     *
+     * @param amount The number of votes to add, may be negative.
+     */
+    private void addVotes(int amount) {
+        triggerVoteParties(currentVoteCount.add(amount, currentThreshold()));
+    }
+
+    /**
+     * Gets the threshold to count against. While vote parties are disabled the count never completes one.
+     *
+     * @return The threshold.
+     */
+    private int currentThreshold() {
+        return votePartyEnabled ? Math.max(1, voteThreshold) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Triggers vote parties on the server thread.
+     *
+     * @param parties The number of vote parties to trigger.
+     */
+    private void triggerVoteParties(long parties) {
+        if (parties <= 0) {
+            return;
+        }
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(plugin, () -> triggerVoteParties(parties));
+            return;
+        }
+        for (long i = 0; i < parties; i++) {
             triggerVoteParty();
-            resetVoteCount();
         }
     }
 
     /**
-     * Triggers the vote party by executing configured commands for all online players.
+     * Triggers the vote party by queueing the configured commands for all online players.
+     * Chances and permissions are settled now, and the commands are run over the next ticks.
      */
     private void triggerVoteParty() {
         if (!votePartyEnabled) {
@@ -100,35 +130,35 @@ public class VotePartyManager {
 
         plugin.getMessageManager().broadcastMessage("VOTE_PARTY_TRIGGERED");
 
+        List<RewardJob> jobs = new ArrayList<>();
         plugin.getPlayerManager().getPlayers().forEach(player -> {
-            for (final String command : cachedCommands) {
-                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.replace("%player%", player.getName()));
-            }
+            List<String> commands = new ArrayList<>(cachedCommands);
 
             cachedChanceCommands.forEach(group -> {
                 if (Math.random() * 100 <= group.getChance()) {
-                    group.getCommands().forEach(command ->
-                            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.replace("%player%", player.getName()))
-                    );
+                    commands.addAll(group.getCommands());
                 }
             });
 
             cachedPermissionCommands.values().forEach(group -> {
                 if (player.hasPermission(group.getPermission())) {
-                    group.getCommands().forEach(command ->
-                            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.replace("%player%", player.getName()))
-                    );
+                    commands.addAll(group.getCommands());
                 }
             });
+
+            if (!commands.isEmpty()) {
+                commands.replaceAll(command -> command.replace("%player%", player.getName()));
+                jobs.add(new RewardJob(player.getUniqueId(), player.getName(), commands));
+            }
         });
+        rewardDispatcher.enqueue(jobs);
     }
 
     /**
      * Resets the vote count after a vote party.
      */
     private void resetVoteCount() {
-        currentVoteCount = 0;
-        voteStorage.setCurrentGlobalVoteCount(currentVoteCount);
+        currentVoteCount.set(0, currentThreshold());
     }
 
     /**
@@ -137,7 +167,16 @@ public class VotePartyManager {
      * @return The current vote count.
      */
     public int getCurrentVoteCount() {
-        return currentVoteCount;
+        return currentVoteCount.get();
+    }
+
+    /**
+     * Gets the dispatcher that gives out vote party rewards.
+     *
+     * @return The reward dispatcher.
+     */
+    public VotePartyRewardDispatcher getRewardDispatcher() {
+        return rewardDispatcher;
     }
 
     /**
@@ -156,6 +195,7 @@ public class VotePartyManager {
         this.votepartyConfig.reload();
         this.voteThreshold = votepartyConfig.getInt("Settings.Required", 100);
         this.votePartyEnabled = votepartyConfig.getBoolean("Settings.Enabled", true);
+        this.rewardDispatcher.setBudgetMicros(votepartyConfig.getLong("Settings.Reward-Dispatch.Time-Budget", 2000L));
         cacheCommands();
     }
 
@@ -173,26 +213,21 @@ public class VotePartyManager {
     }
 
     /**
-     * Forces the vote count to a specific amount.
+     * Adds an amount to the vote count, triggering a vote party for each threshold crossed.
      *
-     * @param amount The amount to set the vote count to.
+     * @param amount The amount to add, may be negative.
      */
     public void forceAddAmount(int amount) {
-        currentVoteCount += amount;
-        voteStorage.setCurrentGlobalVoteCount(currentVoteCount);
+        addVotes(amount);
     }
 
     /**
-     * Sets the current vote count.
+     * Sets the current vote count. If it is at or past the threshold, a vote party is triggered for each
+     * threshold crossed and the rest is kept.
      *
      * @param currentVoteCount The current vote count.
      */
     public void setCurrentVoteCount(int currentVoteCount) {
-        this.currentVoteCount = currentVoteCount;
-        if (currentVoteCount >= voteThreshold) {
-            triggerVoteParty();
-            currentVoteCount -= voteThreshold;
-        }
-        voteStorage.setCurrentGlobalVoteCount(currentVoteCount);
+        triggerVoteParties(this.currentVoteCount.set(currentVoteCount, currentThreshold()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,287 @@
+package me.fergs.phantomvoting.managers;
+
+import me.fergs.phantomvoting.PhantomVoting;
+import me.fergs.phantomvoting.objects.voteparty.RewardJob;
+import me.fergs.phantomvoting.utils.ConsoleUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives out vote party rewards over several ticks instead of all at once.
+ * <p>
+ * Each player's rewards are queued as a {@link RewardJob}, and every tick commands are run until the
+ * configured time budget is spent. Players who log out before their turn keep their rewards until they
+ * rejoin. Whatever is left is written to a file as it is given out, and on shutdown, so a reload or restart
+ * resumes where it stopped instead of paying anyone twice.
+ */
+public class VotePartyRewardDispatcher {
+    private static final long CHECKPOINT_INTERVAL_TICKS = 20L;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private final PhantomVoting plugin;
+    private final Path stateFile;
+    private final Deque<RewardJob> queue = new ArrayDeque<>();
+    private final Map<UUID, List<RewardJob>> waiting = new HashMap<>();
+    private final BukkitTask task;
+    private final Object writeLock = new Object();
+    private volatile long budgetNanos;
+    private long ticks;
+    private long lastProgressLog;
+    private int totalJobs;
+    private int completedJobs;
+    private boolean dirty;
+    private long stateVersion;
+    private long writtenVersion;
+    /**
+     * Creates the dispatcher, resuming any rewards left over from before a reload or restart.
+     *
+     * @param plugin       The main plugin instance.
+     * @param budgetMicros The time to spend running commands each tick, in microseconds.
+     */
+    public VotePartyRewardDispatcher(PhantomVoting plugin, long budgetMicros) {
+        this.plugin = plugin;
+        this.stateFile = new File(plugin.getDataFolder(), "voteparty-rewards.yml").toPath();
+        setBudgetMicros(budgetMicros);
+        loadState();
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+    /**
+     * Sets the time to spend running commands each tick. At least one command runs per tick regardless.
+     *
+     * @param budgetMicros The budget in microseconds.
+     */
+    public void setBudgetMicros(long budgetMicros) {
+        this.budgetNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, budgetMicros));
+    }
+    /**
+     * Queues rewards for a vote party. Must be called on the server thread.
+     *
+     * @param jobs The rewards for each player.
+     */
+    public void enqueue(List<RewardJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        if (queue.isEmpty()) {
+            totalJobs = 0;
+            completedJobs = 0;
+        }
+        queue.addAll(jobs);
+        totalJobs += jobs.size();
+        markDirty();
+        lastProgressLog = System.nanoTime();
+        Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eGiving vote party rewards to &6" + jobs.size() + " &eplayers."));
+    }
+    /**
+     * Resumes rewards that were waiting for a player to rejoin. Must be called on the server thread.
+     *
+     * @param uuid The player's UUID.
+     */
+    public void release(UUID uuid) {
+        List<RewardJob> jobs = waiting.remove(uuid);
+        if (jobs != null) {
+            queue.addAll(jobs);
+            markDirty();
+        }
+    }
+    /**
+     * Runs queued commands until this tick's budget is spent.
+     */
+    private void tick() {
+        ticks++;
+        boolean worked = !queue.isEmpty();
+        long start = System.nanoTime();
+        while (!queue.isEmpty()) {
+            RewardJob job = queue.peek();
+            if (Bukkit.getPlayer(job.getUuid()) == null) {
+                queue.poll();
+                waiting.computeIfAbsent(job.getUuid(), key -> new ArrayList<>(1)).add(job);
+            } else {
+                String command = job.nextCommand();
+                if (command != null) {
+                    try {
+                        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+                if (job.isDone()) {
+                    queue.poll();
+                    completedJobs++;
+                }
+            }
+            markDirty();
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+
+        if (worked) {
+            reportProgress();
+        }
+        if (dirty && ticks % CHECKPOINT_INTERVAL_TICKS == 0) {
+            dirty = false;
+            String state = serializeState();
+            long version = stateVersion;
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> writeState(state, version));
+        }
+    }
+    /**
+     * Logs progress every few seconds, and once the queue is empty.
+     */
+    private void reportProgress() {
+        long now = System.nanoTime();
+        if (queue.isEmpty()) {
+            Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eVote party rewards given to &6" + completedJobs + "&e/&6" + totalJobs
+                    + " &eplayers" + (waiting.isEmpty() ? "." : ", &6" + waiting.size() + " &ewill receive theirs when they rejoin.")));
+        } else if (now - lastProgressLog >= PROGRESS_INTERVAL_NANOS) {
+            lastProgressLog = now;
+            Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eVote party rewards: &6" + completedJobs + "&e/&6" + totalJobs + " &eplayers rewarded."));
+        }
+    }
+    /**
+     * Stops dispatching and writes what is left, so it resumes on the next start.
+     */
+    public void shutdown() {
+        task.cancel();
+        writeState(serializeState(), ++stateVersion);
+    }
+    /**
+     * Gets the number of players whose rewards are queued.
+     *
+     * @return The number of queued jobs.
+     */
+    public int getQueuedJobs() {
+        return queue.size();
+    }
+    /**
+     * Gets the number of players whose rewards wait for them to rejoin.
+     *
+     * @return The number of players.
+     */
+    public int getWaitingPlayers() {
+        return waiting.size();
+    }
+    /**
+     * Gets the number of players rewarded in the current or last vote party.
+     *
+     * @return The number of completed jobs.
+     */
+    public int getCompletedJobs() {
+        return completedJobs;
+    }
+    /**
+     * Gets the number of players being rewarded in the current or last vote party.
+     *
+     * @return The number of jobs.
+     */
+    public int getTotalJobs() {
+        return totalJobs;
+    }
+
+    private void markDirty() {
+        dirty = true;
+        stateVersion++;
+    }
+    /**
+     * Writes every job that still has commands left.
+     *
+     * @return The state as YAML.
+     */
+    private String serializeState() {
+        YamlConfiguration state = new YamlConfiguration();
+        int index = 0;
+        for (RewardJob job : queue) {
+            writeJob(state, index++, job);
+        }
+        for (List<RewardJob> jobs : waiting.values()) {
+            for (RewardJob job : jobs) {
+                writeJob(state, index++, job);
+            }
+        }
+        return state.saveToString();
+    }
+
+    private static void writeJob(YamlConfiguration state, int index, RewardJob job) {
+        List<String> commands = job.getRemainingCommands();
+        if (commands.isEmpty()) {
+            return;
+        }
+        String path = "Jobs." + index;
+        state.set(path + ".uuid", job.getUuid().toString());
+        state.set(path + ".name", job.getPlayerName());
+        state.set(path + ".commands", commands);
+    }
+    /**
+     * Writes the state file, unless a newer state has already been written.
+     *
+     * @param state   The state as YAML.
+     * @param version The version of the state.
+     */
+    private void writeState(String state, long version) {
+        synchronized (writeLock) {
+            if (version <= writtenVersion) {
+                return;
+            }
+            try {
+                Files.createDirectories(stateFile.getParent());
+                Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+                Files.write(temp, state.getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                writtenVersion = version;
+            } catch (IOException e) {
+                Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cCould not save vote party rewards: " + e.getMessage()));
+            }
+        }
+    }
+    /**
+     * Queues the jobs left in the state file by the last run.
+     */
+    private void loadState() {
+        if (!Files.exists(stateFile)) {
+            return;
+        }
+        YamlConfiguration state = new YamlConfiguration();
+        try {
+            state.loadFromString(new String(Files.readAllBytes(stateFile), StandardCharsets.UTF_8));
+        } catch (IOException | InvalidConfigurationException e) {
+            Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cCould not load vote party rewards: " + e.getMessage()));
+            return;
+        }
+        ConfigurationSection jobsSection = state.getConfigurationSection("Jobs");
+        if (jobsSection == null) {
+            return;
+        }
+        List<RewardJob> jobs = new ArrayList<>();
+        for (String key : jobsSection.getKeys(false)) {
+            try {
+                jobs.add(new RewardJob(UUID.fromString(jobsSection.getString(key + ".uuid", "")),
+                        jobsSection.getString(key + ".name", ""),
+                        jobsSection.getStringList(key + ".commands")));
+            } catch (IllegalArgumentException e) {
+                Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cSkipping invalid vote party reward &f" + key + "&c."));
+            }
+        }
+        if (!jobs.isEmpty()) {
+            Bukkit.getLogger().info(ConsoleUtil.translateColors("&6[&e!&6] &eResuming vote party rewards left from the last run."));
+            enqueue(jobs);
+        }
+    }
+}
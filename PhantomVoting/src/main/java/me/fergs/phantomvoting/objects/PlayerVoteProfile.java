@@ -0,0 +1,245 @@
+package me.fergs.phantomvoting.objects;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An immutable snapshot of a player's vote record.
+ */
+public class PlayerVoteProfile {
+    private final UUID uuid;
+    private final int dailyCount, weeklyCount, monthlyCount, yearlyCount, allTimeCount;
+    private final LocalDateTime dailyTimestamp, weeklyTimestamp, monthlyTimestamp, yearlyTimestamp;
+    private final int streakCount;
+    private final LocalDate lastVoteDate;
+    /**
+     * Creates a new player vote profile.
+     *
+     * @param uuid             The UUID.
+     * @param dailyCount       The daily vote count.
+     * @param weeklyCount      The weekly vote count.
+     * @param monthlyCount     The monthly vote count.
+     * @param yearlyCount      The yearly vote count.
+     * @param allTimeCount     The all time vote count.
+     * @param dailyTimestamp   The start of the daily period, may be null.
+     * @param weeklyTimestamp  The start of the weekly period, may be null.
+     * @param monthlyTimestamp The start of the monthly period, may be null.
+     * @param yearlyTimestamp  The start of the yearly period, may be null.
+     * @param streakCount      The vote streak.
+     * @param lastVoteDate     The date of the last vote, may be null.
+     */
+    public PlayerVoteProfile(UUID uuid, int dailyCount, int weeklyCount, int monthlyCount, int yearlyCount, int allTimeCount,
+                             LocalDateTime dailyTimestamp, LocalDateTime weeklyTimestamp, LocalDateTime monthlyTimestamp,
+                             LocalDateTime yearlyTimestamp, int streakCount, LocalDate lastVoteDate) {
+        this.uuid = uuid;
+        this.dailyCount = dailyCount;
+        this.weeklyCount = weeklyCount;
+        this.monthlyCount = monthlyCount;
+        this.yearlyCount = yearlyCount;
+        this.allTimeCount = allTimeCount;
+        this.dailyTimestamp = dailyTimestamp;
+        this.weeklyTimestamp = weeklyTimestamp;
+        this.monthlyTimestamp = monthlyTimestamp;
+        this.yearlyTimestamp = yearlyTimestamp;
+        this.streakCount = streakCount;
+        this.lastVoteDate = lastVoteDate;
+    }
+    /**
+     * Gets the vote count for a period, treating an expired period as zero.
+     *
+     * @param type The period ("daily", "weekly", "monthly", "yearly", "all_time").
+     * @param now  The current time.
+     * @return The vote count.
+     */
+    public int getVoteCount(String type, LocalDateTime now) {
+        switch (type) {
+            case "daily":
+                return dailyTimestamp == null || dailyTimestamp.toLocalDate().isBefore(now.toLocalDate()) ? 0 : dailyCount;
+            case "weekly":
+                return weeklyTimestamp == null || weeklyTimestamp.isBefore(now.minusWeeks(1)) ? 0 : weeklyCount;
+            case "monthly":
+                return monthlyTimestamp == null || monthlyTimestamp.isBefore(now.minusMonths(1)) ? 0 : monthlyCount;
+            case "yearly":
+                return yearlyTimestamp == null || yearlyTimestamp.isBefore(now.minusYears(1)) ? 0 : yearlyCount;
+            case "all_time":
+                return allTimeCount;
+            default:
+                return 0;
+        }
+    }
+    /**
+     * Creates a profile for a player with no record.
+     *
+     * @param uuid The UUID.
+     * @return An empty profile.
+     */
+    public static PlayerVoteProfile empty(UUID uuid) {
+        return new PlayerVoteProfile(uuid, 0, 0, 0, 0, 0, null, null, null, null, 0, null);
+    }
+    /**
+     * Applies a single vote the same way the vote upsert does, including the streak.
+     *
+     * @param time The time of the vote.
+     * @return The profile after the vote.
+     */
+    public PlayerVoteProfile withVote(LocalDateTime time) {
+        LocalDate today = time.toLocalDate();
+        int streak = lastVoteDate == null || streakCount == 0 || lastVoteDate.isBefore(today.minusDays(1)) ? 1
+                : lastVoteDate.equals(today.minusDays(1)) ? streakCount + 1
+                : streakCount;
+        return withAddedVotes(time, 1, streak, today);
+    }
+    /**
+     * Applies several votes the same way the add votes update does, leaving the streak untouched.
+     *
+     * @param time   The time of the votes.
+     * @param amount The number of votes.
+     * @return The profile after the votes.
+     */
+    public PlayerVoteProfile withAddedVotes(LocalDateTime time, int amount) {
+        return withAddedVotes(time, amount, streakCount, lastVoteDate);
+    }
+    /**
+     * Removes votes from the all time count.
+     *
+     * @param amount The number of votes.
+     * @return The profile after the removal.
+     */
+    public PlayerVoteProfile withRemovedVotes(int amount) {
+        return new PlayerVoteProfile(uuid, dailyCount, weeklyCount, monthlyCount, yearlyCount, allTimeCount - amount,
+                dailyTimestamp, weeklyTimestamp, monthlyTimestamp, yearlyTimestamp, streakCount, lastVoteDate);
+    }
+    /**
+     * Adds votes to every period, restarting any period that has expired by the time of the votes.
+     *
+     * @param time         The time of the votes.
+     * @param amount       The number of votes.
+     * @param streak       The new streak count.
+     * @param voteDate     The new last vote date.
+     * @return The profile after the votes.
+     */
+    private PlayerVoteProfile withAddedVotes(LocalDateTime time, int amount, int streak, LocalDate voteDate) {
+        boolean daily = isExpired(dailyTimestamp, time.toLocalDate().atStartOfDay());
+        boolean weekly = isExpired(weeklyTimestamp, time.minusWeeks(1));
+        boolean monthly = isExpired(monthlyTimestamp, time.minusMonths(1));
+        boolean yearly = isExpired(yearlyTimestamp, time.minusYears(1));
+        return new PlayerVoteProfile(uuid,
+                daily ? amount : dailyCount + amount,
+                weekly ? amount : weeklyCount + amount,
+                monthly ? amount : monthlyCount + amount,
+                yearly ? amount : yearlyCount + amount,
+                allTimeCount + amount,
+                daily ? time : dailyTimestamp,
+                weekly ? time : weeklyTimestamp,
+                monthly ? time : monthlyTimestamp,
+                yearly ? time : yearlyTimestamp,
+                streak, voteDate);
+    }
+    /**
+     * Checks whether a period started before the cutoff, and so is reset by the next vote.
+     *
+     * @param timestamp The start of the period, may be null.
+     * @param cutoff    The earliest start that has not expired.
+     * @return True if the period has expired.
+     */
+    private static boolean isExpired(LocalDateTime timestamp, LocalDateTime cutoff) {
+        return timestamp == null || timestamp.isBefore(cutoff);
+    }
+    /**
+     * Gets the UUID.
+     *
+     * @return The UUID.
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+    /**
+     * Gets the stored daily count, without checking expiry.
+     *
+     * @return The daily count.
+     */
+    public int getDailyCount() {
+        return dailyCount;
+    }
+    /**
+     * Gets the stored weekly count, without checking expiry.
+     *
+     * @return The weekly count.
+     */
+    public int getWeeklyCount() {
+        return weeklyCount;
+    }
+    /**
+     * Gets the stored monthly count, without checking expiry.
+     *
+     * @return The monthly count.
+     */
+    public int getMonthlyCount() {
+        return monthlyCount;
+    }
+    /**
+     * Gets the stored yearly count, without checking expiry.
+     *
+     * @return The yearly count.
+     */
+    public int getYearlyCount() {
+        return yearlyCount;
+    }
+    /**
+     * Gets the all time count.
+     *
+     * @return The all time count.
+     */
+    public int getAllTimeCount() {
+        return allTimeCount;
+    }
+    /**
+     * Gets the start of the daily period.
+     *
+     * @return The daily timestamp, or null.
+     */
+    public LocalDateTime getDailyTimestamp() {
+        return dailyTimestamp;
+    }
+    /**
+     * Gets the start of the weekly period.
+     *
+     * @return The weekly timestamp, or null.
+     */
+    public LocalDateTime getWeeklyTimestamp() {
+        return weeklyTimestamp;
+    }
+    /**
+     * Gets the start of the monthly period.
+     *
+     * @return The monthly timestamp, or null.
+     */
+    public LocalDateTime getMonthlyTimestamp() {
+        return monthlyTimestamp;
+    }
+    /**
+     * Gets the start of the yearly period.
+     *
+     * @return The yearly timestamp, or null.
+     */
+    public LocalDateTime getYearlyTimestamp() {
+        return yearlyTimestamp;
+    }
+    /**
+     * Gets the vote streak.
+     *
+     * @return The streak count.
+     */
+    public int getStreakCount() {
+        return streakCount;
+    }
+    /**
+     * Gets the date of the last vote.
+     *
+     * @return The last vote date, or null.
+     */
+    public LocalDate getLastVoteDate() {
+        return lastVoteDate;
+    }
+}
@@ -0,0 +1,47 @@
+package me.fergs.phantomvoting.objects;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+public class VoteRewardGroup {
+    private final double chance;
+    private final String permission;
+    private final ImmutableList<String> commands;
+    /**
+     * Creates a new vote reward group.
+     *
+     * @param chance     The percentage chance of the reward being given.
+     * @param permission The permission required for the reward, or null if none is required.
+     * @param commands   The commands to run when the reward is given.
+     */
+    public VoteRewardGroup(double chance, String permission, List<String> commands) {
+        this.chance = chance;
+        this.permission = permission;
+        this.commands = ImmutableList.copyOf(commands);
+    }
+    /**
+     * Gets the percentage chance of the reward being given.
+     *
+     * @return The chance.
+     */
+    public double getChance() {
+        return chance;
+    }
+    /**
+     * Gets the permission required for the reward.
+     *
+     * @return The permission, or null if none is required.
+     */
+    public String getPermission() {
+        return permission;
+    }
+    /**
+     * Gets the commands to run when the reward is given.
+     *
+     * @return An immutable list of commands.
+     */
+    public List<String> getCommands() {
+        return commands;
+    }
+}
@@ -0,0 +1,71 @@
+package me.fergs.phantomvoting.objects.messages;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * A message rendered once for broadcasting. Lines that are the same for everyone are rendered up front,
+ * and only lines with player-scoped placeholders are rendered again for each recipient.
+ */
+public final class Broadcast {
+    private final CompiledMessage message;
+    private final String[] placeholders;
+    private final String[] sharedLines;
+    private final String title;
+    private final String subtitle;
+    /**
+     * Renders the parts of a message that are the same for every recipient.
+     *
+     * @param message      The message.
+     * @param placeholders The placeholders, as pairs of key and value.
+     */
+    public Broadcast(CompiledMessage message, String... placeholders) {
+        this.message = message;
+        this.placeholders = placeholders;
+        List<MessageTemplate> lines = message.getLines();
+        this.sharedLines = new String[lines.size()];
+        for (int i = 0; i < sharedLines.length; i++) {
+            MessageTemplate line = lines.get(i);
+            sharedLines[i] = line.isPlayerScoped(placeholders) ? null : line.render(null, true, placeholders);
+        }
+        this.title = message.getTitle() != null ? message.getTitle().render(null, false, placeholders) : null;
+        this.subtitle = message.getSubtitle() != null ? message.getSubtitle().render(null, false, placeholders) : null;
+    }
+    /**
+     * Sends the broadcast to a player, with its title and sound.
+     *
+     * @param player The player.
+     */
+    public void deliver(Player player) {
+        sendLines(player, player);
+        if (title != null) {
+            player.sendTitle(title, subtitle);
+        }
+        message.playSound(player);
+    }
+    /**
+     * Sends the broadcast's chat lines to a sender that is not a player, such as the console.
+     *
+     * @param sender The sender.
+     */
+    public void deliver(CommandSender sender) {
+        sendLines(sender, null);
+    }
+    /**
+     * Checks whether the broadcast has anything to send.
+     *
+     * @return True if there are no lines, title or sound.
+     */
+    public boolean isEmpty() {
+        return sharedLines.length == 0 && title == null && !message.hasSound();
+    }
+
+    private void sendLines(CommandSender sender, Player player) {
+        List<MessageTemplate> lines = message.getLines();
+        for (int i = 0; i < sharedLines.length; i++) {
+            sender.sendMessage(sharedLines[i] != null ? sharedLines[i] : lines.get(i).render(player, true, placeholders));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package me.fergs.phantomvoting.objects.messages;
+
+import com.google.common.collect.ImmutableList;
+import me.fergs.phantomvoting.utils.ConsoleUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * A message from messages.yml, read once when the file is loaded.
+ * Parts that are disabled in the file are left out, so sending only checks what is present.
+ */
+public final class CompiledMessage {
+    private final ImmutableList<MessageTemplate> lines;
+    private final MessageTemplate title;
+    private final MessageTemplate subtitle;
+    private final Sound sound;
+    private final float volume;
+    private final float pitch;
+    private volatile ImmutableList<ComponentTemplate> components;
+
+    private CompiledMessage(List<MessageTemplate> lines, MessageTemplate title, MessageTemplate subtitle, Sound sound, float volume, float pitch) {
+        this.lines = ImmutableList.copyOf(lines);
+        this.title = title;
+        this.subtitle = subtitle;
+        this.sound = sound;
+        this.volume = volume;
+        this.pitch = pitch;
+    }
+    /**
+     * Compiles a message from its section in messages.yml.
+     *
+     * @param key     The message key, used in warnings.
+     * @param section The message's section.
+     * @return The compiled message.
+     */
+    public static CompiledMessage compile(String key, ConfigurationSection section) {
+        ImmutableList.Builder<MessageTemplate> lines = ImmutableList.builder();
+        if (section.getBoolean("Message.Enable", false)) {
+            List<String> values = section.getStringList("Message.Value");
+            if (values.isEmpty() && section.getString("Message.Value") != null) {
+                values = ImmutableList.of(section.getString("Message.Value"));
+            }
+            values.forEach(line -> lines.add(MessageTemplate.compile(line)));
+        }
+
+        MessageTemplate title = null;
+        MessageTemplate subtitle = null;
+        if (section.getBoolean("Title.Enable", false) && section.getString("Title.Title") != null) {
+            title = MessageTemplate.compile(section.getString("Title.Title"));
+            String subtitleValue = section.getString("Title.Subtitle");
+            subtitle = subtitleValue != null ? MessageTemplate.compile(subtitleValue) : null;
+        }
+
+        Sound sound = null;
+        float volume = 1.0F;
+        float pitch = 1.0F;
+        String soundData = section.getString("Sound.Value");
+        if (section.getBoolean("Sound.Enable", false) && soundData != null) {
+            String[] parts = soundData.split(";");
+            if (parts.length >= 3) {
+                try {
+                    sound = Sound.valueOf(parts[0]);
+                    volume = Float.parseFloat(parts[1]);
+                    pitch = Float.parseFloat(parts[2]);
+                } catch (IllegalArgumentException e) {
+                    sound = null;
+                    Bukkit.getLogger().warning(ConsoleUtil.translateColors("&4[&c!&4] &cInvalid sound &f" + soundData + " &cfor message &f" + key + "&c."));
+                }
+            }
+        }
+        return new CompiledMessage(lines.build(), title, subtitle, sound, volume, pitch);
+    }
+    /**
+     * Gets the chat lines.
+     *
+     * @return The lines, empty if the message is disabled.
+     */
+    public List<MessageTemplate> getLines() {
+        return lines;
+    }
+    /**
+     * Gets the chat lines parsed into components with clickable segments, parsing them on first use.
+     *
+     * @return The lines, empty if the message is disabled.
+     */
+    public List<ComponentTemplate> getComponentLines() {
+        ImmutableList<ComponentTemplate> parsed = components;
+        if (parsed == null) {
+            ImmutableList.Builder<ComponentTemplate> builder = ImmutableList.builder();
+            lines.forEach(line -> builder.add(ComponentTemplate.compile(line)));
+            parsed = builder.build();
+            components = parsed;
+        }
+        return parsed;
+    }
+    /**
+     * Gets the title.
+     *
+     * @return The title, or null if the title is disabled.
+     */
+    public MessageTemplate getTitle() {
+        return title;
+    }
+    /**
+     * Gets the subtitle.
+     *
+     * @return The subtitle, or null if there is none.
+     */
+    public MessageTemplate getSubtitle() {
+        return subtitle;
+    }
+    /**
+     * Checks whether the message has a sound.
+     *
+     * @return True if a sound is played.
+     */
+    public boolean hasSound() {
+        return sound != null;
+    }
+    /**
+     * Plays the message's sound to a player, if it has one.
+     *
+     * @param player The player.
+     */
+    public void playSound(Player player) {
+        if (sound != null) {
+            player.playSound(player, sound, volume, pitch);
+        }
+    }
+}
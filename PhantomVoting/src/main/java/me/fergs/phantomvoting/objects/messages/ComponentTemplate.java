@@ -0,0 +1,174 @@
+package me.fergs.phantomvoting.objects.messages;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import me.fergs.phantomvoting.utils.MessageParser;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A line with clickable segments written as (Clickable Text)[URL], parsed once into Adventure components.
+ * <p>
+ * Segments without placeholders are built once and reused, so a line that never changes is sent as the same
+ * component every time, and a line with placeholders only re-renders the segments that contain them.
+ */
+public final class ComponentTemplate {
+    private static final Pattern CLICKABLE_PATTERN = Pattern.compile("\\((.*?)\\)\\[(.*?)]");
+    private static final LegacyComponentSerializer SERIALIZER = LegacyComponentSerializer.builder().hexColors().build();
+    private static final HoverEvent<Component> CLICK_HOVER = HoverEvent.showText(Component.text("Click Me!"));
+    private final MessageTemplate line;
+    private final Segment[] segments;
+    private final Component cached;
+
+    private ComponentTemplate(MessageTemplate line, Segment[] segments) {
+        this.line = line;
+        this.segments = segments;
+        this.cached = isStatic(segments) ? build(segments, null) : null;
+    }
+    /**
+     * Parses a line's clickable segments.
+     *
+     * @param line The compiled line.
+     * @return The template.
+     */
+    public static ComponentTemplate compile(MessageTemplate line) {
+        String source = line.getSource();
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = CLICKABLE_PATTERN.matcher(source);
+        int lastIndex = 0;
+        while (matcher.find()) {
+            if (matcher.start() > lastIndex) {
+                segments.add(new Segment(MessageTemplate.compile(source.substring(lastIndex, matcher.start())), null));
+            }
+            segments.add(new Segment(MessageTemplate.compile(matcher.group(1)), matcher.group(2)));
+            lastIndex = matcher.end();
+        }
+        if (lastIndex < source.length() || segments.isEmpty()) {
+            segments.add(new Segment(lastIndex == 0 ? line : MessageTemplate.compile(source.substring(lastIndex)), null));
+        }
+        return new ComponentTemplate(line, segments.toArray(new Segment[0]));
+    }
+    /**
+     * Renders the line for a player.
+     *
+     * @param player       The player, used for PlaceholderAPI placeholders.
+     * @param placeholders The placeholders, as pairs of key and value.
+     * @return The component.
+     */
+    public Component render(Player player, String... placeholders) {
+        return cached != null ? cached : build(segments, new RenderContext(player, placeholders));
+    }
+    /**
+     * Renders the line as legacy text, for servers that cannot send components.
+     *
+     * @param player       The player, used for PlaceholderAPI placeholders.
+     * @param placeholders The placeholders, as pairs of key and value.
+     * @return The coloured line.
+     */
+    public String renderLegacy(Player player, String... placeholders) {
+        return line.render(player, true, placeholders);
+    }
+    /**
+     * Checks whether the line renders to nothing.
+     *
+     * @return True if the line is empty.
+     */
+    public boolean isEmpty() {
+        return line.isEmpty();
+    }
+
+    private static boolean isStatic(Segment[] segments) {
+        for (Segment segment : segments) {
+            if (segment.cached == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Component build(Segment[] segments, RenderContext context) {
+        if (segments.length == 1) {
+            return segments[0].render(context);
+        }
+        TextComponent.Builder builder = Component.text();
+        for (Segment segment : segments) {
+            builder.append(segment.render(context));
+        }
+        return builder.build();
+    }
+
+    /**
+     * A run of text, clickable if it has a URL. Built once if nothing in it changes between renders,
+     * otherwise the last rendered text is remembered so a repeat of it skips deserializing.
+     */
+    private static final class Segment {
+        private final MessageTemplate text;
+        private final String url;
+        private final Component cached;
+        private volatile Rendered last;
+
+        Segment(MessageTemplate text, String url) {
+            this.text = text;
+            this.url = url;
+            this.cached = text.isStatic() && (url == null || url.indexOf('%') < 0) ? create(SERIALIZER.deserialize(text.render(null, false)), url) : null;
+        }
+
+        Component render(RenderContext context) {
+            if (cached != null) {
+                return cached;
+            }
+            String rendered = text.render(context.player, true, context.placeholders);
+            String resolvedUrl = url == null || url.indexOf('%') < 0
+                    ? url
+                    : PlaceholderAPI.setPlaceholders(context.player, MessageParser.parse(url, context.placeholders));
+            Rendered previous = last;
+            if (previous != null && previous.text.equals(rendered) && Objects.equals(previous.url, resolvedUrl)) {
+                return previous.component;
+            }
+            Component component = create(SERIALIZER.deserialize(rendered), resolvedUrl);
+            last = new Rendered(rendered, resolvedUrl, component);
+            return component;
+        }
+
+        private static Component create(Component component, String url) {
+            return url == null ? component : component.hoverEvent(CLICK_HOVER).clickEvent(ClickEvent.openUrl(url));
+        }
+    }
+
+    /**
+     * A segment's last rendered text and URL, and the component built from them.
+     */
+    private static final class Rendered {
+        private final String text;
+        private final String url;
+        private final Component component;
+
+        Rendered(String text, String url, Component component) {
+            this.text = text;
+            this.url = url;
+            this.component = component;
+        }
+    }
+
+    /**
+     * The player and placeholders of one render.
+     */
+    private static final class RenderContext {
+        private final Player player;
+        private final String[] placeholders;
+
+        RenderContext(Player player, String[] placeholders) {
+            this.player = player;
+            this.placeholders = placeholders;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package me.fergs.phantomvoting.objects.messages;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import me.fergs.phantomvoting.enums.PlaceholderType;
+import me.fergs.phantomvoting.utils.Color;
+import me.fergs.phantomvoting.utils.MessageParser;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A line of a message, split once into coloured literal text and placeholder slots such as "%player%".
+ * <p>
+ * Rendering appends the literals and fills each slot, first from the placeholders passed by the caller,
+ * then from PlaceholderAPI, so the line is never re-parsed or re-coloured as a whole. Lines whose colours
+ * could depend on a placeholder's value, such as a gradient around a placeholder, are kept as source text
+ * and rendered the old way.
+ */
+public final class MessageTemplate {
+    private static final String PLUGIN_PREFIX = "phantomvoting_";
+    /**
+     * Characters other than letters and digits that may appear in a placeholder's name.
+     * Colour codes, whitespace and tags are excluded, so a stray percent sign is not mistaken for one.
+     */
+    private static final String SLOT_SYMBOLS = "_-.:,+!?=*/'\"$@^~|(){}[]";
+    private final String source;
+    private final String[] literals;
+    private final String[] slots;
+    private final boolean[] playerScoped;
+    private final boolean compiled;
+
+    private MessageTemplate(String source, String[] literals, String[] slots, boolean compiled) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        this.playerScoped = new boolean[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            playerScoped[i] = isPlayerScoped(slots[i]);
+        }
+        this.compiled = compiled;
+    }
+    /**
+     * Compiles a line.
+     *
+     * @param line The line as written in the configuration.
+     * @return The template.
+     */
+    public static MessageTemplate compile(String line) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int literalStart = 0;
+        int i = 0;
+        while (i < line.length()) {
+            int end = line.charAt(i) == '%' ? findSlotEnd(line, i) : -1;
+            if (end < 0) {
+                i++;
+                continue;
+            }
+            literals.add(line.substring(literalStart, i));
+            slots.add(line.substring(i, end + 1));
+            literalStart = end + 1;
+            i = end + 1;
+        }
+        literals.add(line.substring(literalStart));
+
+        boolean compiled = !line.contains("<gradient:");
+        for (int s = 0; s < slots.size() && compiled; s++) {
+            String before = literals.get(s);
+            compiled = !before.endsWith("&") && !before.endsWith("#") && !before.endsWith("&#");
+        }
+        String[] colored = new String[literals.size()];
+        for (int l = 0; l < colored.length; l++) {
+            colored[l] = compiled ? Color.hex(literals.get(l)) : literals.get(l);
+        }
+        return new MessageTemplate(line, colored, slots.toArray(new String[0]), compiled);
+    }
+    /**
+     * Renders the line.
+     *
+     * @param player         The player PlaceholderAPI placeholders are resolved for, may be null.
+     * @param placeholderApi Whether slots the caller did not fill are passed to PlaceholderAPI.
+     * @param placeholders   The placeholders, as pairs of key and value.
+     * @return The coloured line.
+     */
+    public String render(Player player, boolean placeholderApi, String... placeholders) {
+        if (!compiled) {
+            String parsed = MessageParser.parse(source, placeholders);
+            return Color.hex(placeholderApi ? PlaceholderAPI.setPlaceholders(player, parsed) : parsed);
+        }
+        if (slots.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder builder = new StringBuilder(source.length() + 32);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            String value = find(slots[i], placeholders);
+            if (value == null) {
+                value = placeholderApi ? PlaceholderAPI.setPlaceholders(player, slots[i]) : slots[i];
+            }
+            builder.append(Color.hex(value));
+        }
+        return builder.append(literals[slots.length]).toString();
+    }
+    /**
+     * Checks whether the line renders differently for each player, because it has a PlaceholderAPI placeholder
+     * that the caller does not fill and that depends on the player.
+     *
+     * @param placeholders The placeholders the caller fills, as pairs of key and value.
+     * @return True if the line must be rendered per player.
+     */
+    public boolean isPlayerScoped(String... placeholders) {
+        for (int i = 0; i < slots.length; i++) {
+            if (playerScoped[i] && find(slots[i], placeholders) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Gets the line as written in the configuration.
+     *
+     * @return The source line.
+     */
+    public String getSource() {
+        return source;
+    }
+    /**
+     * Checks whether the line renders the same every time, having no placeholders.
+     *
+     * @return True if the line is static.
+     */
+    public boolean isStatic() {
+        return compiled && slots.length == 0;
+    }
+    /**
+     * Checks whether the line renders to nothing.
+     *
+     * @return True if the line is empty.
+     */
+    public boolean isEmpty() {
+        return source.isEmpty();
+    }
+    /**
+     * Gets a placeholder's value from the caller's pairs.
+     *
+     * @param key          The placeholder, including its percent signs.
+     * @param placeholders The placeholders, as pairs of key and value.
+     * @return The value, or null if the caller did not pass it.
+     */
+    private static String find(String key, String[] placeholders) {
+        for (int i = 0; i < placeholders.length - 1; i += 2) {
+            if (key.equals(placeholders[i])) {
+                return placeholders[i + 1];
+            }
+        }
+        return null;
+    }
+    /**
+     * Checks whether a placeholder may depend on the player. Only this plugin's own placeholders and the
+     * server expansion are known to be the same for everyone, anything else is assumed to depend on the player.
+     *
+     * @param slot The placeholder, including its percent signs.
+     * @return True if the placeholder may depend on the player.
+     */
+    private static boolean isPlayerScoped(String slot) {
+        String identifier = slot.substring(1, slot.length() - 1);
+        if (identifier.startsWith("server_")) {
+            return false;
+        }
+        if (!identifier.startsWith(PLUGIN_PREFIX)) {
+            return true;
+        }
+        identifier = identifier.substring(PLUGIN_PREFIX.length());
+        PlaceholderType type = PlaceholderType.fromIdentifier(identifier);
+        if (type != null) {
+            return type.isPlayerSpecific();
+        }
+        return !identifier.startsWith(PlaceholderType.TOP_PLAYER.getIdentifier() + "_")
+                && !identifier.startsWith(PlaceholderType.TOP_VOTES.getIdentifier() + "_");
+    }
+    /**
+     * Finds the closing percent sign of a placeholder.
+     *
+     * @param line  The line.
+     * @param start The index of the opening percent sign.
+     * @return The index of the closing percent sign, or -1 if this is not a placeholder.
+     */
+    private static int findSlotEnd(String line, int start) {
+        for (int i = start + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '%') {
+                return i > start + 1 ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && SLOT_SYMBOLS.indexOf(c) < 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
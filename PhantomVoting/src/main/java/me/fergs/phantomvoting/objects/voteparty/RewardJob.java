@@ -0,0 +1,69 @@
+package me.fergs.phantomvoting.objects.voteparty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The vote party rewards still owed to one player, as console commands with the player's name filled in.
+ * Commands are removed as they run, so what is left is exactly what has not been given yet.
+ */
+public class RewardJob {
+    private final UUID uuid;
+    private final String playerName;
+    private final Deque<String> commands;
+    /**
+     * Creates a new reward job.
+     *
+     * @param uuid       The player's UUID.
+     * @param playerName The player's name.
+     * @param commands   The commands to run, in order.
+     */
+    public RewardJob(UUID uuid, String playerName, List<String> commands) {
+        this.uuid = uuid;
+        this.playerName = playerName;
+        this.commands = new ArrayDeque<>(commands);
+    }
+    /**
+     * Gets the player's UUID.
+     *
+     * @return The UUID.
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+    /**
+     * Gets the player's name.
+     *
+     * @return The name.
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+    /**
+     * Takes the next command to run.
+     *
+     * @return The command, or null if every command has been taken.
+     */
+    public String nextCommand() {
+        return commands.poll();
+    }
+    /**
+     * Checks whether every command has been taken.
+     *
+     * @return True if the job is done.
+     */
+    public boolean isDone() {
+        return commands.isEmpty();
+    }
+    /**
+     * Gets the commands that have not been taken yet.
+     *
+     * @return A copy of the remaining commands.
+     */
+    public List<String> getRemainingCommands() {
+        return new ArrayList<>(commands);
+    }
+}
@@ -0,0 +1,65 @@
+package me.fergs.phantomvoting.objects.voteparty;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
+
+public class VotePartyCounter {
+    private final AtomicInteger count;
+    /**
+     * Creates a new vote party counter.
+     *
+     * @param count The counter to update, shared with the storage that saves it.
+     */
+    public VotePartyCounter(AtomicInteger count) {
+        this.count = count;
+    }
+    /**
+     * Adds votes to the count. Votes past the threshold carry over to the next vote party.
+     *
+     * @param amount    The number of votes to add, may be negative.
+     * @param threshold The votes needed for a vote party.
+     * @return The number of vote parties the votes completed.
+     */
+    public long add(int amount, int threshold) {
+        return update(current -> (long) current + amount, threshold);
+    }
+    /**
+     * Sets the count. A count at or past the threshold completes a vote party for each threshold it holds,
+     * and the rest is kept.
+     *
+     * @param value     The new count.
+     * @param threshold The votes needed for a vote party.
+     * @return The number of vote parties the count completed.
+     */
+    public long set(int value, int threshold) {
+        return update(current -> value, threshold);
+    }
+    /**
+     * Gets the current count.
+     *
+     * @return The count.
+     */
+    public int get() {
+        return count.get();
+    }
+    /**
+     * Applies a change to the count without locking. Every change goes through the same compare-and-set loop,
+     * so concurrent changes are never lost and each completed threshold is returned to exactly one caller.
+     *
+     * @param change    Computes the new count from the current one.
+     * @param threshold The votes needed for a vote party.
+     * @return The number of vote parties the change completed.
+     */
+    private long update(IntToLongFunction change, int threshold) {
+        int limit = Math.max(1, threshold);
+        int current;
+        long total;
+        long parties;
+        do {
+            current = count.get();
+            total = Math.max(0L, change.applyAsLong(current));
+            parties = total / limit;
+        } while (!count.compareAndSet(current, (int) (total - parties * limit)));
+        return parties;
+    }
+}
@@ -0,0 +1,49 @@
+package me.fergs.phantomvoting.placeholders;
+
+import me.fergs.phantomvoting.enums.PlaceholderType;
+
+/**
+ * A placeholder identifier parsed once into its type and argument, such as "top_player_3"
+ * into {@link PlaceholderType#TOP_PLAYER} and "3".
+ */
+public final class CompiledPlaceholder {
+    private final PlaceholderType type;
+    private final String argument;
+    private final int slot;
+    /**
+     * Creates a new compiled placeholder.
+     *
+     * @param type     The placeholder type.
+     * @param argument The argument, or null if the type takes none.
+     * @param slot     The index of this placeholder in the value caches.
+     */
+    CompiledPlaceholder(PlaceholderType type, String argument, int slot) {
+        this.type = type;
+        this.argument = argument;
+        this.slot = slot;
+    }
+    /**
+     * Gets the placeholder type.
+     *
+     * @return The type.
+     */
+    public PlaceholderType getType() {
+        return type;
+    }
+    /**
+     * Gets the argument.
+     *
+     * @return The argument, or null if the type takes none.
+     */
+    public String getArgument() {
+        return argument;
+    }
+    /**
+     * Gets the index of this placeholder in the value caches.
+     *
+     * @return The slot.
+     */
+    int getSlot() {
+        return slot;
+    }
+}
@@ -0,0 +1,191 @@
+package me.fergs.phantomvoting.placeholders;
+
+import me.fergs.phantomvoting.database.VoteStorage;
+import me.fergs.phantomvoting.enums.PlaceholderType;
+import me.fergs.phantomvoting.managers.VotePartyManager;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Resolves placeholder identifiers through a table compiled ahead of time.
+ * <p>
+ * Fixed identifiers are registered up front, and parameterized ones such as "top_player_3" are
+ * parsed the first time they are seen and kept, so every later request is one hash lookup.
+ * Values are cached per player for a short time, so a scoreboard refreshing every tick reuses the
+ * same string instead of recomputing it. A cache hit does not allocate.
+ */
+public class PlaceholderResolver {
+    private static final int MAX_COMPILED = 1024;
+    private static final int INITIAL_SLOTS = 32;
+    private static final PlaceholderType[] PARAMETERIZED = {PlaceholderType.TOP_PLAYER, PlaceholderType.TOP_VOTES};
+    private static final CompiledPlaceholder UNKNOWN = new CompiledPlaceholder(null, null, -1);
+    private final VoteStorage voteStorage;
+    private final VotePartyManager votePartyManager;
+    private final long ttlNanos;
+    private final Map<String, CompiledPlaceholder> compiled = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final Map<UUID, ValueCache> playerValues = new ConcurrentHashMap<>();
+    private final ValueCache globalValues = new ValueCache();
+    /**
+     * Creates a new placeholder resolver.
+     *
+     * @param voteStorage      The vote storage.
+     * @param votePartyManager The vote party manager.
+     * @param ttlMillis        How long a value is reused for, in milliseconds. Zero disables the value cache.
+     */
+    public PlaceholderResolver(VoteStorage voteStorage, VotePartyManager votePartyManager, long ttlMillis) {
+        this.voteStorage = voteStorage;
+        this.votePartyManager = votePartyManager;
+        this.ttlNanos = Math.max(0, ttlMillis) * 1_000_000L;
+        for (PlaceholderType type : PlaceholderType.values()) {
+            if (type != PlaceholderType.TOP_PLAYER && type != PlaceholderType.TOP_VOTES) {
+                compiled.put(type.getIdentifier(), new CompiledPlaceholder(type, null, nextSlot.getAndIncrement()));
+            }
+        }
+    }
+    /**
+     * Resolves a placeholder for a player.
+     *
+     * @param player     The player, may be null for placeholders that are the same for everyone.
+     * @param identifier The identifier, without the expansion prefix.
+     * @return The value.
+     */
+    public String resolve(Player player, String identifier) {
+        CompiledPlaceholder placeholder = compile(identifier);
+        PlaceholderType type = placeholder.getType();
+        if (type == null || (type.isPlayerSpecific() && player == null)) {
+            return "0";
+        }
+        if (ttlNanos == 0 || placeholder.getSlot() < 0) {
+            return type.getValue(voteStorage, votePartyManager, player, placeholder.getArgument());
+        }
+
+        ValueCache cache = type.isPlayerSpecific() ? getPlayerValues(player.getUniqueId()) : globalValues;
+        long now = System.nanoTime();
+        String value = cache.get(placeholder.getSlot(), now);
+        if (value == null) {
+            value = type.getValue(voteStorage, votePartyManager, player, placeholder.getArgument());
+            cache.put(placeholder.getSlot(), value, now + ttlNanos);
+        }
+        return value;
+    }
+    /**
+     * Drops every cached value for a player.
+     *
+     * @param uuid The player's UUID.
+     */
+    public void invalidate(UUID uuid) {
+        playerValues.remove(uuid);
+    }
+    /**
+     * Gets the compiled form of an identifier, parsing and keeping it on first use.
+     * Once the table is full, new identifiers are parsed on every request and their values are not cached.
+     *
+     * @param identifier The identifier.
+     * @return The compiled placeholder, with a null type if the identifier is not recognised.
+     */
+    public CompiledPlaceholder compile(String identifier) {
+        CompiledPlaceholder placeholder = compiled.get(identifier);
+        if (placeholder != null) {
+            return placeholder;
+        }
+        boolean intern = compiled.size() < MAX_COMPILED;
+        placeholder = parse(identifier, intern ? nextSlot.getAndIncrement() : -1);
+        if (!intern) {
+            return placeholder;
+        }
+        CompiledPlaceholder existing = compiled.putIfAbsent(identifier, placeholder);
+        return existing != null ? existing : placeholder;
+    }
+    /**
+     * Parses a parameterized identifier such as "top_player_3" or "top_votes_daily_1".
+     *
+     * @param identifier The identifier.
+     * @param slot       The value cache slot to give it.
+     * @return The compiled placeholder, with a null type if the identifier is not recognised.
+     */
+    private static CompiledPlaceholder parse(String identifier, int slot) {
+        for (PlaceholderType type : PARAMETERIZED) {
+            String prefix = type.getIdentifier();
+            if (identifier.length() > prefix.length() + 1 && identifier.startsWith(prefix) && identifier.charAt(prefix.length()) == '_') {
+                return new CompiledPlaceholder(type, identifier.substring(prefix.length() + 1), slot);
+            }
+        }
+        return UNKNOWN;
+    }
+    /**
+     * Gets a player's value cache, creating it on first use.
+     *
+     * @param uuid The player's UUID.
+     * @return The value cache.
+     */
+    private ValueCache getPlayerValues(UUID uuid) {
+        ValueCache cache = playerValues.get(uuid);
+        return cache != null ? cache : playerValues.computeIfAbsent(uuid, key -> new ValueCache());
+    }
+
+    /**
+     * Cached values indexed by placeholder slot. Writes may race and overwrite each other,
+     * which only costs a recomputation.
+     */
+    private static final class ValueCache {
+        private volatile AtomicReferenceArray<CachedValue> values = new AtomicReferenceArray<>(INITIAL_SLOTS);
+        /**
+         * Gets a value if it has not expired.
+         *
+         * @param slot The placeholder slot.
+         * @param now  The current {@link System#nanoTime()}.
+         * @return The value, or null if missing or expired.
+         */
+        String get(int slot, long now) {
+            AtomicReferenceArray<CachedValue> current = values;
+            if (slot >= current.length()) {
+                return null;
+            }
+            CachedValue cached = current.get(slot);
+            return cached != null && now - cached.expiresAt < 0 ? cached.value : null;
+        }
+        /**
+         * Stores a value, growing the slots if needed.
+         *
+         * @param slot      The placeholder slot.
+         * @param value     The value.
+         * @param expiresAt When the value expires, in {@link System#nanoTime()} terms.
+         */
+        void put(int slot, String value, long expiresAt) {
+            AtomicReferenceArray<CachedValue> current = values;
+            if (slot >= current.length()) {
+                synchronized (this) {
+                    current = values;
+                    if (slot >= current.length()) {
+                        AtomicReferenceArray<CachedValue> grown = new AtomicReferenceArray<>(Math.max(slot + 1, current.length() * 2));
+                        for (int i = 0; i < current.length(); i++) {
+                            grown.set(i, current.get(i));
+                        }
+                        values = grown;
+                        current = grown;
+                    }
+                }
+            }
+            current.set(slot, new CachedValue(value, expiresAt));
+        }
+    }
+
+    /**
+     * A value and the time it expires.
+     */
+    private static final class CachedValue {
+        private final String value;
+        private final long expiresAt;
+
+        CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
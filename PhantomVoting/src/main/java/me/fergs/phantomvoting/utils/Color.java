@@ -1,37 +1,282 @@
 package me.fergs.phantomvoting.utils;
 
-import net.md_5.bungee.api.ChatColor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * Translates colour codes into Minecraft's section sign format in a single pass over the message.
+ * <p>
+ * Supported formats:
+ * <ul>
+ *     <li>{@code &a}, {@code &l}, ... legacy colour and format codes.</li>
+ *     <li>{@code #RRGGBB} or {@code &#RRGGBB} hex colours.</li>
+ *     <li>{@code <gradient:#RRGGBB:#RRGGBB>text</gradient>} gradients, with any number of colour stops.
+ *     Format codes inside a gradient are kept on every character, and {@code &r} clears them.</li>
+ * </ul>
+ * Results are cached, as most messages come straight from the YAML files and are translated many times.
+ * Placeholders should be replaced before translating, since a gradient splits text into single characters.
+ */
 public class Color {
-    /*
-     * Translate color codes and hex codes to their respective color codes.
+    private static final char SECTION = '§';
+    private static final String CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    private static final String FORMATS = "KkLlMmNnOo";
+    private static final String GRADIENT_OPEN = "<gradient:";
+    private static final String GRADIENT_CLOSE = "</gradient>";
+    private static final int MAX_CACHED_LENGTH = 512;
+    private static final Cache<String, String> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .build();
+    /**
+     * Translates colour codes, hex codes and gradients, reusing the result for messages seen before.
+     *
      * @param message The message to translate.
+     * @return The translated message.
      */
     public static String hex(String message) {
-        Pattern pattern = Pattern.compile("(#[a-fA-F0-9]{6})");
-        for(Matcher matcher = pattern.matcher(message); matcher.find(); matcher = pattern.matcher(message)) {
-            String hexCode = message.substring(matcher.start(), matcher.end());
-            String replaceSharp = hexCode.replace('#', 'x');
-            char[] ch = replaceSharp.toCharArray();
-            StringBuilder builder = new StringBuilder();
-            for (char c : ch) {
-                builder.append("&").append(c);
-            }
-            message = message.replace(hexCode, builder.toString());
+        if (!hasCodes(message)) {
+            return message;
+        }
+        if (message.length() > MAX_CACHED_LENGTH) {
+            return translate(message);
+        }
+        String translated = CACHE.getIfPresent(message);
+        if (translated == null) {
+            translated = translate(message);
+            CACHE.put(message, translated);
         }
-        return ChatColor.translateAlternateColorCodes('&', message).replace('&', '§');
+        return translated;
     }
-
+    /**
+     * Translates every message in a list.
+     *
+     * @param messages The messages to translate.
+     * @return The translated messages.
+     */
     public static List<String> hexList(List<String> messages) {
-        List<String> list = new ArrayList<>();
+        List<String> list = new ArrayList<>(messages.size());
         for (String message : messages) {
             list.add(hex(message));
         }
         return list;
     }
+    /**
+     * Translates colour codes, hex codes and gradients without going through the cache.
+     *
+     * @param message The message to translate.
+     * @return The translated message.
+     */
+    public static String translate(String message) {
+        int length = message.length();
+        StringBuilder builder = new StringBuilder(length + 16);
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if (c == '<' && message.startsWith(GRADIENT_OPEN, i)) {
+                int next = appendGradient(builder, message, i);
+                if (next > i) {
+                    i = next;
+                    continue;
+                }
+            } else if (c == '#' && isHexColor(message, i + 1)) {
+                appendHexColor(builder, message, i + 1);
+                i += 7;
+                continue;
+            } else if (c == '&') {
+                if (i + 1 < length && message.charAt(i + 1) == '#' && isHexColor(message, i + 2)) {
+                    appendHexColor(builder, message, i + 2);
+                    i += 8;
+                    continue;
+                }
+                builder.append(SECTION);
+                if (i + 1 < length && CODES.indexOf(message.charAt(i + 1)) >= 0) {
+                    builder.append(Character.toLowerCase(message.charAt(i + 1)));
+                    i += 2;
+                } else {
+                    i++;
+                }
+                continue;
+            }
+            builder.append(c);
+            i++;
+        }
+        return builder.toString();
+    }
+    /**
+     * Checks whether a message has anything to translate.
+     *
+     * @param message The message.
+     * @return True if the message contains a character that may start a code.
+     */
+    private static boolean hasCodes(String message) {
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '&' || c == '#' || c == '<') {
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Checks whether six hex digits start at an index.
+     *
+     * @param message The message.
+     * @param start   The index of the first digit.
+     * @return True if the digits form a colour.
+     */
+    private static boolean isHexColor(String message, int start) {
+        if (start + 6 > message.length()) {
+            return false;
+        }
+        for (int i = start; i < start + 6; i++) {
+            if (Character.digit(message.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Appends a hex colour as {@code §x§r§r§g§g§b§b}.
+     *
+     * @param builder The builder.
+     * @param message The message.
+     * @param start   The index of the first hex digit.
+     */
+    private static void appendHexColor(StringBuilder builder, String message, int start) {
+        builder.append(SECTION).append('x');
+        for (int i = start; i < start + 6; i++) {
+            builder.append(SECTION).append(Character.toLowerCase(message.charAt(i)));
+        }
+    }
+    /**
+     * Appends an RGB colour as {@code §x§r§r§g§g§b§b}.
+     *
+     * @param builder The builder.
+     * @param rgb     The colour.
+     */
+    private static void appendRgb(StringBuilder builder, int rgb) {
+        builder.append(SECTION).append('x');
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            builder.append(SECTION).append(Character.forDigit((rgb >> shift) & 0xF, 16));
+        }
+    }
+    /**
+     * Appends a gradient starting at an index.
+     *
+     * @param builder The builder.
+     * @param message The message.
+     * @param start   The index of the opening tag.
+     * @return The index after the gradient, or the start index if the tag is malformed and should be kept as text.
+     */
+    private static int appendGradient(StringBuilder builder, String message, int start) {
+        int tagEnd = message.indexOf('>', start);
+        if (tagEnd < 0) {
+            return start;
+        }
+        int[] stops = parseStops(message, start + GRADIENT_OPEN.length(), tagEnd);
+        if (stops == null) {
+            return start;
+        }
+        int textStart = tagEnd + 1;
+        int textEnd = message.indexOf(GRADIENT_CLOSE, textStart);
+        int next = textEnd < 0 ? message.length() : textEnd + GRADIENT_CLOSE.length();
+        if (textEnd < 0) {
+            textEnd = message.length();
+        }
+
+        int visible = 0;
+        for (int i = textStart; i < textEnd; i++) {
+            if (isCodeAt(message, i, textEnd)) {
+                i++;
+            } else {
+                visible++;
+            }
+        }
+
+        StringBuilder formats = new StringBuilder(4);
+        int index = 0;
+        for (int i = textStart; i < textEnd; i++) {
+            char c = message.charAt(i);
+            if (isCodeAt(message, i, textEnd)) {
+                char code = Character.toLowerCase(message.charAt(++i));
+                if (code == 'r') {
+                    formats.setLength(0);
+                } else if (FORMATS.indexOf(code) >= 0 && formats.indexOf(String.valueOf(code)) < 0) {
+                    formats.append(code);
+                }
+                continue;
+            }
+            if (c != ' ') {
+                appendRgb(builder, interpolate(stops, visible > 1 ? (double) index / (visible - 1) : 0));
+                for (int f = 0; f < formats.length(); f++) {
+                    builder.append(SECTION).append(formats.charAt(f));
+                }
+            }
+            builder.append(c);
+            index++;
+        }
+        return next;
+    }
+    /**
+     * Checks whether a colour or format code starts at an index.
+     *
+     * @param message The message.
+     * @param index   The index.
+     * @param end     The end of the text, exclusive.
+     * @return True if a code starts at the index.
+     */
+    private static boolean isCodeAt(String message, int index, int end) {
+        char c = message.charAt(index);
+        return (c == '&' || c == SECTION) && index + 1 < end && CODES.indexOf(message.charAt(index + 1)) >= 0;
+    }
+    /**
+     * Parses the colour stops of a gradient tag, such as {@code #FF0000:#0000FF}.
+     *
+     * @param message The message.
+     * @param start   The index after "&lt;gradient:".
+     * @param end     The index of the closing '&gt;'.
+     * @return The colours, or null if there are fewer than two or one is malformed.
+     */
+    private static int[] parseStops(String message, int start, int end) {
+        List<Integer> stops = new ArrayList<>(2);
+        int i = start;
+        while (i < end) {
+            if (i + 7 > end || message.charAt(i) != '#' || !isHexColor(message, i + 1)) {
+                return null;
+            }
+            stops.add(Integer.parseInt(message.substring(i + 1, i + 7), 16));
+            i += 7;
+            if (i < end && message.charAt(i++) != ':') {
+                return null;
+            }
+        }
+        if (stops.size() < 2) {
+            return null;
+        }
+        int[] colors = new int[stops.size()];
+        for (int s = 0; s < colors.length; s++) {
+            colors[s] = stops.get(s);
+        }
+        return colors;
+    }
+    /**
+     * Gets the colour at a point along a gradient.
+     *
+     * @param stops    The colour stops.
+     * @param progress How far along the gradient, from 0 to 1.
+     * @return The colour.
+     */
+    private static int interpolate(int[] stops, double progress) {
+        double scaled = progress * (stops.length - 1);
+        int segment = Math.min((int) scaled, stops.length - 2);
+        double local = scaled - segment;
+        int from = stops[segment];
+        int to = stops[segment + 1];
+        int red = (int) Math.round(((from >> 16) & 0xFF) + (((to >> 16) & 0xFF) - ((from >> 16) & 0xFF)) * local);
+        int green = (int) Math.round(((from >> 8) & 0xFF) + (((to >> 8) & 0xFF) - ((from >> 8) & 0xFF)) * local);
+        int blue = (int) Math.round((from & 0xFF) + ((to & 0xFF) - (from & 0xFF)) * local);
+        return (red << 16) | (green << 8) | blue;
+    }
 }
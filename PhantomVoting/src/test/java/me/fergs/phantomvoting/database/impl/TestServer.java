@@ -0,0 +1,57 @@
+package me.fergs.phantomvoting.database.impl;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for the Bukkit server, so the storage backends can log without starting one.
+ * Only the logger and the server's name are answered, every other call returns a default value.
+ */
+public final class TestServer {
+    private static final Logger LOGGER = Logger.getLogger("PhantomVoting-Tests");
+
+    static {
+        LOGGER.setLevel(Level.WARNING);
+    }
+
+    private TestServer() {
+    }
+    /**
+     * Installs the test server, unless a server is already set.
+     */
+    public static synchronized void install() {
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer((Server) Proxy.newProxyInstance(TestServer.class.getClassLoader(), new Class<?>[]{Server.class},
+                    (proxy, method, args) -> handle(method)));
+        }
+    }
+
+    private static Object handle(Method method) {
+        switch (method.getName()) {
+            case "getLogger":
+                return LOGGER;
+            case "getName":
+            case "getVersion":
+            case "getBukkitVersion":
+                return "Test";
+            default:
+                break;
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,267 @@
+package me.fergs.phantomvoting.database.impl;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import me.fergs.phantomvoting.database.PendingVoteStorage;
+import me.fergs.phantomvoting.database.claim.ClaimType;
+import me.fergs.phantomvoting.database.interfaces.VoteStorage;
+import me.fergs.phantomvoting.database.journal.JournalEntry;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The behaviour every storage backend has to share, run against each backend by a subclass.
+ * Every test uses its own random players, so the suite also runs against a database that is not empty.
+ */
+public abstract class VoteStorageConformanceTest {
+    private static final LocalDateTime NOON = LocalDate.now().atTime(12, 0);
+    protected VoteStorage storage;
+
+    /**
+     * Creates the backend under test, not yet initialized.
+     *
+     * @return The backend.
+     * @throws Exception If the backend could not be created.
+     */
+    protected abstract VoteStorage createStorage() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestServer.install();
+        storage = createStorage();
+        storage.initialize().join();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (storage != null) {
+            storage.close();
+        }
+    }
+
+    @Test
+    void initializeIsRepeatable() {
+        storage.initialize().join();
+        UUID player = UUID.randomUUID();
+
+        assertEquals(1, storage.addVote(player, NOON).join().getAllTimeCount());
+    }
+
+    @Test
+    void firstVoteCreatesRecord() {
+        UUID player = UUID.randomUUID();
+        assertNull(storage.getProfile(player).join());
+
+        PlayerVoteProfile profile = storage.addVote(player, NOON).join();
+
+        assertEquals(player, profile.getUuid());
+        assertEquals(1, profile.getAllTimeCount());
+        assertEquals(1, profile.getVoteCount("daily", NOON));
+        assertEquals(1, profile.getStreakCount());
+        assertEquals(1, storage.getProfile(player).join().getAllTimeCount());
+    }
+
+    @Test
+    void votesOnTheSameDayKeepTheStreak() {
+        UUID player = UUID.randomUUID();
+        storage.addVote(player, NOON).join();
+
+        PlayerVoteProfile profile = storage.addVote(player, NOON.plusMinutes(5)).join();
+
+        assertEquals(2, profile.getAllTimeCount());
+        assertEquals(2, profile.getVoteCount("daily", NOON));
+        assertEquals(1, profile.getStreakCount());
+    }
+
+    @Test
+    void votesOnLaterDaysContinueOrRestartTheStreak() {
+        UUID player = UUID.randomUUID();
+        storage.addVote(player, NOON.minusDays(4)).join();
+        storage.addVote(player, NOON.minusDays(3)).join();
+
+        assertEquals(2, storage.getStreak(player).join());
+        PlayerVoteProfile profile = storage.addVote(player, NOON).join();
+
+        assertEquals(1, profile.getStreakCount());
+        assertEquals(3, profile.getAllTimeCount());
+        assertEquals(1, profile.getVoteCount("daily", NOON));
+    }
+
+    @Test
+    void concurrentVotesAreAllCounted() {
+        UUID[] players = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        List<CompletableFuture<PlayerVoteProfile>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(storage.addVote(players[i % players.length], NOON));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        for (UUID player : players) {
+            assertEquals(50, storage.getProfile(player).join().getAllTimeCount());
+        }
+    }
+
+    @Test
+    void batchIsAppliedInOrder() {
+        UUID player = UUID.randomUUID();
+        storage.addVotes(Arrays.asList(entry(player, NOON.minusDays(1)), entry(player, NOON))).join();
+
+        PlayerVoteProfile profile = storage.getProfile(player).join();
+
+        assertEquals(2, profile.getAllTimeCount());
+        assertEquals(2, profile.getStreakCount());
+    }
+
+    @Test
+    void journaledSegmentIsAppliedOnce() {
+        String journal = UUID.randomUUID().toString();
+        UUID player = UUID.randomUUID();
+        assertEquals(-1L, storage.getJournalCheckpoint(journal).join());
+
+        storage.addJournaledVotes(journal, 3, Arrays.asList(entry(player, NOON), entry(player, NOON))).join();
+        storage.addJournaledVotes(journal, 3, Arrays.asList(entry(player, NOON), entry(player, NOON))).join();
+        storage.addJournaledVotes(journal, 2, Arrays.asList(entry(player, NOON), entry(player, NOON))).join();
+
+        assertEquals(2, storage.getProfile(player).join().getAllTimeCount());
+        assertEquals(3L, storage.getJournalCheckpoint(journal).join());
+    }
+
+    @Test
+    void pendingVotesAreClaimedOnce() {
+        PendingVoteStorage pending = new PendingVoteStorage(storage);
+        UUID player = UUID.randomUUID();
+        String name = player.toString().substring(0, 16);
+        long now = System.currentTimeMillis();
+        pending.addPendingVote(null, name, now - 1000).join();
+        pending.addPendingVote(player, name, now).join();
+        assertTrue(storage.hasPendingVotes(player, name).join());
+        assertTrue(storage.getPendingVoteNames().join().contains(name));
+        assertTrue(storage.getPendingVoteUUIDs().join().contains(player));
+
+        List<Long> claimed = storage.claimPendingVotes(player, name).join();
+
+        assertEquals(Arrays.asList(now - 1000, now), claimed);
+        assertEquals(2, storage.getProfile(player).join().getAllTimeCount());
+        assertTrue(storage.claimPendingVotes(player, name).join().isEmpty());
+        assertFalse(storage.hasPendingVotes(player, name).join());
+    }
+
+    @Test
+    void expiredPendingVotesAreDeleted() {
+        UUID player = UUID.randomUUID();
+        String name = player.toString().substring(0, 16);
+        long now = System.currentTimeMillis();
+        storage.addPendingVote(player, name, now - 60000).join();
+        storage.addPendingVote(player, name, now).join();
+
+        assertTrue(storage.deleteExpiredPendingVotes(now - 30000).join() >= 1);
+
+        assertEquals(Collections.singletonList(now), storage.claimPendingVotes(player, name).join());
+    }
+
+    @Test
+    void claimsAreSavedOnce() {
+        UUID player = UUID.randomUUID();
+        assertTrue(storage.getClaims(ClaimType.MILESTONE, player).join().isEmpty());
+
+        assertEquals(2, storage.saveClaims(ClaimType.MILESTONE, Collections.singletonMap(player, IntArrayList.wrap(new int[]{1, 70}))).join());
+        storage.saveClaims(ClaimType.MILESTONE, Collections.singletonMap(player, IntArrayList.wrap(new int[]{1}))).join();
+
+        IntList claims = storage.getClaims(ClaimType.MILESTONE, player).join();
+        claims.sort(null);
+        assertEquals(IntArrayList.wrap(new int[]{1, 70}), claims);
+        assertTrue(storage.getClaims(ClaimType.STREAK, player).join().isEmpty());
+    }
+
+    @Test
+    void multipleVotesNeedARecord() {
+        UUID player = UUID.randomUUID();
+        assertFalse(storage.addMultipleVotes(player, 5, NOON).join());
+
+        storage.addVote(player, NOON).join();
+
+        assertTrue(storage.addMultipleVotes(player, 5, NOON).join());
+        assertEquals(6, storage.getProfile(player).join().getAllTimeCount());
+        assertTrue(storage.removeVotes(player, 2).join());
+        assertEquals(4, storage.getProfile(player).join().getAllTimeCount());
+        assertFalse(storage.removeVotes(UUID.randomUUID(), 2).join());
+    }
+
+    @Test
+    void streakCanBeEdited() {
+        UUID player = UUID.randomUUID();
+        assertEquals(0, storage.getStreak(player).join());
+        assertTrue(storage.addVoteStreak(player, NOON).join());
+        assertFalse(storage.addVoteStreak(player, NOON).join());
+
+        storage.setStreak(player, 5).join();
+        assertEquals(5, storage.getStreak(player).join());
+        storage.addStreak(player, 2).join();
+        assertEquals(7, storage.getStreak(player).join());
+        storage.updateStreak(player, 9, LocalDate.now()).join();
+        assertEquals(9, storage.getStreak(player).join());
+        storage.resetStreak(player, LocalDate.now()).join();
+        assertEquals(1, storage.getStreak(player).join());
+    }
+
+    @Test
+    void votePartyCountIsSaved() {
+        storage.saveVotePartyCount(42).join();
+        assertEquals(42, storage.getVotePartyCount().join());
+
+        storage.saveVotePartyCount(7).join();
+        assertEquals(7, storage.getVotePartyCount().join());
+    }
+
+    @Test
+    void allProfilesIncludeEveryRecord() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        storage.addVote(first, NOON).join();
+        storage.addVote(second, NOON).join();
+
+        List<UUID> players = new ArrayList<>();
+        for (PlayerVoteProfile profile : storage.getAllProfiles().join()) {
+            players.add(profile.getUuid());
+        }
+
+        assertTrue(players.containsAll(Arrays.asList(first, second)));
+        assertNotNull(storage.getConnectionProvider());
+    }
+
+    private static JournalEntry entry(UUID player, LocalDateTime time) {
+        return new JournalEntry(player, time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+    /**
+     * Reads settings written as YAML.
+     *
+     * @param yaml The settings.
+     * @return The settings section.
+     * @throws InvalidConfigurationException If the YAML could not be read.
+     */
+    protected static YamlConfiguration section(String yaml) throws InvalidConfigurationException {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.loadFromString(yaml);
+        return configuration;
+    }
+}
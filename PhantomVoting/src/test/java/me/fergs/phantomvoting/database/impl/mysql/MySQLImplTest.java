@@ -0,0 +1,27 @@
+package me.fergs.phantomvoting.database.impl.mysql;
+
+import me.fergs.phantomvoting.database.impl.VoteStorageConformanceTest;
+import me.fergs.phantomvoting.database.interfaces.VoteStorage;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the conformance suite against MySQL. Skipped unless the system property phantomvoting.mysql.host points
+ * at a throwaway database, with port, database, username and password set the same way.
+ * <p>
+ * The pool holds a single connection, so any operation that borrows a second connection while holding one
+ * deadlocks here instead of on a server configured with maximum-pool-size: 1.
+ */
+class MySQLImplTest extends VoteStorageConformanceTest {
+    @Override
+    protected VoteStorage createStorage() throws Exception {
+        String host = System.getProperty("phantomvoting.mysql.host");
+        assumeTrue(host != null && !host.isEmpty(), "phantomvoting.mysql.host is not set");
+        return new MySQLImpl(section("host: \"" + host + "\"\n" +
+                "port: \"" + System.getProperty("phantomvoting.mysql.port", "3306") + "\"\n" +
+                "database: \"" + System.getProperty("phantomvoting.mysql.database", "phantomvoting_test") + "\"\n" +
+                "username: \"" + System.getProperty("phantomvoting.mysql.username", "root") + "\"\n" +
+                "password: \"" + System.getProperty("phantomvoting.mysql.password", "") + "\"\n"),
+                section("maximum-pool-size: 1\nminimum-idle: 1\nconnection-timeout: 10000\n"), null);
+    }
+}
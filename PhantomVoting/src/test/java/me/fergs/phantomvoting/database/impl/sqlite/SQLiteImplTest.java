@@ -0,0 +1,17 @@
+package me.fergs.phantomvoting.database.impl.sqlite;
+
+import me.fergs.phantomvoting.database.impl.VoteStorageConformanceTest;
+import me.fergs.phantomvoting.database.interfaces.VoteStorage;
+
+import java.util.UUID;
+
+/**
+ * Runs the conformance suite against SQLite, on a throwaway in-memory database per test.
+ */
+class SQLiteImplTest extends VoteStorageConformanceTest {
+    @Override
+    protected VoteStorage createStorage() throws Exception {
+        return new SQLiteImpl("PhantomVoting-Test-" + UUID.randomUUID(), section("file: \":memory:\"\n"),
+                section("reader-connections: 2\nminimum-idle: 1\n"), null, null);
+    }
+}
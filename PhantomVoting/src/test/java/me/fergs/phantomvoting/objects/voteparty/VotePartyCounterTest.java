@@ -0,0 +1,129 @@
+package me.fergs.phantomvoting.objects.voteparty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VotePartyCounterTest {
+    private static final int THREADS = 8;
+    private static final int VOTES_PER_THREAD = 100_000;
+    private static final int THRESHOLD = 7;
+
+    @Test
+    void concurrentVotesTriggerEveryPartyExactlyOnce() throws Exception {
+        VotePartyCounter counter = new VotePartyCounter(new AtomicInteger());
+
+        long parties = runConcurrently(thread -> {
+            long triggered = 0;
+            for (int i = 0; i < VOTES_PER_THREAD; i++) {
+                triggered += counter.add(1, THRESHOLD);
+            }
+            return triggered;
+        });
+
+        long votes = (long) THREADS * VOTES_PER_THREAD;
+        assertEquals(votes / THRESHOLD, parties);
+        assertEquals(votes % THRESHOLD, counter.get());
+    }
+
+    @Test
+    void concurrentBatchesCarryOverExactly() throws Exception {
+        VotePartyCounter counter = new VotePartyCounter(new AtomicInteger());
+
+        long parties = runConcurrently(thread -> {
+            long triggered = 0;
+            for (int i = 0; i < VOTES_PER_THREAD / 10; i++) {
+                triggered += counter.add(thread + 1, THRESHOLD);
+            }
+            return triggered;
+        });
+
+        long votes = 0;
+        for (int thread = 0; thread < THREADS; thread++) {
+            votes += (long) (thread + 1) * (VOTES_PER_THREAD / 10);
+        }
+        assertEquals(votes / THRESHOLD, parties);
+        assertEquals(votes % THRESHOLD, counter.get());
+    }
+
+    @Test
+    void setsRacingWithVotesLoseNoParty() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        VotePartyCounter counter = new VotePartyCounter(count);
+
+        long parties = runConcurrently(thread -> {
+            long triggered = 0;
+            for (int i = 0; i < VOTES_PER_THREAD; i++) {
+                triggered += thread == 0 && i % 100 == 0 ? counter.set(THRESHOLD, THRESHOLD) : counter.add(1, THRESHOLD);
+            }
+            return triggered;
+        });
+
+        long sets = VOTES_PER_THREAD / 100;
+        long adds = (long) THREADS * VOTES_PER_THREAD - sets;
+        assertTrue(parties >= sets, "every set to the threshold triggers a party");
+        assertTrue(parties <= sets + adds / THRESHOLD, "no party is triggered twice");
+        assertTrue(count.get() >= 0 && count.get() < THRESHOLD, "the count stays below the threshold");
+    }
+
+    @Test
+    void setKeepsTheRemainder() {
+        VotePartyCounter counter = new VotePartyCounter(new AtomicInteger(3));
+
+        assertEquals(2, counter.set(250, 100));
+        assertEquals(50, counter.get());
+    }
+
+    @Test
+    void negativeVotesStopAtZero() {
+        VotePartyCounter counter = new VotePartyCounter(new AtomicInteger(5));
+
+        assertEquals(0, counter.add(-10, 100));
+        assertEquals(0, counter.get());
+    }
+
+    /**
+     * Runs a task on every thread at once and sums the parties each one triggered.
+     *
+     * @param task The task, given the thread's index.
+     * @return The total number of parties triggered.
+     */
+    private static long runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                results.add(executor.submit((Callable<Long>) () -> {
+                    start.await();
+                    return task.run(index);
+                }));
+            }
+            start.countDown();
+            long parties = 0;
+            for (Future<Long> result : results) {
+                parties += result.get(1, TimeUnit.MINUTES);
+            }
+            return parties;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        long run(int thread);
+    }
+}
@@ -0,0 +1,86 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.config.YamlConfigFile;
+import me.fergs.phantomvoting.database.VoteStorage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * A throwaway SQLite vote storage under plugins/, opened the same way the plugin opens its own.
+ */
+public final class BenchmarkStorage implements AutoCloseable {
+    private final Path folder;
+    private final VoteStorage voteStorage;
+    /**
+     * Opens a new vote storage with the journal disabled, so every vote is written directly.
+     *
+     * @param file The database file, or ":memory:" for an in-memory database.
+     * @throws IOException If the folder could not be created.
+     */
+    public BenchmarkStorage(String file) throws IOException {
+        this(file, "");
+    }
+    /**
+     * Opens a new vote storage with the journal disabled and extra storage settings.
+     *
+     * @param file The database file, or ":memory:" for an in-memory database.
+     * @param settings Extra storage.yml sections, appended to the defaults.
+     * @throws IOException If the folder could not be created.
+     */
+    public BenchmarkStorage(String file, String settings) throws IOException {
+        HeadlessServer.install();
+        String dataFolder = "PhantomVoting-Benchmark-" + UUID.randomUUID();
+        this.folder = Files.createDirectories(Paths.get("plugins", dataFolder));
+        Path storageFile = folder.resolve("storage.yml");
+        String yaml = "Storage-Settings:\n" +
+                "  type: \"SQLITE\"\n" +
+                "  file: \"" + file + "\"\n" +
+                "Write-Behind:\n" +
+                "  enabled: false\n" +
+                settings;
+        Files.write(storageFile, yaml.getBytes(StandardCharsets.UTF_8));
+        this.voteStorage = new VoteStorage(dataFolder, new YamlConfigFile(storageFile.toFile()));
+    }
+    /**
+     * Gets the vote storage.
+     *
+     * @return The vote storage.
+     */
+    public VoteStorage getVoteStorage() {
+        return voteStorage;
+    }
+    /**
+     * Gives a player a record with the given number of votes. The first vote creates the row, because adding
+     * several votes only updates a record that already exists. Both go through the vote storage, so the
+     * leaderboards see the player too.
+     *
+     * @param uuid The player's UUID.
+     * @param votes The number of votes, at least 1.
+     */
+    public void seed(UUID uuid, int votes) {
+        voteStorage.addVote(uuid).join();
+        if (votes > 1) {
+            voteStorage.addMultipleVotes(uuid, votes - 1).join();
+        }
+    }
+    /**
+     * Closes the vote storage and deletes its folder.
+     *
+     * @throws IOException If the folder could not be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        voteStorage.close();
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.database.claim.ClaimStore;
+import me.fergs.phantomvoting.database.claim.ClaimType;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the heap held by claimed milestones or streaks for a large number of players, comparing
+ * {@link ClaimStore} with the map of boxed integer sets it replaced.
+ * <p>
+ * The store is filled through {@link ClaimStore#claim(UUID, int)} without a database, so the claims are held
+ * as unsaved masks, which use the same layout as claims loaded for online players.
+ * <p>
+ * This measures retained memory rather than time, so it is a plain program instead of a JMH benchmark:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar me.fergs.phantomvoting.benchmarks.ClaimFootprint [players] [claimsPerPlayer]
+ * </pre>
+ */
+public final class ClaimFootprint {
+    private ClaimFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int claimsPerPlayer = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.printf("%,d players with %d claims each%n", players, claimsPerPlayer);
+
+        long baseline = usedHeap();
+        Map<UUID, Set<Integer>> legacy = new ConcurrentHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < players; i++) {
+            Set<Integer> ids = legacy.computeIfAbsent(new UUID(random.nextLong(), random.nextLong()), key -> ConcurrentHashMap.newKeySet());
+            for (int id = 1; id <= claimsPerPlayer; id++) {
+                ids.add(id);
+            }
+        }
+        report("ConcurrentHashMap<UUID, Set<Integer>>", usedHeap() - baseline, players);
+        legacy = null;
+
+        baseline = usedHeap();
+        ClaimStore store = new ClaimStore(null, ClaimType.MILESTONE, 0);
+        random = new Random(42);
+        for (int i = 0; i < players; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            for (int id = 1; id <= claimsPerPlayer; id++) {
+                store.claim(uuid, id);
+            }
+        }
+        report("ClaimStore", usedHeap() - baseline, players);
+        if (store.getUnsavedCount() != players * claimsPerPlayer) {
+            throw new IllegalStateException("Expected " + players * claimsPerPlayer + " claims, found " + store.getUnsavedCount());
+        }
+    }
+
+    private static void report(String name, long bytes, int players) {
+        System.out.printf("%-40s %,8.1f MiB  %,6.1f bytes/player%n", name, bytes / 1048576D, bytes / (double) players);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,70 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.utils.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single-pass colour translator against the regex based one it replaced.
+ * {@code translate} is the uncached pass, {@code hex} is what callers use and hits the cache for repeated messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark {
+    @Param({"plain", "legacy", "hex", "lore"})
+    public String kind;
+    private String message;
+
+    @Setup
+    public void setUp() {
+        switch (kind) {
+            case "plain":
+                message = "Thanks for voting! You now have 12 votes.";
+                break;
+            case "legacy":
+                message = "&6&lVOTE &8» &eThanks for voting, &fNotch&e! You now have &612 &evotes.";
+                break;
+            case "hex":
+                message = "#FFAA00&lVOTE &8» #FFFF55Thanks for voting, #FFFFFFNotch#FFFF55! You now have #FFAA0012 #FFFF55votes.";
+                break;
+            default:
+                message = "#55FF55&l» #AAAAAAClick to claim #FFAA00#FFAA00#FFAA00 &7rewards #AAAAAA(#55FF55ready#AAAAAA)";
+                break;
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return LegacyColor.hex(message);
+    }
+
+    @Benchmark
+    public String translate() {
+        return Color.translate(message);
+    }
+
+    @Benchmark
+    public String hex() {
+        return Color.hex(message);
+    }
+
+    @Benchmark
+    public String gradient() {
+        return Color.translate("<gradient:#FFAA00:#FF5555>&lVOTE PARTY</gradient> &8» &eThanks for voting!");
+    }
+}
@@ -0,0 +1,189 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for the Bukkit server, so plugin code can be benchmarked without starting one.
+ * <p>
+ * Only what the benchmarked code paths touch is answered: the logger, offline player names, and an item factory
+ * whose metadata simply records what is set on it. Every other call returns a default value.
+ */
+public final class HeadlessServer {
+    private static final Logger LOGGER = Logger.getLogger("PhantomVoting-Benchmarks");
+
+    static {
+        LOGGER.setLevel(Level.WARNING);
+    }
+
+    private HeadlessServer() {
+    }
+    /**
+     * Installs the headless server, unless a server is already set.
+     */
+    public static synchronized void install() {
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer(proxy(Server.class, HeadlessServer::handleServer));
+        }
+    }
+    /**
+     * Creates an online player with the given UUID.
+     *
+     * @param uuid The player's UUID.
+     * @return The player.
+     */
+    public static Player player(UUID uuid) {
+        return proxy(Player.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                    return "Player";
+                case "isOnline":
+                    return true;
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    private static Object handleServer(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getLogger":
+                return LOGGER;
+            case "getName":
+            case "getVersion":
+            case "getBukkitVersion":
+                return "Headless";
+            case "getItemFactory":
+                return proxy(ItemFactory.class, HeadlessServer::handleItemFactory);
+            case "getOfflinePlayer":
+                UUID uuid = args[0] instanceof UUID ? (UUID) args[0] : UUID.nameUUIDFromBytes(String.valueOf(args[0]).getBytes());
+                return proxy(OfflinePlayer.class, (offlineMethod, offlineArgs) -> {
+                    switch (offlineMethod.getName()) {
+                        case "getUniqueId":
+                            return uuid;
+                        case "getName":
+                            return "Player";
+                        default:
+                            return defaultValue(offlineMethod);
+                    }
+                });
+            default:
+                return defaultValue(method);
+        }
+    }
+
+    private static Object handleItemFactory(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getItemMeta":
+                return itemMeta(new HashMap<>());
+            case "isApplicable":
+                return true;
+            case "asMetaFor":
+                return args[0];
+            case "updateMaterial":
+                return args[1];
+            default:
+                return defaultValue(method);
+        }
+    }
+    /**
+     * Creates item metadata that records every value set on it.
+     *
+     * @param values The recorded values, keyed by property name.
+     * @return The metadata.
+     */
+    private static ItemMeta itemMeta(Map<String, Object> values) {
+        return proxy(SkullMeta.class, (method, args) -> {
+            String name = method.getName();
+            if (name.equals("clone")) {
+                return itemMeta(new HashMap<>(values));
+            }
+            if ((name.startsWith("set") || name.startsWith("add")) && args != null && args.length > 0) {
+                values.put(name.substring(3), args[0]);
+                return method.getReturnType() == boolean.class ? true : null;
+            }
+            if (name.startsWith("get") && values.containsKey(name.substring(3))) {
+                return values.get(name.substring(3));
+            }
+            if (name.startsWith("has")) {
+                return values.containsKey(name.substring(3));
+            }
+            return defaultValue(method);
+        });
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) {
+            return type == String.class ? "" : null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(HeadlessServer.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    if (method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    break;
+                case "hashCode":
+                    if (method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                case "toString":
+                    if (method.getParameterCount() == 0) {
+                        return "Headless" + type.getSimpleName();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return handler.handle(method, args);
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
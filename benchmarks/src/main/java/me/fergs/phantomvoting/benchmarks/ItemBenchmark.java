@@ -0,0 +1,72 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.utils.InventoryUtil;
+import me.fergs.phantomvoting.utils.ItemBuilder;
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building menu items, which happens for every slot each time a menu is opened.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemBenchmark {
+    private final List<String> lore = Arrays.asList(
+            "&7Votes: &e%votes%",
+            "#FFAA00Position: &f#%position%",
+            "",
+            "&eClick to view!");
+    private YamlConfiguration config;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidConfigurationException {
+        HeadlessServer.install();
+        config = new YamlConfiguration();
+        config.loadFromString("item:\n" +
+                "  material: PAPER\n" +
+                "  name: \"#FFAA00&l%player%\"\n" +
+                "  lore:\n" +
+                "    - \"&7Votes: &e%votes%\"\n" +
+                "    - \"#FFAA00Position: &f#%position%\"\n" +
+                "    - \"\"\n" +
+                "    - \"&eClick to view!\"\n" +
+                "  glowing: true\n" +
+                "  flags:\n" +
+                "    - HIDE_ATTRIBUTES\n");
+    }
+
+    @Benchmark
+    public ItemStack createItem() {
+        return InventoryUtil.createItem(config, "item", "%player%", "Notch", "%votes%", "12", "%position%", "3");
+    }
+
+    @Benchmark
+    public ItemStack itemBuilder() {
+        return ItemBuilder.create(Material.PAPER)
+                .setName("#FFAA00&lNotch")
+                .setLore(lore)
+                .setGlowing(true)
+                .build();
+    }
+}
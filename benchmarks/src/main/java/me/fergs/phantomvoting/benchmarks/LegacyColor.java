@@ -0,0 +1,29 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import net.md_5.bungee.api.ChatColor;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex based colour translation that {@link me.fergs.phantomvoting.utils.Color} replaced, kept as a baseline.
+ */
+final class LegacyColor {
+    private LegacyColor() {
+    }
+
+    static String hex(String message) {
+        Pattern pattern = Pattern.compile("(#[a-fA-F0-9]{6})");
+        for (Matcher matcher = pattern.matcher(message); matcher.find(); matcher = pattern.matcher(message)) {
+            String hexCode = message.substring(matcher.start(), matcher.end());
+            String replaceSharp = hexCode.replace('#', 'x');
+            char[] ch = replaceSharp.toCharArray();
+            StringBuilder builder = new StringBuilder();
+            for (char c : ch) {
+                builder.append("&").append(c);
+            }
+            message = message.replace(hexCode, builder.toString());
+        }
+        return ChatColor.translateAlternateColorCodes('&', message).replace('&', '§');
+    }
+}
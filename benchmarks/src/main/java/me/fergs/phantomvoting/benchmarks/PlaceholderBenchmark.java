@@ -0,0 +1,90 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.enums.PlaceholderType;
+import me.fergs.phantomvoting.placeholders.CompiledPlaceholder;
+import me.fergs.phantomvoting.placeholders.PlaceholderResolver;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placeholder resolution as a scoreboard plugin drives it, for a player whose record is cached.
+ * The uncached resolver has its value cache disabled, so it measures the lookup behind each placeholder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderBenchmark {
+    private BenchmarkStorage storage;
+    private PlaceholderResolver cached;
+    private PlaceholderResolver uncached;
+    private Player player;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        storage = new BenchmarkStorage(":memory:");
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            storage.seed(new UUID(random.nextLong(), random.nextLong()), 1 + random.nextInt(500));
+        }
+        UUID uuid = new UUID(random.nextLong(), random.nextLong());
+        storage.seed(uuid, 250);
+        storage.getVoteStorage().loadCachedProfile(uuid);
+        player = HeadlessServer.player(uuid);
+        cached = new PlaceholderResolver(storage.getVoteStorage(), null, 60_000L);
+        uncached = new PlaceholderResolver(storage.getVoteStorage(), null, 0L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        storage.close();
+    }
+
+    @Benchmark
+    public PlaceholderType fromIdentifier() {
+        return PlaceholderType.fromIdentifier("player_position");
+    }
+
+    @Benchmark
+    public CompiledPlaceholder compileParameterized() {
+        return cached.compile("top_player_3");
+    }
+
+    @Benchmark
+    public String resolveCached() {
+        return cached.resolve(player, "player_position");
+    }
+
+    @Benchmark
+    public String resolveVoteCount() {
+        return uncached.resolve(player, "all_time_votes");
+    }
+
+    @Benchmark
+    public String resolvePosition() {
+        return uncached.resolve(player, "player_position");
+    }
+
+    @Benchmark
+    public String resolveTopPlayer() {
+        return uncached.resolve(player, "top_player_3");
+    }
+}
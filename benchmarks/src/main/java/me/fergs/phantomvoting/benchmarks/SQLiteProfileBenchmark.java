@@ -0,0 +1,95 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.database.VoteStorage;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vote throughput against a SQLite database file with SQLite's own defaults (rollback journal,
+ * synchronous=FULL) and with the plugin's default profile (WAL, synchronous=NORMAL, memory mapping).
+ * Every vote is its own commit, as it is without write-behind, so the difference is mostly the fsync per commit.
+ * The rush group reads streaks while three threads vote, which a rollback journal blocks during each commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SQLiteProfileBenchmark {
+    private static final String SQLITE_DEFAULTS = "SQLite-Settings:\n" +
+            "  journal-mode: \"DELETE\"\n" +
+            "  synchronous: \"FULL\"\n" +
+            "  mmap-size: 0\n" +
+            "  cache-size: -2000\n" +
+            "  temp-store: \"DEFAULT\"\n";
+    @Param({"sqlite-defaults", "tuned"})
+    public String profile;
+    @Param({"1000"})
+    public int players;
+    private BenchmarkStorage storage;
+    private VoteStorage voteStorage;
+    private UUID[] uuids;
+
+    @Setup
+    public void setUp() throws IOException {
+        storage = new BenchmarkStorage("votes.db", profile.equals("sqlite-defaults") ? SQLITE_DEFAULTS : "");
+        voteStorage = storage.getVoteStorage();
+        uuids = new UUID[players];
+        Random random = new Random(42);
+        for (int i = 0; i < players; i++) {
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+            storage.seed(uuids[i], 1 + random.nextInt(500));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+    }
+
+    @Benchmark
+    public PlayerVoteProfile addVote() {
+        return voteStorage.addVote(uuids[ThreadLocalRandom.current().nextInt(uuids.length)]).join();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public PlayerVoteProfile addVoteConcurrent() {
+        return voteStorage.addVote(uuids[ThreadLocalRandom.current().nextInt(uuids.length)]).join();
+    }
+
+    @Benchmark
+    @Group("rush")
+    @GroupThreads(3)
+    public PlayerVoteProfile rushVote() {
+        return voteStorage.addVote(uuids[ThreadLocalRandom.current().nextInt(uuids.length)]).join();
+    }
+
+    @Benchmark
+    @Group("rush")
+    @GroupThreads(1)
+    public int rushRead() {
+        return voteStorage.getPlayerStreak(uuids[ThreadLocalRandom.current().nextInt(uuids.length)]);
+    }
+}
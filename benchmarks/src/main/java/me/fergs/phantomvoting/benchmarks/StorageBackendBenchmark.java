@@ -0,0 +1,150 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.database.impl.mysql.MySQLImpl;
+import me.fergs.phantomvoting.database.impl.sqlite.SQLiteImpl;
+import me.fergs.phantomvoting.database.interfaces.VoteStorage;
+import me.fergs.phantomvoting.database.journal.JournalEntry;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The storage backends measured through the storage SPI, without the caches in front of them, so each backend
+ * runs the same workload. The pipelined benchmark submits votes without waiting for each one, which the SQLite
+ * backend queues on its writer thread and the MySQL backend spreads over its pool.
+ * <p>
+ * Only SQLite runs by default. To include MySQL, pass {@code -p backend=sqlite,mysql} and point it at a throwaway
+ * database with the system properties phantomvoting.mysql.host, port, database, username and password.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBackendBenchmark {
+    private static final int PIPELINE = 16;
+    private static final int BATCH = 100;
+    @Param({"sqlite"})
+    public String backend;
+    @Param({"1000"})
+    public int players;
+    private Path folder;
+    private VoteStorage storage;
+    private UUID[] uuids;
+
+    @Setup
+    public void setUp() throws IOException, InvalidConfigurationException {
+        HeadlessServer.install();
+        if (backend.equals("mysql")) {
+            storage = new MySQLImpl(section("host: \"" + System.getProperty("phantomvoting.mysql.host", "localhost") + "\"\n" +
+                    "port: \"" + System.getProperty("phantomvoting.mysql.port", "3306") + "\"\n" +
+                    "database: \"" + System.getProperty("phantomvoting.mysql.database", "phantomvoting_benchmark") + "\"\n" +
+                    "username: \"" + System.getProperty("phantomvoting.mysql.username", "root") + "\"\n" +
+                    "password: \"" + System.getProperty("phantomvoting.mysql.password", "") + "\"\n"), null, null);
+        } else {
+            String dataFolder = "PhantomVoting-Benchmark-" + UUID.randomUUID();
+            folder = Files.createDirectories(Paths.get("plugins", dataFolder));
+            storage = new SQLiteImpl(dataFolder, section("file: \"votes.db\"\n"), null, null, null);
+        }
+        storage.initialize().join();
+
+        uuids = new UUID[players];
+        Random random = new Random(42);
+        List<JournalEntry> votes = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < players; i++) {
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+            votes.add(new JournalEntry(uuids[i], now));
+        }
+        storage.addVotes(votes).join();
+    }
+
+    private static YamlConfiguration section(String yaml) throws InvalidConfigurationException {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.loadFromString(yaml);
+        return configuration;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+        if (folder != null) {
+            try (Stream<Path> paths = Files.walk(folder)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private UUID randomPlayer() {
+        return uuids[ThreadLocalRandom.current().nextInt(uuids.length)];
+    }
+
+    @Benchmark
+    public PlayerVoteProfile addVote() {
+        return storage.addVote(randomPlayer(), LocalDateTime.now()).join();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public PlayerVoteProfile addVoteConcurrent() {
+        return storage.addVote(randomPlayer(), LocalDateTime.now()).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public void addVotePipelined() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[PIPELINE];
+        for (int i = 0; i < PIPELINE; i++) {
+            futures[i] = storage.addVote(randomPlayer(), LocalDateTime.now());
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void addVoteBatch() {
+        List<JournalEntry> votes = new ArrayList<>(BATCH);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < BATCH; i++) {
+            votes.add(new JournalEntry(randomPlayer(), now));
+        }
+        storage.addVotes(votes).join();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public PlayerVoteProfile getProfile() {
+        return storage.getProfile(randomPlayer()).join();
+    }
+}
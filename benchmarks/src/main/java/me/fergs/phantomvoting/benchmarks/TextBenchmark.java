@@ -0,0 +1,70 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.objects.messages.MessageTemplate;
+import me.fergs.phantomvoting.utils.Color;
+import me.fergs.phantomvoting.utils.MessageParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Colour translation and placeholder substitution, which run for every message and menu item.
+ * The template benchmarks render the same messages the way MessageManager does since they were precompiled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark {
+    private final String plain = "Thanks for voting! You now have 12 votes.";
+    private final String legacy = "&6&lVOTE &8» &eThanks for voting, &f%player%&e! You now have &6%votes% &evotes.";
+    private final String hex = "#FFAA00&lVOTE &8» #FFFF55Thanks for voting, #FFFFFF%player%#FFFF55! You now have #FFAA00%votes% #FFFF55votes.";
+    private final String[] placeholders = {"%player%", "Notch", "%votes%", "12"};
+    private final MessageTemplate legacyTemplate = MessageTemplate.compile(legacy);
+    private final MessageTemplate hexTemplate = MessageTemplate.compile(hex);
+
+    @Benchmark
+    public String colorPlain() {
+        return Color.hex(plain);
+    }
+
+    @Benchmark
+    public String colorLegacy() {
+        return Color.hex(legacy);
+    }
+
+    @Benchmark
+    public String colorHex() {
+        return Color.hex(hex);
+    }
+
+    @Benchmark
+    public String parse() {
+        return MessageParser.parse(legacy, placeholders);
+    }
+
+    @Benchmark
+    public String parseAndColor() {
+        return Color.hex(MessageParser.parse(hex, placeholders));
+    }
+
+    @Benchmark
+    public String renderLegacyTemplate() {
+        return legacyTemplate.render(null, false, placeholders);
+    }
+
+    @Benchmark
+    public String renderHexTemplate() {
+        return hexTemplate.render(null, false, placeholders);
+    }
+}
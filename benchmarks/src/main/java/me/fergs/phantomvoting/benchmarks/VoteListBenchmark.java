@@ -0,0 +1,92 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.objects.messages.ComponentTemplate;
+import me.fergs.phantomvoting.objects.messages.MessageTemplate;
+import me.fergs.phantomvoting.utils.Color;
+import me.fergs.phantomvoting.utils.MessageParser;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Building the clickable VOTE_LIST lines sent by /vote, from cached component templates
+ * against parsing and deserializing every line on every send as before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoteListBenchmark {
+    private static final Pattern CLICKABLE_PATTERN = Pattern.compile("\\((.*?)\\)\\[(.*?)]");
+    private final String linkLine = " &f&l→ &eVote Link &6#1 (Click Me)[https://example.com/vote]";
+    private final String votesLine = " &f&l→ &eCurrent Votes: &6%daily_votes%";
+    private final String[] placeholders = {"%daily_votes%", "7"};
+    private final ComponentTemplate linkTemplate = ComponentTemplate.compile(MessageTemplate.compile(linkLine));
+    private final ComponentTemplate votesTemplate = ComponentTemplate.compile(MessageTemplate.compile(votesLine));
+
+    @Benchmark
+    public Component linkLineTemplate() {
+        return linkTemplate.render(null, placeholders);
+    }
+
+    @Benchmark
+    public Component linkLineLegacy() {
+        return legacyParse(linkLine);
+    }
+
+    @Benchmark
+    public Component votesLineTemplate() {
+        return votesTemplate.render(null, placeholders);
+    }
+
+    @Benchmark
+    public Component votesLineLegacy() {
+        return legacyParse(votesLine);
+    }
+
+    /**
+     * The per-send parsing that ComponentTemplate replaced, kept as a baseline.
+     */
+    private Component legacyParse(String rawLine) {
+        LegacyComponentSerializer legacySerializer = LegacyComponentSerializer.builder().hexColors().build();
+        String line = Color.hex(MessageParser.parse(rawLine, placeholders));
+        Matcher matcherTest = CLICKABLE_PATTERN.matcher(line);
+        if (!matcherTest.find()) {
+            return legacySerializer.deserialize(line);
+        }
+
+        TextComponent.Builder builder = Component.text();
+        int lastIndex = 0;
+        Matcher matcher = CLICKABLE_PATTERN.matcher(line);
+        while (matcher.find()) {
+            if (matcher.start() > lastIndex) {
+                builder.append(legacySerializer.deserialize(line.substring(lastIndex, matcher.start())));
+            }
+            builder.append(legacySerializer.deserialize(matcher.group(1))
+                    .hoverEvent(HoverEvent.showText(Component.text("Click Me!")))
+                    .clickEvent(ClickEvent.openUrl(matcher.group(2))));
+            lastIndex = matcher.end();
+        }
+        if (lastIndex < line.length()) {
+            builder.append(legacySerializer.deserialize(line.substring(lastIndex)));
+        }
+        return builder.build();
+    }
+}
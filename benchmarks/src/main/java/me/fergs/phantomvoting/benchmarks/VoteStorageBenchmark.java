@@ -0,0 +1,94 @@
+package me.fergs.phantomvoting.benchmarks;
+
+import me.fergs.phantomvoting.database.VoteStorage;
+import me.fergs.phantomvoting.enums.LeaderboardPeriod;
+import me.fergs.phantomvoting.objects.PlayerVoteData;
+import me.fergs.phantomvoting.objects.PlayerVoteProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vote writes and leaderboard reads against a SQLite database file and an in-memory one.
+ * Comparing the two separates the cost of the disk from the cost of the statements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoteStorageBenchmark {
+    @Param({"votes.db", ":memory:"})
+    public String file;
+    @Param({"1000"})
+    public int players;
+    private BenchmarkStorage storage;
+    private VoteStorage voteStorage;
+    private UUID[] uuids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        storage = new BenchmarkStorage(file);
+        voteStorage = storage.getVoteStorage();
+        uuids = new UUID[players];
+        Random random = new Random(42);
+        for (int i = 0; i < players; i++) {
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+            storage.seed(uuids[i], 1 + random.nextInt(500));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        storage.close();
+    }
+
+    private UUID nextPlayer() {
+        UUID uuid = uuids[next];
+        next = (next + 1) % uuids.length;
+        return uuid;
+    }
+
+    @Benchmark
+    public PlayerVoteProfile addVote() {
+        return voteStorage.addVote(nextPlayer()).join();
+    }
+
+    @Benchmark
+    public int getPlayerPosition() {
+        return voteStorage.getPlayerPosition(nextPlayer());
+    }
+
+    @Benchmark
+    public int getPlayerPositionDaily() {
+        return voteStorage.getPlayerPosition(nextPlayer(), LeaderboardPeriod.DAILY);
+    }
+
+    @Benchmark
+    public List<PlayerVoteData> getTopPlayers() {
+        return voteStorage.getTopPlayers();
+    }
+
+    @Benchmark
+    public int getPlayerVoteCount() {
+        return voteStorage.getPlayerVoteCount(nextPlayer(), "all_time");
+    }
+}